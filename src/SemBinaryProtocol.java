@@ -0,0 +1,244 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The binary protocol of the server mode, for clients that are programs. A
+ * connection whose first byte is MAGIC speaks the binary protocol, any other
+ * connection the text protocol of the command file format. MAGIC is never
+ * the first byte of a UTF-8 line.
+ *
+ * After MAGIC the client sends request frames and the server answers every
+ * frame with one response frame. A frame is an int byte count followed by
+ * that many bytes, all numbers are big-endian. A request frame carries a
+ * batch of operations, so many operations share one round trip:
+ *
+ * short count, then count operations of an opcode byte and its fields:
+ * INSERT int id, int size, size bytes of the record;
+ * SEARCH int id; DELETE int id; PRINT_HASHTABLE; PRINT_BLOCKS
+ *
+ * The record of an insert is a seminar serialized by Seminar.serialize or
+ * encoded by SemRecordCodec, and it is stored as it is sent, without a text
+ * parse and a new serialization. The response frame has a result for every
+ * operation, in the order of the operations:
+ *
+ * short count, then count results of a status byte (OK or ERROR), int size
+ * and size bytes of the UTF-8 messages of the operation
+ *
+ * The messages are those that the text protocol returns, without the dot
+ * line. A frame that is not well formed ends the connection.
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-18-2024
+ */
+public class SemBinaryProtocol {
+    /** the first byte of a binary connection */
+    public static final int MAGIC = 0xB5;
+
+    /** the opcode of an insert */
+    public static final byte INSERT = 1;
+
+    /** the opcode of a search */
+    public static final byte SEARCH = 2;
+
+    /** the opcode of a delete */
+    public static final byte DELETE = 3;
+
+    /** the opcode of a hash table dump */
+    public static final byte PRINT_HASHTABLE = 4;
+
+    /** the opcode of a memory pool dump */
+    public static final byte PRINT_BLOCKS = 5;
+
+    /** the status of an operation that ran */
+    public static final byte OK = 0;
+
+    /** the status of an operation that failed, its messages say why */
+    public static final byte ERROR = 1;
+
+    /** the largest frame (bytes) */
+    public static final int MAX_FRAME = 1 << 24;
+
+    /** the largest number of operations of a frame */
+    public static final int MAX_BATCH = Short.MAX_VALUE;
+
+    /*********** Nested classes ***************/
+    /**
+     * A batch of operations that a client sends as one request frame
+     */
+    public static class Batch {
+        private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private DataOutputStream out = new DataOutputStream(bytes);
+        private int count;
+
+        /**
+         * Add an insert
+         *
+         * @param id
+         *            integer value of the seminar ID
+         * @param record
+         *            byte array that holds the record from position 0
+         * @param size
+         *            integer value of the record size (bytes)
+         * @return this batch
+         * @throws IOException
+         *             never for this in-memory batch
+         */
+        public Batch insert(int id, byte[] record, int size)
+            throws IOException {
+            add(INSERT);
+            out.writeInt(id);
+            out.writeInt(size);
+            out.write(record, 0, size);
+            return this;
+        }
+
+
+        /**
+         * Add a search
+         *
+         * @param id
+         *            integer value of the seminar ID
+         * @return this batch
+         * @throws IOException
+         *             never for this in-memory batch
+         */
+        public Batch search(int id) throws IOException {
+            add(SEARCH);
+            out.writeInt(id);
+            return this;
+        }
+
+
+        /**
+         * Add a delete
+         *
+         * @param id
+         *            integer value of the seminar ID
+         * @return this batch
+         * @throws IOException
+         *             never for this in-memory batch
+         */
+        public Batch delete(int id) throws IOException {
+            add(DELETE);
+            out.writeInt(id);
+            return this;
+        }
+
+
+        /**
+         * Add a dump
+         *
+         * @param opcode
+         *            PRINT_HASHTABLE or PRINT_BLOCKS
+         * @return this batch
+         * @throws IOException
+         *             never for this in-memory batch
+         */
+        public Batch print(byte opcode) throws IOException {
+            add(opcode);
+            return this;
+        }
+
+
+        /**
+         * @return the number of operations of the batch
+         */
+        public int size() {
+            return count;
+        }
+
+
+        /**
+         * Write the batch as a request frame and empty the batch
+         *
+         * @param to
+         *            the stream of the connection
+         * @throws IOException
+         *             if the frame can not be written
+         */
+        public void writeTo(DataOutputStream to) throws IOException {
+            to.writeInt(2 + bytes.size());
+            to.writeShort(count);
+            bytes.writeTo(to);
+            to.flush();
+            bytes.reset();
+            count = 0;
+        }
+
+
+        // start an operation
+        private void add(byte opcode) {
+            if (count == MAX_BATCH) {
+                throw new IllegalStateException("The batch is full");
+            }
+            count++;
+            bytes.write(opcode);
+        }
+    } /// close nested class Batch
+
+
+    /**
+     * The results of a response frame
+     */
+    public static class Response {
+        private byte[] statuses;
+        private String[] messages;
+
+        /**
+         * Read a response frame
+         *
+         * @param in
+         *            the stream of the connection
+         * @throws IOException
+         *             if the frame can not be read or is not well formed
+         */
+        public Response(DataInputStream in) throws IOException {
+            int size = in.readInt();
+            if (size < 2 || size > MAX_FRAME) {
+                throw new IOException("Invalid frame size " + size);
+            }
+            int count = in.readUnsignedShort();
+            statuses = new byte[count];
+            messages = new String[count];
+            for (int i = 0; i < count; i++) {
+                statuses[i] = in.readByte();
+                byte[] text = new byte[in.readInt()];
+                in.readFully(text);
+                messages[i] = new String(text, StandardCharsets.UTF_8);
+            }
+        }
+
+
+        /**
+         * @return the number of results
+         */
+        public int size() {
+            return statuses.length;
+        }
+
+
+        /**
+         * @param index
+         *            integer value of the operation in its batch
+         * @return the status of the operation, OK or ERROR
+         */
+        public byte getStatus(int index) {
+            return statuses[index];
+        }
+
+
+        /**
+         * @param index
+         *            integer value of the operation in its batch
+         * @return the messages of the operation
+         */
+        public String getMessages(int index) {
+            return messages[index];
+        }
+    } /// close nested class Response
+}
@@ -0,0 +1,294 @@
+import student.TestCase;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class is used to perform testing on SemBinaryProtocol.java class
+ *
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-18-2024
+ */
+public class SemBinaryProtocolTest extends TestCase {
+    private SemFrontEnd server;
+    private Thread serving;
+
+    // the seminar of the tests
+    private Seminar sem = new Seminar(5, "Title", "0610051600", 90,
+        (short)10, (short)10, 45, new String[] { "HCI", "VT" },
+        "Description");
+
+    // start a front end on a free loopback port
+    private void start(boolean sessions) throws Exception {
+        start(sessions, new SemOptions());
+    }
+
+
+    // start a front end of a database with the given options
+    private void start(boolean sessions, SemOptions options)
+        throws Exception {
+        SemSharedProcessor processor = new SemSharedProcessor(
+            new SemCommandProcessor(64, 4, options));
+        InetSocketAddress address = new InetSocketAddress(InetAddress
+            .getLoopbackAddress(), 0);
+        if (sessions) {
+            server = new SemSessionServer(processor, address);
+        }
+        else {
+            server = new SemServer(processor, address);
+        }
+        serving = new Thread(() -> {
+            try {
+                server.serve();
+            }
+            catch (Exception e) {
+                // ends the test server
+            }
+        });
+        serving.start();
+    }
+
+
+    /**
+     * Stop the server
+     *
+     * @throws Exception
+     */
+    public void tearDown() throws Exception {
+        if (server != null) {
+            server.close();
+            serving.join(10000);
+            assertFalse(serving.isAlive());
+        }
+    }
+
+
+    // open a binary connection
+    private Socket connect() throws Exception {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server
+            .getPort());
+        socket.getOutputStream().write(SemBinaryProtocol.MAGIC);
+        return socket;
+    }
+
+
+    // send a batch over the connection, in pieces, and read the response
+    private SemBinaryProtocol.Response send(
+        Socket socket,
+        SemBinaryProtocol.Batch batch,
+        int piece)
+        throws Exception {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        batch.writeTo(new DataOutputStream(frame));
+        byte[] bytes = frame.toByteArray();
+        OutputStream out = socket.getOutputStream();
+        for (int i = 0; i < bytes.length; i += piece) {
+            out.write(bytes, i, Math.min(piece, bytes.length - i));
+            out.flush();
+        }
+        return new SemBinaryProtocol.Response(new DataInputStream(socket
+            .getInputStream()));
+    }
+
+
+    // the messages of every command on a processor of the text commands
+    private String[] expected(String[][] commands) throws Exception {
+        ByteArrayOutputStream messages = new ByteArrayOutputStream();
+        SemCommandProcessor processor = new SemCommandProcessor(64, 4);
+        processor.setOutput(new PrintStream(messages, true));
+        String[] expected = new String[commands.length];
+        for (int i = 0; i < commands.length; i++) {
+            if (commands[i].length == 5) {
+                processor.processor(commands[i]);
+            }
+            else {
+                processor.processor(commands[i][0]);
+            }
+            expected[i] = messages.toString();
+            messages.reset();
+        }
+        return expected;
+    }
+
+
+    // run a batch of all operations and compare their messages to those of
+    // the text commands
+    private void checkBatch(int piece) throws Exception {
+        byte[] record = sem.serialize();
+        SemRecordCodec codec = new SemRecordCodec();
+        int compactSize = codec.encode(sem);
+        SemBinaryProtocol.Batch batch = new SemBinaryProtocol.Batch();
+        batch.insert(5, record, record.length).search(5);
+        batch.insert(5, codec.getBuffer(), compactSize);
+        batch.print(SemBinaryProtocol.PRINT_HASHTABLE).delete(5).search(5);
+        batch.insert(5, codec.getBuffer(), compactSize).search(5);
+        batch.print(SemBinaryProtocol.PRINT_BLOCKS);
+        assertEquals(9, batch.size());
+
+        SemBinaryProtocol.Response response;
+        try (Socket socket = connect()) {
+            response = send(socket, batch, piece);
+            assertEquals(0, batch.size());
+        }
+        String[] insert = { "insert 5", "Title", "0610051600 90 10 10 45",
+            "HCI VT", "Description" };
+        String[] expected = expected(new String[][] { insert, { "search 5" },
+            insert, { "print hashtable" }, { "delete 5" }, { "search 5" },
+            insert, { "search 5" }, { "print blocks" } });
+        assertEquals(expected.length, response.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(SemBinaryProtocol.OK, response.getStatus(i));
+            if (i < 6) {
+                assertEquals(expected[i], response.getMessages(i));
+            }
+        }
+        // the compact record is shorter, the same seminar is found
+        assertTrue(response.getMessages(6).startsWith(
+            "Successfully inserted record with ID 5\n"));
+        assertFalse(expected[6].equals(response.getMessages(6)));
+        assertEquals(expected[7], response.getMessages(7));
+    }
+
+
+    /**
+     * Test a batch over the selector front end, also in small pieces
+     *
+     * @throws Exception
+     */
+    public void testSelectorBatch() throws Exception {
+        start(false);
+        checkBatch(1 << 16);
+        server.close();
+        serving.join(10000);
+        start(false);
+        checkBatch(3);
+    }
+
+
+    /**
+     * Test a batch over the sessions front end
+     *
+     * @throws Exception
+     */
+    public void testSessionsBatch() throws Exception {
+        start(true);
+        checkBatch(5);
+    }
+
+
+    /**
+     * Test the sharded and the concurrent store keep a record as it was sent
+     * instead of encoding the seminar again
+     *
+     * @throws Exception
+     */
+    public void testStoresKeepRecord() throws Exception {
+        SemRecordCodec codec = new SemRecordCodec();
+        int compactSize = codec.encode(sem);
+        assertTrue(compactSize < sem.serialize().length);
+        String[][] stores = { { "--shards=2" }, { "--store=concurrent" } };
+        for (String[] store : stores) {
+            start(true, SemOptions.parse(store, 0));
+            SemBinaryProtocol.Batch batch = new SemBinaryProtocol.Batch();
+            batch.insert(5, codec.getBuffer(), compactSize).search(5);
+            try (Socket socket = connect()) {
+                SemBinaryProtocol.Response response = send(socket, batch,
+                    1024);
+                assertEquals(SemBinaryProtocol.OK, response.getStatus(0));
+                assertTrue(response.getMessages(0).endsWith(
+                    "Successfully inserted record with ID 5\n" + sem
+                        + "\nSize: " + compactSize + "\n"));
+                assertEquals("Found record with ID 5:\n" + sem + "\n",
+                    response.getMessages(1));
+            }
+            tearDown();
+        }
+        server = null;
+    }
+
+
+    /**
+     * Test records that an insert command could not have made are not stored
+     *
+     * @throws Exception
+     */
+    public void testInvalidRecords() throws Exception {
+        start(false);
+        byte[] record = sem.serialize();
+        Seminar longTitle = new Seminar(6, "T".repeat(81), "0610051600", 90,
+            (short)10, (short)10, 45, new String[] { "HCI" }, "Description");
+        byte[] longRecord = longTitle.serialize();
+        SemBinaryProtocol.Batch batch = new SemBinaryProtocol.Batch();
+        batch.insert(6, record, record.length);
+        batch.insert(6, longRecord, longRecord.length);
+        batch.insert(7, new byte[] { 1, 2, 3 }, 3);
+        batch.insert(8, record, 10);
+        batch.search(6).search(7).search(8);
+        try (Socket socket = connect()) {
+            SemBinaryProtocol.Response response = send(socket, batch, 1024);
+            for (int i = 0; i < 4; i++) {
+                assertEquals(SemBinaryProtocol.ERROR, response.getStatus(i));
+                assertTrue(response.getMessages(i).startsWith("Usage: "));
+            }
+            for (int i = 4; i < 7; i++) {
+                assertEquals(SemBinaryProtocol.OK, response.getStatus(i));
+                assertTrue(response.getMessages(i).startsWith(
+                    "Search FAILED"));
+            }
+        }
+    }
+
+
+    /**
+     * Test a frame that is not well formed closes its connection, and the
+     * text protocol still works
+     *
+     * @throws Exception
+     */
+    public void testMalformedFrame() throws Exception {
+        for (boolean sessions : new boolean[] { false, true }) {
+            start(sessions);
+            try (Socket socket = connect()) {
+                DataOutputStream out = new DataOutputStream(socket
+                    .getOutputStream());
+                // one operation of opcode 9
+                out.writeInt(3);
+                out.writeShort(1);
+                out.writeByte(9);
+                out.flush();
+                Exception thrown = null;
+                try {
+                    new SemBinaryProtocol.Response(new DataInputStream(socket
+                        .getInputStream()));
+                }
+                catch (Exception e) {
+                    thrown = e;
+                }
+                assertTrue(thrown instanceof IOException);
+            }
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(),
+                server.getPort())) {
+                socket.getOutputStream().write("search 1\n".getBytes(
+                    StandardCharsets.UTF_8));
+                socket.shutdownOutput();
+                InputStream in = socket.getInputStream();
+                assertEquals("Search FAILED -- There is no record with ID 1"
+                    + "\n.\n", new String(in.readAllBytes(),
+                        StandardCharsets.UTF_8));
+            }
+            tearDown();
+        }
+        server = null;
+    }
+}
@@ -1,3 +1,8 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.PrintStream;
+
 /**
  * The hash table data structure distinguish each record’s key from the
  * rest of that record’s value. Ideally, it is shielded from the fact that
@@ -23,6 +28,22 @@
  * OK. When you try to insert the 17th record, you would first re-hash all of
  * the original 16 records into a table of 64 slots and so on.
  * 
+ * The slots are two primitive arrays, the keys and the handles packed into
+ * longs (see SemMemoryManager.Handle.pack), so a record costs 12 bytes of
+ * index and a probe reads array elements instead of entry objects.
+ * 
+ * With incremental resizing the table does not rehash all records at once.
+ * The resize keeps the old arrays next to the new ones, and every insert and
+ * delete afterwards moves a few old slots into the new arrays. Until all are
+ * moved a lookup probes both. Each move step covers two or more old slots per
+ * insert, so the old arrays are empty before the table can be half full again.
+ * 
+ * The table counts its tombstones. Before an insert would take the last empty
+ * slot, or when the tombstones pass the tombstone limit (a percent of the
+ * capacity), the records are rehashed into arrays of the same capacity
+ * without tombstones. The probes stay short under insert and delete churn,
+ * and a probe for a missing key always ends at an empty slot.
+ * 
  * @author Sadath-Mohammed-msadath
  * @author Emadeldin-Abdrabou-emazied
  * 
@@ -30,100 +51,44 @@
  */
 public class SemClosedHashTable {
 
-    /** public interface for table entry object */
-    public interface Entry {
-        /** @return true if it is tombStone node and false if not */
-        public boolean isTombStone();
-
-
-        /** @return key of the entry it is an integer value of the key */
-        public int getKey();
-
-
-        /**
-         * @return handle the value of the entry stored in the memory manager
-         */
-        public SemMemoryManager.Handle getValue();
-    }
-
-
-    /**
-     * public nested class of a valid entry that implements the Entry interface
-     */
-    public class ValidEntry implements Entry {
-        private int key;
-        private SemMemoryManager.Handle value;
-
-        /**
-         * constructor for the valid entry object with values
-         * 
-         * @param key
-         *            integer value of the entry's key
-         * @param value
-         *            the value of memory handle object for the entry stored in
-         *            the memory manager
-         */
-        public ValidEntry(int key, SemMemoryManager.Handle value) {
-            this.key = key;
-            this.value = value;
-        }
-
-
-        /** @return true if it is tombStone node and false if not */
-        public boolean isTombStone() {
-            return false;
-        }
-
-
-        /** @return key of the entry it is an integer value of the key */
-        public int getKey() {
-            return key;
-        }
-
-
-        /**
-         * @return handle the value of the entry stored in the memory manager
-         */
-        public SemMemoryManager.Handle getValue() {
-            return value;
-        }
-    }
-
+    // value of an empty slot in the handles array, a packed handle is never 0
+    private static final long EMPTY = 0L;
 
-    /** Fly Weight design for the TombStone object instead of null */
-    public class TombStone implements Entry {
-        /** constructor for dummy entry */
-        public TombStone() {
-            // do nothing to replace the null object
-        }
+    // value of a deleted slot (tombstone) in the handles array, a packed
+    // handle is never negative
+    private static final long TOMBSTONE = -1L;
 
+    // value of a slot that claimAt took for a record whose handle is set
+    // later, it counts as a slot in use
+    private static final long CLAIMED = Long.MAX_VALUE;
 
-        /** @return key of the entry it is an integer value of the key */
-        public int getKey() {
-            return -1;
-        }
+    // the slots are kept in two parallel arrays instead of entry objects, the
+    // record keys and the packed memory manager handles of the records. The
+    // handles array tells whether a slot is empty, a tombstone or in use
+    private int[] keys;
+    private long[] handles;
+    private int size;
+    private int capacity;
 
+    // the arrays of the last resize while their records are being moved to
+    // the new arrays (null otherwise), and the next old slot to move
+    private int[] oldKeys;
+    private long[] oldHandles;
+    private int nextOldSlot;
 
-        /** @return true if it is tombStone node and false if not */
-        public boolean isTombStone() {
-            return true;
-        }
+    // true if a resize moves the records a few at a time
+    private boolean incrementalResize;
 
+    // number of tombstones in the keys and handles arrays, and the percent of
+    // the capacity that they may take before the table is cleaned up
+    private int tombstones;
+    private int tombstoneLimit = 100;
 
-        // to keep consistent with the Entry interface ... it may not be called
-        // throughout the application
-        /**
-         * @return handle the value of the entry stored in the memory manager
-         */
-        public SemMemoryManager.Handle getValue() {
-            return null;
-        }
-    }
+    // the stream for the messages, null for System.out
+    private PrintStream out;
 
-    private Entry[] table;
-    private int size;
-    private int capacity;
-    private Entry tombStone = new TombStone();
+    // number of old slots that an insert or delete moves
+    private static final int MOVE_STEP = 8;
 
     /**
      * Hash Table Constructor
@@ -138,7 +103,8 @@ public class SemClosedHashTable {
         // System.exit(1);
         // }
         this.capacity = initialCapacity;
-        this.table = new Entry[capacity];
+        this.keys = new int[capacity];
+        this.handles = new long[capacity];
         this.size = 0;
     }
 
@@ -192,6 +158,49 @@ public class SemClosedHashTable {
     }
 
 
+    /**
+     * Set whether a resize moves the records to the new arrays a few at a
+     * time, during the following inserts and deletes, instead of all at once
+     * 
+     * @param incremental
+     *            true for incremental resizing
+     */
+    public void setIncrementalResize(boolean incremental) {
+        incrementalResize = incremental;
+    }
+
+
+    /**
+     * Set the percent of the slots that may be tombstones before the table
+     * is cleaned up. The table is always cleaned up before an insert would
+     * take its last empty slot
+     * 
+     * @param percent
+     *            integer value of the tombstone limit (percent of the
+     *            capacity)
+     */
+    public void setTombstoneLimit(int percent) {
+        tombstoneLimit = percent;
+    }
+
+
+    /**
+     * @return the number of tombstones in the table
+     */
+    public int getTombstones() {
+        return tombstones;
+    }
+
+
+    /**
+     * @return true while the records of the last incremental resize are still
+     *         being moved
+     */
+    public boolean isResizing() {
+        return oldHandles != null;
+    }
+
+
     /**
      * check if the key already exists in the table
      * 
@@ -202,15 +211,8 @@ public class SemClosedHashTable {
      * 
      */
     public boolean isDuplicate(int key) {
-        int index = hashFunction(key);
-        int i = 0;
-        while (table[index] != null) {
-            if (table[index].getKey() == key) {
-                return true;
-            }
-            index = doubleHash(key, i++);
-        }
-        return false;
+        return find(keys, handles, key) >= 0 || (oldHandles != null && find(
+            oldKeys, oldHandles, key) >= 0);
     }
 
 
@@ -222,6 +224,24 @@ public class SemClosedHashTable {
     }
 
 
+    /**
+     * Set the stream that the messages of the hash table are printed to
+     * 
+     * @param output
+     *            the stream for the messages, null for System.out
+     */
+    public void setOutput(PrintStream output) {
+        out = output;
+    }
+
+
+    // the stream for the messages, System.out is looked up on every message
+    // so a replaced System.out takes effect
+    private PrintStream out() {
+        return out == null ? System.out : out;
+    }
+
+
     /**
      * @return the capacity of the hash table
      */
@@ -246,9 +266,11 @@ public class SemClosedHashTable {
 // if (size >= capacity / 2) {
 // resize();
 // }
+        moveOldSlots(MOVE_STEP);
+        if (needsCleanUp()) {
+            cleanUp();
+        }
 
-        int index = hashFunction(key);
-        int i = 0;
         // while (table[index] != null) {
         // check duplicate would be called from the SemDatabase insert
         // method
@@ -259,16 +281,113 @@ public class SemClosedHashTable {
         // index = doubleHash(key, i++);
         // }
 
-        while (true) {
-            if (table[index] == null || table[index].getKey() == -1) {
-                table[index] = new ValidEntry(key, value);
-                size++;
-                return;
+        if (put(keys, handles, key, value.pack())) {
+            tombstones--;
+        }
+        size++;
+    }
+
+
+    /**
+     * Find the slot where a new record with the given key goes, in one probe
+     * that also checks the key is not in the table yet. The probe remembers
+     * the first tombstone it passes and takes it if the key is missing. The
+     * slot stays valid for insertAt until the table is resized
+     * 
+     * @param key
+     *            integer data type that stores the key of the entry (seminar
+     *            ID)
+     * @return the slot for the new record, or -1 if there is already a
+     *         record with the key
+     */
+    public int findInsertSlot(int key) {
+        moveOldSlots(MOVE_STEP);
+        if (oldHandles != null && find(oldKeys, oldHandles, key) >= 0) {
+            return -1;
+        }
+        int index = probe(key, -1, capacity);
+        int i = 0;
+        int firstTombstone = -1;
+        while (handles[index] != EMPTY) {
+            if (handles[index] == TOMBSTONE) {
+                if (firstTombstone < 0) {
+                    firstTombstone = index;
+                }
             }
-            else {
-                index = doubleHash(key, i++);
+            else if (keys[index] == key) {
+                return -1;
             }
+            index = probe(key, i++, capacity);
+        }
+        if (needsCleanUp()) {
+            // the key is missing, so after the clean up it goes to the first
+            // empty slot of its probe
+            cleanUp();
+            return findInsertSlot(key);
         }
+        return firstTombstone >= 0 ? firstTombstone : index;
+    }
+
+
+    /**
+     * Insert a record into the slot that findInsertSlot returned for its key
+     * 
+     * @param slot
+     *            integer value of the slot from findInsertSlot
+     * @param key
+     *            integer data type that stores the key of the entry (seminar
+     *            ID)
+     * @param value
+     *            Handle data type that stores the starting position in memory
+     *            and the length of a seminar record
+     */
+    public void insertAt(int slot, int key, SemMemoryManager.Handle value) {
+        claimAt(slot, key);
+        handles[slot] = value.pack();
+    }
+
+
+    /**
+     * Take the slot that findInsertSlot returned for a new record whose
+     * handle is not known yet, e.g., by a bulk insert that finds the slots of
+     * all its records before it stores them. The handle must be set with
+     * setHandleAt before the table is used otherwise
+     * 
+     * @param slot
+     *            integer value of the slot from findInsertSlot
+     * @param key
+     *            integer data type that stores the key of the entry (seminar
+     *            ID)
+     */
+    public void claimAt(int slot, int key) {
+        if (handles[slot] == TOMBSTONE) {
+            tombstones--;
+        }
+        keys[slot] = key;
+        handles[slot] = CLAIMED;
+        size++;
+    }
+
+
+    /**
+     * Set the handle of the record in a slot that claimAt took
+     * 
+     * @param slot
+     *            integer value of the slot that claimAt took
+     * @param value
+     *            Handle data type that stores the starting position in memory
+     *            and the length of a seminar record
+     */
+    public void setHandleAt(int slot, SemMemoryManager.Handle value) {
+        handles[slot] = value.pack();
+    }
+
+
+    // true if the next insert must first clean up the tombstones, because it
+    // could take the last empty slot or the tombstones passed their limit
+    private boolean needsCleanUp() {
+        return tombstones > 0 && (capacity - size - tombstones <= 1
+            || (long)tombstones * 100 > (long)tombstoneLimit * capacity);
     }
 
 
@@ -280,22 +399,93 @@ public class SemClosedHashTable {
      *            integer data type that stores the key of the entry (seminar
      *            ID)
      *
-     * @return table[index].value, which is the handle of a record stored in
-     *         memory manager if a record with the passed key found and null if
-     *         not.
+     * @return the handle of a record stored in memory manager if a record
+     *         with the passed key found and null if not.
      */
     public SemMemoryManager.Handle search(int key) {
-        int index = hashFunction(key);
-        int i = 0;
-        while (table[index] != null) {
-            if (table[index].getKey() == key) {
-                return table[index].getValue();
+        int index = find(keys, handles, key);
+        if (index >= 0) {
+            return SemMemoryManager.Handle.unpack(handles[index]);
+        }
+        if (oldHandles != null) {
+            index = find(oldKeys, oldHandles, key);
+            if (index >= 0) {
+                return SemMemoryManager.Handle.unpack(oldHandles[index]);
             }
-            index = doubleHash(key, i++);
         }
         return null;
     }
 
+
+    // get the probe slot i of the key in arrays of the given capacity, the
+    // same sequence as hashFunction and doubleHash, i.e., the home slot comes
+    // first and then doubleHash(key, 0), doubleHash(key, 1), ...
+    private static int probe(int key, int i, int slots) {
+        int home = Math.abs(key) % slots;
+        if (i < 0) {
+            return home;
+        }
+        int step = (((Math.abs(key) / slots) % (slots / 2)) * 2) + 1;
+        return (home + i * step) % slots;
+    }
+
+
+    // get the slot of the record with the given key in the given arrays, or
+    // -1 if there is no such record. The probe skips tombstones and stops at
+    // an empty slot
+    private static int find(int[] inKeys, long[] inHandles, int key) {
+        int index = probe(key, -1, inHandles.length);
+        int i = 0;
+        while (inHandles[index] != EMPTY) {
+            if (inHandles[index] != TOMBSTONE && inKeys[index] == key) {
+                return index;
+            }
+            index = probe(key, i++, inHandles.length);
+        }
+        return -1;
+    }
+
+
+    // store a record in the first empty or tombstone slot of its probe, and
+    // tell whether it took the place of a tombstone
+    private static boolean put(int[] inKeys, long[] inHandles, int key,
+        long packed) {
+        int index = probe(key, -1, inHandles.length);
+        int i = 0;
+        while (inHandles[index] > EMPTY) {
+            index = probe(key, i++, inHandles.length);
+        }
+        boolean wasTombstone = inHandles[index] == TOMBSTONE;
+        inKeys[index] = key;
+        inHandles[index] = packed;
+        return wasTombstone;
+    }
+
+
+    // move up to the given number of old slots of an incremental resize to
+    // the new arrays, and drop the old arrays once all are moved. A moved
+    // slot becomes a tombstone, so the lookups in the old arrays no longer
+    // find the record while the probes of the records not moved yet go on
+    private void moveOldSlots(int count) {
+        if (oldHandles == null) {
+            return;
+        }
+        int end = (int)Math.min(oldHandles.length, (long)nextOldSlot + count);
+        for (; nextOldSlot < end; nextOldSlot++) {
+            if (oldHandles[nextOldSlot] > EMPTY) {
+                if (put(keys, handles, oldKeys[nextOldSlot],
+                    oldHandles[nextOldSlot])) {
+                    tombstones--;
+                }
+                oldHandles[nextOldSlot] = TOMBSTONE;
+            }
+        }
+        if (nextOldSlot == oldHandles.length) {
+            oldKeys = null;
+            oldHandles = null;
+        }
+    }
+
 // /**
 // * another search method to move over all table contents
 // * where pass the key (seminar record ID) and return the
@@ -339,37 +529,45 @@ public class SemClosedHashTable {
      * @return true if the handle in the hash table and false otherwise
      */
     public boolean contain(SemMemoryManager.Handle handle) {
-        boolean handleIsContained = false;
+        long packed = handle.pack();
         for (int i = 0; i < capacity; i++) {
-            // check the status of every cell in the array
-            if (table[i] != null && table[i].getKey() != -1) {
-                handleIsContained = table[i].getValue().equals(handle);
+            if (handles[i] == packed) {
+                return true;
+            }
+        }
+        if (oldHandles != null) {
+            for (int i = nextOldSlot; i < oldHandles.length; i++) {
+                if (oldHandles[i] == packed) {
+                    return true;
+                }
             }
         }
-        return handleIsContained;
+        return false;
     }
 
 
     /** print out hash table contents in human readable format */
     public void dump() {
+        // the dump shows the final slots of the records
+        moveOldSlots(Integer.MAX_VALUE);
 
-        System.out.println("Hashtable:");
+        out().println("Hashtable:");
 
         for (int i = 0; i < capacity; i++) {
             // check the status of every cell in the array
-            if (table[i] == null) {
+            if (handles[i] == EMPTY) {
                 continue;
             }
             else {
-                if (table[i].getKey() != -1 && !table[i].isTombStone()) {
-                    System.out.println(i + ": " + table[i].getKey());
+                if (handles[i] != TOMBSTONE) {
+                    out().println(i + ": " + keys[i]);
                 }
                 else {
-                    System.out.println(i + ": " + "TOMBSTONE");
+                    out().println(i + ": " + "TOMBSTONE");
                 }
             }
         }
-        System.out.println("total records: " + size);
+        out().println("total records: " + size);
 
     }
 
@@ -385,44 +583,153 @@ public class SemClosedHashTable {
      *         and false otherwise
      */
     public boolean delete(int key) {
-        int index = hashFunction(key);
-        // int ema = hashFunction(15);
-        // System.out.println("Hash function of key 15 is: " + ema);
-        int i = 0;
-        while (table[index] != null) {
-            // System.out.println("The index value to iterate over hash table
-            // is: "
-            // + index);
-            if (table[index].getKey() == key) {
-                // table[index] = null; // Deleted by setting to null
-                table[index] = tombStone; // to be developed using flyweight
-                                          // design
+        moveOldSlots(MOVE_STEP);
+        int index = find(keys, handles, key);
+        if (index >= 0) {
+            // the slot stays a tombstone so the probes of other keys go on
+            handles[index] = TOMBSTONE;
+            tombstones++;
+            size--;
+            return true;
+        }
+        if (oldHandles != null) {
+            index = find(oldKeys, oldHandles, key);
+            if (index >= 0) {
+                oldHandles[index] = TOMBSTONE;
                 size--;
                 return true;
             }
-            index = doubleHash(key, i++);
         }
         return false; // added to check successful deletion in hashtable
     }
 
 
-    /** resize the hash table size if needed */
+    /**
+     * Save the hash table slots, including the tombstones, so the table can be
+     * loaded again with the same layout
+     * 
+     * @param out
+     *            the output to write the table to
+     * @param memManager
+     *            the memory manager of the stored handles
+     * @throws IOException
+     *             from the output
+     */
+    public void save(DataOutput out, SemMemoryManager memManager)
+        throws IOException {
+        moveOldSlots(Integer.MAX_VALUE);
+        out.writeInt(capacity);
+        out.writeInt(size);
+        for (int i = 0; i < capacity; i++) {
+            if (handles[i] == EMPTY) {
+                out.writeByte(0);
+            }
+            else if (handles[i] == TOMBSTONE) {
+                out.writeByte(1);
+            }
+            else {
+                out.writeByte(2);
+                out.writeInt(keys[i]);
+                memManager.saveHandle(out, SemMemoryManager.Handle.unpack(
+                    handles[i]));
+            }
+        }
+    }
+
+
+    /**
+     * Load a hash table that was saved by save
+     * 
+     * @param in
+     *            the input to read the table from
+     * @param memManager
+     *            the memory manager of the stored handles
+     * @return the loaded hash table
+     * @throws IOException
+     *             from the input
+     */
+    public static SemClosedHashTable load(
+        DataInput in,
+        SemMemoryManager memManager)
+        throws IOException {
+        SemClosedHashTable hashTable = new SemClosedHashTable(in.readInt());
+        hashTable.size = in.readInt();
+        for (int i = 0; i < hashTable.capacity; i++) {
+            int state = in.readByte();
+            if (state == 1) {
+                hashTable.handles[i] = TOMBSTONE;
+                hashTable.tombstones++;
+            }
+            else if (state == 2) {
+                hashTable.keys[i] = in.readInt();
+                hashTable.handles[i] = memManager.loadHandle(in).pack();
+            }
+        }
+        return hashTable;
+    }
+
+
+    /**
+     * resize the hash table size if needed. The records move to the new
+     * arrays right away, or during the following inserts and deletes with
+     * incremental resizing
+     */
     public void resize() {
-        int newCapacity = capacity * 2;
-        Entry[] newTable = new Entry[newCapacity];
-        capacity = newCapacity;
-        for (Entry entry : table) {
-            if (entry != null && entry != tombStone) {
-                int index = hashFunction(entry.getKey());
-                int i = 0;
-                while (newTable[index] != null) {
-                    index = doubleHash(entry.getKey(), i++);
-                }
-                newTable[index] = entry;
+        rehash(capacity * 2);
+        if (!incrementalResize) {
+            moveOldSlots(Integer.MAX_VALUE);
+        }
+        out().println("Hash table expanded to " + capacity + " records");
+    }
+
+
+    /**
+     * Make room ahead of a bulk insert, the table is resized once to the
+     * capacity that takes the given number of new records without a further
+     * resize, instead of doubling once per insert that finds it half full.
+     * A table that does not grow drops its tombstones, so the slots that
+     * findInsertSlot returns for the new records are not moved by a clean up
+     * 
+     * @param records
+     *            integer value of the number of new records
+     */
+    public void reserve(int records) {
+        long needed = (long)size + records;
+        int newCapacity = capacity;
+        while (newCapacity / 2 < needed) {
+            newCapacity *= 2;
+        }
+        if (newCapacity > capacity) {
+            rehash(newCapacity);
+            if (!incrementalResize) {
+                moveOldSlots(Integer.MAX_VALUE);
             }
+            out().println("Hash table expanded to " + capacity + " records");
+        }
+        else if (tombstones > 0) {
+            cleanUp();
         }
-        table = newTable;
-        // capacity = newCapacity;
-        System.out.println("Hash table expanded to " + capacity + " records");
+    }
+
+
+    // rehash the records into arrays of the same capacity, which drops the
+    // tombstones
+    private void cleanUp() {
+        rehash(capacity);
+        moveOldSlots(Integer.MAX_VALUE);
+    }
+
+
+    // start moving the records into new arrays of the given capacity, the
+    // records of an earlier resize must all be in place first
+    private void rehash(int newCapacity) {
+        moveOldSlots(Integer.MAX_VALUE);
+        oldKeys = keys;
+        oldHandles = handles;
+        nextOldSlot = 0;
+        capacity = newCapacity;
+        keys = new int[capacity];
+        handles = new long[capacity];
+        tombstones = 0;
     }
 }
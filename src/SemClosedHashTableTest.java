@@ -52,6 +52,210 @@ public class SemClosedHashTableTest extends TestCase {
         assertEquals(ht.doubleHash(59, 11), 0);
     }
 
+
+    /**
+     * Test insert, search and delete over tombstones and a resize
+     */
+    public void testInsertSearchDelete() {
+        SemClosedHashTable ht = new SemClosedHashTable(8);
+        SemMemoryManager memManager = new SemMemoryManager(64);
+        SemMemoryManager.Handle first = memManager.insert(new byte[10], 10);
+        SemMemoryManager.Handle second = memManager.insert(new byte[20], 20);
+        ht.insert(3, first);
+        ht.insert(11, second);
+        assertEquals(first, ht.search(3));
+        assertEquals(second, ht.search(11));
+        assertTrue(ht.contain(second));
+
+        // 11 collides with 3, so its probe goes over the tombstone of 3
+        assertTrue(ht.delete(3));
+        assertFalse(ht.isDuplicate(3));
+        assertNull(ht.search(3));
+        assertEquals(second, ht.search(11));
+        assertEquals(1, ht.getSize());
+
+        ht.insert(19, first);
+        ht.resize();
+        assertEquals(16, ht.getCapacity());
+        assertEquals(first, ht.search(19));
+        assertEquals(second, ht.search(11));
+        assertFalse(ht.delete(3));
+    }
+
+
+    /**
+     * Test the records are found while an incremental resize moves them
+     */
+    public void testIncrementalResize() {
+        SemClosedHashTable ht = new SemClosedHashTable(64);
+        ht.setIncrementalResize(true);
+        SemMemoryManager memManager = new SemMemoryManager(4096);
+        SemMemoryManager.Handle[] stored = new SemMemoryManager.Handle[64];
+        for (int key = 0; key < 32; key++) {
+            stored[key] = memManager.insert(new byte[key + 1], key + 1);
+            ht.insert(key * 7, stored[key]);
+        }
+
+        ht.resize();
+        assertTrue(systemOut().getHistory().contains(
+            "Hash table expanded to 128 records"));
+        assertTrue(ht.isResizing());
+        assertEquals(stored[5], ht.search(35));
+        assertTrue(ht.delete(35));
+        assertFalse(ht.isDuplicate(35));
+        for (int key = 32; key < 40; key++) {
+            stored[key] = memManager.insert(new byte[key + 1], key + 1);
+            ht.insert(key * 7, stored[key]);
+            for (int other = 0; other <= key; other++) {
+                if (other != 5) {
+                    assertEquals(stored[other], ht.search(other * 7));
+                }
+            }
+        }
+        assertFalse(ht.isResizing());
+        assertEquals(39, ht.getSize());
+        assertNull(ht.search(35));
+    }
+
+
+    /**
+     * Test reserve resizes the table once for the new records
+     */
+    public void testReserve() {
+        SemClosedHashTable ht = new SemClosedHashTable(4);
+        SemMemoryManager memManager = new SemMemoryManager(4096);
+        SemMemoryManager.Handle handle = memManager.insert(new byte[1], 1);
+        ht.insert(1, handle);
+        systemOut().clearHistory();
+        ht.reserve(99);
+        assertEquals(256, ht.getCapacity());
+        assertEquals("Hash table expanded to 256 records\n", systemOut()
+            .getHistory());
+        assertEquals(handle, ht.search(1));
+        ht.reserve(0);
+        assertEquals(256, ht.getCapacity());
+    }
+
+
+    /**
+     * Test a reserve without growth drops the tombstones, and slots claimed
+     * ahead of their handles
+     */
+    public void testClaimAt() {
+        SemClosedHashTable ht = new SemClosedHashTable(16);
+        SemMemoryManager memManager = new SemMemoryManager(4096);
+        for (int key = 0; key < 6; key++) {
+            ht.insert(key, memManager.insert(new byte[1], 1));
+        }
+        for (int key = 0; key < 5; key++) {
+            assertTrue(ht.delete(key));
+        }
+        systemOut().clearHistory();
+        ht.reserve(2);
+        assertEquals(16, ht.getCapacity());
+        assertEquals(0, ht.getTombstones());
+        assertEquals("", systemOut().getHistory());
+
+        int slot = ht.findInsertSlot(100);
+        ht.claimAt(slot, 100);
+        assertEquals(2, ht.getSize());
+        // a later record of the key finds the claimed slot
+        assertEquals(-1, ht.findInsertSlot(100));
+        SemMemoryManager.Handle handle = memManager.insert(new byte[2], 2);
+        ht.setHandleAt(slot, handle);
+        assertEquals(handle, ht.search(100));
+        assertNotNull(ht.search(5));
+    }
+
+
+    /**
+     * Test a record deleted after an incremental resize moved it is gone,
+     * and its key can be inserted again
+     */
+    public void testDeleteAfterMove() {
+        SemClosedHashTable ht = new SemClosedHashTable(64);
+        ht.setIncrementalResize(true);
+        SemMemoryManager memManager = new SemMemoryManager(4096);
+        for (int key = 0; key < 33; key++) {
+            ht.insert(key, memManager.insert(new byte[key + 1], key + 1));
+        }
+        ht.resize();
+        // moves the old slots 0 to 7, key 3 is in slot 3
+        ht.insert(1000, memManager.insert(new byte[1], 1));
+        assertTrue(ht.isResizing());
+
+        assertTrue(ht.delete(3));
+        assertNull(ht.search(3));
+        assertFalse(ht.delete(3));
+        assertFalse(ht.isDuplicate(3));
+        int slot = ht.findInsertSlot(3);
+        assertTrue(slot >= 0);
+        SemMemoryManager.Handle again = memManager.insert(new byte[5], 5);
+        ht.insertAt(slot, 3, again);
+        assertEquals(again, ht.search(3));
+        assertEquals(-1, ht.findInsertSlot(3));
+        assertEquals(34, ht.getSize());
+        for (int key = 0; key < 33; key++) {
+            assertNotNull(ht.search(key));
+        }
+    }
+
+
+    /**
+     * Test insert and delete churn cleans up the tombstones, so a search for
+     * a missing key ends
+     */
+    public void testTombstoneCleanup() {
+        SemClosedHashTable ht = new SemClosedHashTable(16);
+        SemMemoryManager memManager = new SemMemoryManager(64);
+        SemMemoryManager.Handle handle = memManager.insert(new byte[8], 8);
+        ht.insert(1000, handle);
+        for (int key = 0; key < 200; key++) {
+            ht.insert(key, handle);
+            assertTrue(ht.delete(key));
+            assertTrue(ht.getSize() + ht.getTombstones() < ht.getCapacity());
+            assertNull(ht.search(key));
+            assertFalse(ht.isDuplicate(key));
+        }
+        assertEquals(16, ht.getCapacity());
+        assertEquals(handle, ht.search(1000));
+
+        ht.setTombstoneLimit(25);
+        for (int key = 0; key < 200; key++) {
+            ht.insert(key, handle);
+            assertTrue(ht.delete(key));
+            assertTrue(ht.getTombstones() <= 5);
+        }
+        assertEquals(1, ht.getSize());
+    }
+
+
+    /**
+     * Test the insert slot is the first tombstone of the probe and a key that
+     * is in the table has no insert slot
+     */
+    public void testFindInsertSlot() {
+        SemClosedHashTable ht = new SemClosedHashTable(8);
+        SemMemoryManager memManager = new SemMemoryManager(64);
+        SemMemoryManager.Handle handle = memManager.insert(new byte[8], 8);
+        ht.insert(3, handle);
+        ht.insert(11, handle);
+        ht.insert(19, handle);
+        assertEquals(-1, ht.findInsertSlot(11));
+
+        // 43 probes the same slots as 11, the home slot 3 and then slot 6
+        assertTrue(ht.delete(11));
+        int slot = ht.findInsertSlot(43);
+        ht.insertAt(slot, 43, handle);
+        assertEquals(0, ht.getTombstones());
+        assertEquals(3, ht.getSize());
+        assertEquals(-1, ht.findInsertSlot(43));
+        assertEquals(-1, ht.findInsertSlot(19));
+        ht.dump();
+        assertTrue(systemOut().getHistory().contains("6: 43"));
+    }
+
+
 // public void testSize() {
 // SemClosedHashTable ht = new SemClosedHashTable(8);
 //
@@ -1,3 +1,7 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Arrays;
+
 /**
  * The purpose of this class is to parse a single line from the command text
  * file according to the format specified in the project specs.
@@ -11,7 +15,15 @@ public class SemCommandProcessor {
     // the database object to manipulate the
     // commands that the command processor
     // feeds to it
-    private SemDatabase data;
+    private SemStore data;
+
+    // the stream for the messages, null for System.out
+    private PrintStream out;
+
+    // the tokenizer that splits the command lines into words, one per thread
+    // so the sessions of a concurrent store can run commands at once
+    private ThreadLocal<SemCommandTokenizer> tokenizers = ThreadLocal
+        .withInitial(SemCommandTokenizer::new);
 
     /**
      * The constructor for the command processor requires a database instance to
@@ -28,7 +40,38 @@ public class SemCommandProcessor {
      *            integer value of initial hash table size
      */
     public SemCommandProcessor(int memorySize, int hashTableInitCap) {
-        data = new SemDatabase(memorySize, hashTableInitCap);
+        this(memorySize, hashTableInitCap, new SemOptions());
+    }
+
+
+    /**
+     * The constructor for the command processor with the optional database
+     * settings
+     * 
+     * @param memorySize
+     *            integer value of initial memory pool size
+     * 
+     * @param hashTableInitCap
+     *            integer value of initial hash table size
+     * 
+     * @param options
+     *            the optional database settings
+     */
+    public SemCommandProcessor(
+        int memorySize,
+        int hashTableInitCap,
+        SemOptions options) {
+        if (options.getShards() > 0) {
+            data = new SemShardedDatabase(memorySize, hashTableInitCap,
+                options);
+        }
+        else if (options.isConcurrentStore()) {
+            data = new SemConcurrentDatabase(memorySize, hashTableInitCap,
+                options);
+        }
+        else {
+            data = new SemDatabase(memorySize, hashTableInitCap, options);
+        }
     }
 
 
@@ -47,153 +90,209 @@ public class SemCommandProcessor {
      * a single line from the text file
      */
 
-    // helper function to count characters in input array of strings
-    private int countCharacters(String[] l) {
-        int count = 0;
-        for (int i = 0; i < l.length; i++) {
-            count += l[i].length();
+    // overload method for the processor with the insert command
+    /**
+     * Processor method to read the insert command
+     * 
+     * @param insertCommandDetails
+     *            array of insert command lines size of 5 lines, the lines
+     *            are only read during the call
+     * 
+     * @throws Exception
+     */
+    public void processor(CharSequence[] insertCommandDetails)
+        throws Exception {
+        Seminar sem = parseInsert(insertCommandDetails, tokenizers.get());
+        if (sem == null) {
+            // just print error message and return without doing anything
+            printUsage();
+            // Exit
+            return;
         }
-        return count;
-    }
 
+        // we here expect that the insert method and data base should take the
+        // seminar and serialize it, store bytes in memory and get the handle
+        // with the associated ID
+        data.insert(sem.getId(), sem);
+    }
 
-    // helper function to check for integer data type
-    private boolean isInteger(String intNum) {
-        try {
-            // Attempt to parse the input string as an integer
-            Integer.parseInt(intNum);
-            // If parsing succeeds, return true
-            return true;
 
+    /**
+     * Insert a seminar whose record was encoded ahead, as the pipeline does
+     * 
+     * @param sem
+     *            the seminar of the insert command, null for an invalid
+     *            insert command
+     * @param record
+     *            byte array of the record in the form of the database codec
+     * @param size
+     *            integer value of the record size (bytes)
+     * @throws Exception
+     */
+    void insert(Seminar sem, byte[] record, int size) throws Exception {
+        if (sem == null) {
+            printUsage();
+            return;
         }
-        catch (NumberFormatException e) {
-            // If parsing fails (NumberFormatException is thrown), return false
-            return false;
-        }
+        data.insert(sem.getId(), sem, record, size);
     }
 
 
-    // helper function to check for short integer data type
-    private boolean isShort(String shortNum) {
-        try {
-            // Attempt to parse the input string as an integer
-            Short.parseShort(shortNum);
-            // If parsing succeeds, return true
-            return true;
-
-        }
-        catch (NumberFormatException e) {
-            // If parsing fails (NumberFormatException is thrown), return false
-            return false;
-        }
+    /**
+     * @return the database that runs the commands, for the binary protocol
+     *         that calls it without command lines and for the servers that
+     *         ask whether it is thread-safe
+     */
+    SemStore getStore() {
+        return data;
     }
 
 
-    // overload method for the processor with the insert command
     /**
-     * Processor method to read the insert command
+     * Parse the lines of an insert command into a seminar
      * 
      * @param insertCommandDetails
-     *            String array of insert command lines size of 5 lines
-     * 
-     * @throws Exception
+     *            array of insert command lines size of 5 lines
+     * @param tokens
+     *            the tokenizer to split the lines with
+     * @return the seminar, or null if the command is not valid
      */
-    public void processor(String[] insertCommandDetails) throws Exception {
-        // Trim the leading and trailing whitespace before splitting command
-        // and ID
-        String[] arr1 = insertCommandDetails[0].trim().split("\\s{1,}");
-        // keep intermediate spaces
-        String arr2 = insertCommandDetails[1].trim();
+    static Seminar parseInsert(
+        CharSequence[] insertCommandDetails,
+        SemCommandTokenizer tokens) {
+        // the lines are scanned by the tokenizer once, the words are checked
+        // and the numbers parsed in place
+        // first line: the insert command and the ID
+        boolean valid = tokens.reset(insertCommandDetails[0]).next() && tokens
+            .wordEquals("insert") && tokens.next() && tokens.isInt();
+        int seminarID = valid ? tokens.intValue() : 0;
+        valid = valid && !tokens.next();
+
+        // keep intermediate spaces of the title
+        String seminarTitle = tokens.reset(insertCommandDetails[1]).rest();
 
         // date/time, length, xCoord, yCoord, cost
-        String[] arr3 = insertCommandDetails[2].trim().split("\\s{1,}");
+        String seminarDate = null;
+        int seminarRecordLength = 0;
+        short seminarCoordX = 0;
+        short seminarCoordY = 0;
+        int seminarCost = 0;
+        tokens.reset(insertCommandDetails[2]);
+        if (valid && tokens.next()) {
+            seminarDate = tokens.word();
+            valid = tokens.next() && tokens.isInt();
+            seminarRecordLength = valid ? tokens.intValue() : 0;
+            valid = valid && tokens.next() && tokens.isShort();
+            seminarCoordX = valid ? tokens.shortValue() : 0;
+            valid = valid && tokens.next() && tokens.isShort();
+            seminarCoordY = valid ? tokens.shortValue() : 0;
+            valid = valid && tokens.next() && tokens.isInt();
+            seminarCost = valid ? tokens.intValue() : 0;
+            valid = valid && !tokens.next();
+        }
+        else {
+            valid = false;
+        }
+
+        // keyword list, the words of the line without the spaces count
+        // against the limit
+        tokens.reset(insertCommandDetails[3]);
+        String[] seminarKeyWords = new String[Math.max(1, tokens
+            .countRemaining())];
+        seminarKeyWords[0] = "";
+        int keywordCharacters = 0;
+        for (int k = 0; tokens.next(); k++) {
+            seminarKeyWords[k] = tokens.word();
+            keywordCharacters += tokens.wordLength();
+        }
 
-        // keyword list
-        String[] arr4 = insertCommandDetails[3].trim().split("\\s{1,}");
-        // keep intermediate spaces
-        String arr5 = insertCommandDetails[4].trim();
+        // keep intermediate spaces of the description
+        String seminarDiscription = tokens.reset(insertCommandDetails[4])
+            .rest();
 
         // double check that it reads insert command and each line character
         // counts without predefined limits
-        if (!arr1[0].equals("insert") || arr1.length > 2 || arr2.length() > 80
-            || arr3.length > 5 || countCharacters(arr4) > 80 || arr5
-                .length() > 80 || !isInteger(arr1[1]) || !isInteger(arr3[1])
-            || !isInteger(arr3[4]) || !isShort(arr3[2]) || !isShort(arr3[3])) {
-            // just print error message and return without doing anything
-            System.out.println("Usage: %> insert <valid integer ID> \n "
-                + "<Valid title with lenght at most 80 characters> \n "
-                + "<date and time (string)> <length (integer)> <x coordinate "
-                + "(short integer)> <y coordinate (short integer)> "
-                + "<cost (integer)> \n"
-                + "<Valid keywords with lenght at most 80 characters> \n"
-                + "<Valid description list with lenght "
-                + "at most 80 characters>");
-            // Exit
-            return;
+        if (!valid || !withinLimits(seminarTitle, keywordCharacters,
+            seminarDiscription)) {
+            return null;
         }
 
-        int seminarID = Integer.parseInt(arr1[1]);
-
-        String seminarTitle = arr2;
-
-        // store third line and its argument
-        String seminarDate = arr3[0];
-        int seminarRecordLength = Integer.parseInt(arr3[1]);
-        short seminarCoordX = Short.parseShort(arr3[2]);
-        short seminarCoordY = Short.parseShort(arr3[3]);
-        int seminarCost = Integer.parseInt(arr3[4]);
-
-        // store fourth line
-        String[] seminarKeyWords = arr4;
-
-        String seminarDiscription = arr5;
-
         // This is the main file for the program.
-        Seminar sem = new Seminar(seminarID, seminarTitle, seminarDate,
+        return new Seminar(seminarID, seminarTitle, seminarDate,
             seminarRecordLength, seminarCoordX, seminarCoordY, seminarCost,
             seminarKeyWords, seminarDiscription);
+    }
 
-        // we here expect that the insert method and data base should take the
-        // seminar and serialize it, store bytes in memory and get the handle
-        // with the associated ID
-        data.insert(seminarID, sem);
+
+    /**
+     * Check the lengths of the text fields of a seminar, at most 80
+     * characters each
+     * 
+     * @param title
+     *            the title of the seminar
+     * @param keywordCharacters
+     *            integer value of the characters of all keywords
+     * @param description
+     *            the description of the seminar
+     * @return true if the fields are not too long
+     */
+    static boolean withinLimits(
+        String title,
+        int keywordCharacters,
+        String description) {
+        return title.length() <= 80 && keywordCharacters <= 80 && description
+            .length() <= 80;
     }
 
 
     /**
      * @param line
-     *            read a string line from the file. This processor method is
+     *            read a line from the file. This processor method is
      *            called in the main file
      * @throws Exception
      * @throws NumberFormatException
      */
-    public void processor(String line) throws NumberFormatException, Exception {
-        // Trim the leading and trailing whitespace before splitting
-        String[] arr = line.trim().split("\\s{1,}");
-
-        // the command will be the first of these elements
-        String command = arr[0];
+    public void processor(CharSequence line)
+        throws NumberFormatException, Exception {
+        // the command will be the first word of the line
+        SemCommandTokenizer tokens = tokenizers.get();
+        tokens.reset(line).next();
 
         // calls the appropriate remove method based on the
         // number of white space delimited strings in the line
-        if (command.equals("delete")) {
-            // // convert the format of the entered seminar ID
-            // int semID = Integer.parseInt(arr[1]);
-
-            // Calls delete by ID
-            data.delete(Integer.parseInt(arr[1]));
+        if (tokens.wordEquals("delete")) {
+            // Calls delete by ID, or by all the IDs of the line
+            int[] ids = ids(tokens);
+            if (ids.length == 1) {
+                data.delete(ids[0]);
+            }
+            else {
+                data.delete(ids);
+            }
         }
-        else if (command.equals("search")) {
-            // calls the search method for a name of object
-            data.search(Integer.parseInt(arr[1]));
+        else if (tokens.wordEquals("search")) {
+            // calls the search method for a name of object, or for all the
+            // IDs of the line
+            int[] ids = ids(tokens);
+            if (ids.length == 1) {
+                data.search(ids[0]);
+            }
+            else {
+                data.search(ids);
+            }
         }
-        else if (command.equals("print") && arr[1].equals("hashtable")) {
+        else if (!tokens.wordEquals("print") || !tokens.next()) {
+            // another command, or a print command without what to print, is
+            // ignored
+            return;
+        }
+        else if (tokens.wordEquals("hashtable")) {
             // calls the dump method for the database, takes no parameters
             // (see the dump() JavaDoc in the Database class for more
             // information)
             data.hashTableDump();
         }
-        else if (command.equals("print") && arr[1].equals("blocks")) {
+        else if (tokens.wordEquals("blocks")) {
             // calls the dump method for the database, takes no parameters
             // (see the dump() JavaDoc in the Database class for more
             // information)
@@ -208,4 +307,85 @@ public class SemCommandProcessor {
                // do nothing
         }
     }
+
+
+    // the IDs of a search or delete command, the first word after the
+    // command must be an ID and the IDs end at the first word that is not
+    private static int[] ids(SemCommandTokenizer tokens) {
+        tokens.next();
+        int[] ids = { tokens.intValue() };
+        int count = 1;
+        while (tokens.next() && tokens.isInt()) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+            }
+            ids[count++] = tokens.intValue();
+        }
+        return count == ids.length ? ids : Arrays.copyOf(ids, count);
+    }
+
+
+    /**
+     * Set the stream that the messages of the commands are printed to
+     * 
+     * @param output
+     *            the stream for the messages, null for System.out
+     */
+    public void setOutput(PrintStream output) {
+        out = output;
+        data.setOutput(output);
+    }
+
+
+    // the stream for the messages, System.out is looked up on every message
+    // so a replaced System.out takes effect
+    private PrintStream out() {
+        return out == null ? System.out : out;
+    }
+
+
+    // print the usage of the insert command for an invalid insert command
+    private void printUsage() {
+        out().println("Usage: %> insert <valid integer ID> \n "
+            + "<Valid title with lenght at most 80 characters> \n "
+            + "<date and time (string)> <length (integer)> <x coordinate "
+            + "(short integer)> <y coordinate (short integer)> "
+            + "<cost (integer)> \n"
+            + "<Valid keywords with lenght at most 80 characters> \n"
+            + "<Valid description list with lenght "
+            + "at most 80 characters>");
+    }
+
+
+    /**
+     * Print the messages of all commands so far, also those that the database
+     * prints later
+     * 
+     * @throws Exception
+     *             if a command failed
+     */
+    public void flush() throws Exception {
+        data.flush();
+    }
+
+
+    /**
+     * Give back the free pool blocks that the database keeps for the calling
+     * thread, after the last command of the thread
+     */
+    public void releaseThread() {
+        data.releaseThreadCache();
+    }
+
+
+    /**
+     * Close the database after the last command, which releases its memory
+     * pool
+     * 
+     * @throws IOException
+     *             if a persistent database can not be saved
+     */
+    public void close() throws IOException {
+        data.close();
+    }
 }
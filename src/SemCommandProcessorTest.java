@@ -528,4 +528,34 @@ public class SemCommandProcessorTest extends TestCase {
         cmd.processor("print blocks");
     }
 
+
+    /**
+     * Test search and delete commands with many IDs
+     * 
+     * @throws Exception
+     */
+    public void testManyIds() throws Exception {
+        for (int id = 1; id <= 3; id++) {
+            cmd.processor(new String[] { "insert " + id, "Title " + id,
+                "0610051600 90 10 10 45", "HCI VT", "Description" });
+        }
+        systemOut().clearHistory();
+        cmd.processor("search 3 4 1 print");
+        String history = systemOut().getHistory();
+        assertTrue(history.indexOf("Found record with ID 3:") < history
+            .indexOf("Search FAILED -- There is no record with ID 4"));
+        assertTrue(history.indexOf("There is no record with ID 4") < history
+            .indexOf("Found record with ID 1:"));
+
+        systemOut().clearHistory();
+        cmd.processor("delete 2   1 2");
+        assertEquals("Record with ID 2 successfully deleted from the database"
+            + "\nRecord with ID 1 successfully deleted from the database\n"
+            + "Delete FAILED -- There is no record with ID 2\n", systemOut()
+                .getHistory());
+        systemOut().clearHistory();
+        cmd.processor("search 1");
+        assertEquals("Search FAILED -- There is no record with ID 1\n",
+            systemOut().getHistory());
+    }
 }
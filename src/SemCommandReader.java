@@ -0,0 +1,188 @@
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reads the commands of a command file one after the other, so a command file
+ * of any size is processed with bounded memory. Blank lines are skipped, an
+ * insert command is the insert line and the four lines that follow it, and a
+ * search, delete or print command is one line. Lines that start with another
+ * word are skipped, as SemManager always did.
+ *
+ * With a prefetch count a reader thread reads ahead up to that many commands
+ * while the caller executes the earlier ones, so the file reading overlaps
+ * with the command execution.
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-11-2024
+ */
+public class SemCommandReader implements SemCommandSource {
+    // the lines of the command file
+    private BufferedReader in;
+
+    // the commands that the reader thread read ahead, null without a reader
+    // thread, and the error that stopped the reader thread
+    private BlockingQueue<String[]> prefetched;
+    private Thread prefetcher;
+    private volatile IOException failure;
+
+    // the tokenizer that finds the command word of a line
+    private SemCommandTokenizer tokens = new SemCommandTokenizer();
+
+    // true after the last command was returned
+    private boolean done;
+
+    // the queue entry that follows the last command
+    private static final String[] END = new String[0];
+
+    /**
+     * Create a reader without a reader thread
+     *
+     * @param reader
+     *            the characters of the command file
+     */
+    public SemCommandReader(Reader reader) {
+        this(reader, 0);
+    }
+
+
+    /**
+     * Create a reader that reads ahead in a reader thread
+     *
+     * @param reader
+     *            the characters of the command file
+     * @param prefetch
+     *            integer value of the number of commands that the reader
+     *            thread reads ahead, 0 for no reader thread
+     */
+    public SemCommandReader(Reader reader, int prefetch) {
+        in = new BufferedReader(reader, 1 << 16);
+        if (prefetch > 0) {
+            prefetched = new ArrayBlockingQueue<>(prefetch);
+            prefetcher = new Thread(this::prefetch, "SemCommandReader");
+            prefetcher.setDaemon(true);
+            prefetcher.start();
+        }
+    }
+
+
+    /**
+     * Read the next command
+     *
+     * @return the lines of the next command, five lines for an insert command
+     *         and one line otherwise, or null after the last command
+     * @throws IOException
+     *             if the file can not be read or it ends within an insert
+     *             command
+     */
+    public String[] next() throws IOException {
+        if (done) {
+            return null;
+        }
+        if (prefetched == null) {
+            String[] command = read();
+            done = command == null;
+            return command;
+        }
+        String[] command;
+        try {
+            command = prefetched.take();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading");
+        }
+        if (command == END) {
+            done = true;
+            if (failure != null) {
+                throw failure;
+            }
+            return null;
+        }
+        return command;
+    }
+
+
+    /**
+     * Close the command file and stop the reader thread
+     *
+     * @throws IOException
+     *             if the file can not be closed
+     */
+    public void close() throws IOException {
+        done = true;
+        if (prefetcher != null) {
+            prefetcher.interrupt();
+        }
+        in.close();
+    }
+
+
+    // the reader thread, it reads the commands into the queue until the end
+    // of the file, an error or the close
+    private void prefetch() {
+        try {
+            String[] command = read();
+            while (command != null) {
+                prefetched.put(command);
+                command = read();
+            }
+        }
+        catch (IOException e) {
+            failure = e;
+        }
+        catch (InterruptedException e) {
+            // closed
+            return;
+        }
+        try {
+            prefetched.put(END);
+        }
+        catch (InterruptedException e) {
+            // closed
+        }
+    }
+
+
+    // read the lines of the next command, null at the end of the file
+    private String[] read() throws IOException {
+        String line = nextLine();
+        while (line != null) {
+            tokens.reset(line).next();
+            if (tokens.wordEquals("insert")) {
+                String[] insertCommand = new String[5];
+                insertCommand[0] = line;
+                for (int i = 1; i < insertCommand.length; i++) {
+                    insertCommand[i] = nextLine();
+                    if (insertCommand[i] == null) {
+                        throw new EOFException("Incomplete insert command "
+                            + line.trim());
+                    }
+                }
+                return insertCommand;
+            }
+            else if (tokens.wordEquals("search") || tokens.wordEquals(
+                "delete") || tokens.wordEquals("print")) {
+                return new String[] { line };
+            }
+            line = nextLine();
+        }
+        return null;
+    }
+
+
+    // read the next line that is not blank, null at the end of the file
+    private String nextLine() throws IOException {
+        String line = in.readLine();
+        while (line != null && line.trim().isEmpty()) {
+            line = in.readLine();
+        }
+        return line;
+    }
+}
@@ -0,0 +1,71 @@
+import student.TestCase;
+import java.io.EOFException;
+import java.io.StringReader;
+
+/**
+ * This class is used to perform testing on SemCommandReader.java class
+ *
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-11-2024
+ */
+public class SemCommandReaderTest extends TestCase {
+    private String file = "insert 1\n\nTitle one\n  0610051600 90 10 10 45\n"
+        + "HCI VT\nDescription one\n\n  search 1\nunknown command\n"
+        + "print blocks\n\ndelete   1\n";
+
+    // read all commands and join them, one command per line
+    private String readAll(SemCommandReader reader) throws Exception {
+        StringBuilder commands = new StringBuilder();
+        String[] command = reader.next();
+        while (command != null) {
+            commands.append(String.join("|", command)).append("\n");
+            command = reader.next();
+        }
+        assertNull(reader.next());
+        reader.close();
+        return commands.toString();
+    }
+
+
+    /**
+     * Test the commands are assembled from the lines
+     *
+     * @throws Exception
+     */
+    public void testCommands() throws Exception {
+        String expected = "insert 1|Title one|  0610051600 90 10 10 45|"
+            + "HCI VT|Description one\n  search 1\nprint blocks\n"
+            + "delete   1\n";
+        assertEquals(expected, readAll(new SemCommandReader(new StringReader(
+            file))));
+        assertEquals(expected, readAll(new SemCommandReader(new StringReader(
+            file), 1)));
+    }
+
+
+    /**
+     * Test a file that ends within an insert command
+     *
+     * @throws Exception
+     */
+    public void testIncompleteInsert() throws Exception {
+        String incomplete = "search 3\ninsert 2\nTitle\n";
+        for (int prefetch = 0; prefetch <= 4; prefetch += 4) {
+            SemCommandReader reader = new SemCommandReader(new StringReader(
+                incomplete), prefetch);
+            assertEquals("search 3", reader.next()[0]);
+            Exception exception = null;
+            try {
+                reader.next();
+            }
+            catch (EOFException e) {
+                exception = e;
+            }
+            assertNotNull(exception);
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A source of the commands of a command file. SemCommandReader reads the
+ * file through a character stream, SemMappedCommandReader reads it from a
+ * memory mapping of the file.
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-13-2024
+ */
+public interface SemCommandSource extends Closeable {
+    /**
+     * Read the next command
+     *
+     * @return the lines of the next command, five lines for an insert command
+     *         and one line otherwise, or null after the last command
+     * @throws IOException
+     *             if the file can not be read or it ends within an insert
+     *             command
+     */
+    public CharSequence[] next() throws IOException;
+}
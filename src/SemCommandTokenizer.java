@@ -0,0 +1,241 @@
+/**
+ * Splits a command line into its white space separated words in one scan,
+ * without regular expressions and without making a string of every word. The
+ * words are the same as those of line.trim().split("\\s{1,}"), and a word is
+ * checked and parsed as an integer or a short integer in place, with the same
+ * accepted forms as Integer.parseInt and Short.parseShort but without an
+ * exception for an invalid number.
+ *
+ * A tokenizer is reset to a line and then steps over the words of the line
+ * with next. One tokenizer is used for line after line.
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-12-2024
+ */
+public class SemCommandTokenizer {
+    // the line and the end of its trimmed part
+    private CharSequence line;
+    private int end;
+
+    // the position after the current word, and the current word
+    private int pos;
+    private int wordStart;
+    private int wordEnd;
+
+    /**
+     * Start over with a line, the first word is read by the first call of next
+     *
+     * @param newLine
+     *            the characters of the line
+     * @return this tokenizer
+     */
+    public SemCommandTokenizer reset(CharSequence newLine) {
+        line = newLine;
+        // the same trimmed part as String.trim
+        pos = 0;
+        end = newLine.length();
+        while (pos < end && newLine.charAt(pos) <= ' ') {
+            pos++;
+        }
+        while (end > pos && newLine.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        wordStart = pos;
+        wordEnd = pos;
+        return this;
+    }
+
+
+    /**
+     * Step to the next word of the line
+     *
+     * @return true if there is a next word and false at the end of the line
+     */
+    public boolean next() {
+        while (pos < end && isSpace(line.charAt(pos))) {
+            pos++;
+        }
+        if (pos == end) {
+            wordStart = end;
+            wordEnd = end;
+            return false;
+        }
+        wordStart = pos;
+        while (pos < end && !isSpace(line.charAt(pos))) {
+            pos++;
+        }
+        wordEnd = pos;
+        return true;
+    }
+
+
+    /**
+     * Count the words from the current position to the end of the line, the
+     * current word does not change
+     *
+     * @return the number of words that next would still step to
+     */
+    public int countRemaining() {
+        int count = 0;
+        int i = pos;
+        while (i < end) {
+            while (i < end && isSpace(line.charAt(i))) {
+                i++;
+            }
+            if (i < end) {
+                count++;
+            }
+            while (i < end && !isSpace(line.charAt(i))) {
+                i++;
+            }
+        }
+        return count;
+    }
+
+
+    /**
+     * @return the trimmed line from the current position, without the white
+     *         space in front
+     */
+    public String rest() {
+        int start = pos;
+        while (start < end && isSpace(line.charAt(start))) {
+            start++;
+        }
+        return line.subSequence(start, end).toString();
+    }
+
+
+    /**
+     * @return the length of the current word
+     */
+    public int wordLength() {
+        return wordEnd - wordStart;
+    }
+
+
+    /**
+     * @param word
+     *            the word to compare with
+     * @return true if the current word is the given word
+     */
+    public boolean wordEquals(String word) {
+        int length = wordEnd - wordStart;
+        if (length != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (line.charAt(wordStart + i) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * @return the current word as a string
+     */
+    public String word() {
+        return line.subSequence(wordStart, wordEnd).toString();
+    }
+
+
+    /**
+     * @return true if the current word is an integer for Integer.parseInt
+     */
+    public boolean isInt() {
+        return parse(Integer.MIN_VALUE, Integer.MAX_VALUE) != INVALID;
+    }
+
+
+    /**
+     * @return true if the current word is a short integer for
+     *         Short.parseShort
+     */
+    public boolean isShort() {
+        return parse(Short.MIN_VALUE, Short.MAX_VALUE) != INVALID;
+    }
+
+
+    /**
+     * Get the integer value of the current word
+     *
+     * @return the integer value
+     * @throws NumberFormatException
+     *             if the current word is not an integer, with the message of
+     *             Integer.parseInt
+     */
+    public int intValue() {
+        long value = parse(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        if (value == INVALID) {
+            // the same exception as for the word itself
+            return Integer.parseInt(word());
+        }
+        return (int)value;
+    }
+
+
+    /**
+     * Get the short integer value of the current word
+     *
+     * @return the short integer value
+     * @throws NumberFormatException
+     *             if the current word is not a short integer
+     */
+    public short shortValue() {
+        long value = parse(Short.MIN_VALUE, Short.MAX_VALUE);
+        if (value == INVALID) {
+            return Short.parseShort(word());
+        }
+        return (short)value;
+    }
+
+
+    // the result of parse for a word that is not a number in the range
+    private static final long INVALID = Long.MIN_VALUE;
+
+    // parse the current word as a decimal number between min and max, with an
+    // optional sign and the digits that Character.digit accepts, as
+    // Integer.parseInt does, or INVALID
+    private long parse(long min, long max) {
+        int i = wordStart;
+        if (i == wordEnd) {
+            return INVALID;
+        }
+        boolean negative = false;
+        char first = line.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+            if (i == wordEnd) {
+                return INVALID;
+            }
+        }
+        long value = 0;
+        for (; i < wordEnd; i++) {
+            int digit = Character.digit(line.charAt(i), 10);
+            if (digit < 0) {
+                return INVALID;
+            }
+            value = value * 10 + digit;
+            if (value > max + 1) {
+                return INVALID;
+            }
+        }
+        value = negative ? -value : value;
+        if (value < min || value > max) {
+            return INVALID;
+        }
+        return value;
+    }
+
+
+    // the white space characters of the regular expression \s
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f'
+            || c == '\r';
+    }
+}
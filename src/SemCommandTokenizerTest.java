@@ -0,0 +1,89 @@
+import student.TestCase;
+
+/**
+ * This class is used to perform testing on SemCommandTokenizer.java class
+ *
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-12-2024
+ */
+public class SemCommandTokenizerTest extends TestCase {
+    /**
+     * Test the words are those of trim and split
+     */
+    public void testWords() {
+        SemCommandTokenizer tokens = new SemCommandTokenizer();
+        String[] lines = { "  insert   12 ", "a\tb\f\u000Bc\r\nd",
+            "\u0001x y\u0001", "one", "  ", "x\u0001y  z" };
+        for (String line : lines) {
+            String[] expected = line.trim().split("\\s{1,}");
+            tokens.reset(line);
+            int count = tokens.countRemaining();
+            if (line.trim().isEmpty()) {
+                assertEquals(0, count);
+                assertFalse(tokens.next());
+                continue;
+            }
+            assertEquals(expected.length, count);
+            for (String word : expected) {
+                assertTrue(tokens.next());
+                assertEquals(word, tokens.word());
+                assertTrue(tokens.wordEquals(word));
+                assertEquals(word.length(), tokens.wordLength());
+            }
+            assertFalse(tokens.next());
+        }
+        tokens.reset("insert  Title of   it ").next();
+        assertFalse(tokens.wordEquals("inser"));
+        assertEquals("Title of   it", tokens.rest());
+    }
+
+
+    /**
+     * Test the numbers are accepted as by Integer.parseInt and
+     * Short.parseShort
+     */
+    public void testNumbers() {
+        SemCommandTokenizer tokens = new SemCommandTokenizer();
+        String[] words = { "0", "-12", "+7", "2147483647", "2147483648",
+            "-2147483648", "-2147483649", "32767", "32768", "-32768", "-",
+            "+", "12a", "1.5", "\u0661\u0662", "99999999999999999999" };
+        for (String word : words) {
+            tokens.reset(word).next();
+            Integer intValue = null;
+            try {
+                intValue = Integer.parseInt(word);
+            }
+            catch (NumberFormatException e) {
+                // not an integer
+            }
+            assertEquals(intValue != null, tokens.isInt());
+            if (intValue != null) {
+                assertEquals(intValue.intValue(), tokens.intValue());
+            }
+            Short shortValue = null;
+            try {
+                shortValue = Short.parseShort(word);
+            }
+            catch (NumberFormatException e) {
+                // not a short integer
+            }
+            assertEquals(shortValue != null, tokens.isShort());
+            if (shortValue != null) {
+                assertEquals(shortValue.shortValue(), tokens.shortValue());
+            }
+        }
+
+        tokens.reset("abc").next();
+        Exception exception = null;
+        try {
+            tokens.intValue();
+        }
+        catch (NumberFormatException e) {
+            exception = e;
+        }
+        assertNotNull(exception);
+    }
+}
@@ -0,0 +1,115 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Benchmark of the concurrent database under a read-heavy mix. The database
+ * is filled with records first, then 1, 2, 4, ... threads each search random
+ * records and replace some of them, and the operations per second of every
+ * thread count are printed.
+ *
+ * java SemConcurrentBenchmark {records} {max-threads} {write-percent}
+ *
+ * The defaults are 100000 records, as many threads as processors and 5
+ * percent writes, half inserts and half deletes. The messages of the
+ * operations are not printed while the benchmark runs.
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-09-2024
+ */
+public class SemConcurrentBenchmark {
+    // how long every thread count runs, in milliseconds
+    private static final long RUN_MILLIS = 2000;
+
+    /**
+     * @param args
+     *            Command line parameters, the number of records, the largest
+     *            number of threads and the percent of writes
+     * @throws Exception
+     *             if a thread fails
+     */
+    public static void main(String[] args) throws Exception {
+        int records = 100000;
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        int writePercent = 5;
+        if (args != null && args.length >= 3) {
+            records = Integer.parseInt(args[0]);
+            maxThreads = Integer.parseInt(args[1]);
+            writePercent = Integer.parseInt(args[2]);
+        }
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        SemConcurrentDatabase database = new SemConcurrentDatabase(1 << 20,
+            1024, new SemOptions());
+        String[] keywords = { "benchmark", "concurrent" };
+        for (int id = 0; id < records; id++) {
+            database.insert(id, seminar(id, keywords));
+        }
+
+        console.println(records + " records, " + writePercent
+            + " percent writes");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            long operations = run(database, threads, records, writePercent,
+                keywords);
+            console.println("  " + threads + " threads: " + operations * 1000
+                / RUN_MILLIS + " operations/s");
+        }
+        database.close();
+        System.setOut(console);
+    }
+
+
+    // run the given number of threads for RUN_MILLIS and count the operations
+    private static long run(
+        SemConcurrentDatabase database,
+        int threads,
+        int records,
+        int writePercent,
+        String[] keywords)
+        throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        long end = System.currentTimeMillis() + RUN_MILLIS;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                while ((count & 255) != 0 || System.currentTimeMillis() < end) {
+                    int id = random.nextInt(records);
+                    if (random.nextInt(100) >= writePercent) {
+                        database.get(id);
+                    }
+                    else if (random.nextBoolean()) {
+                        database.delete(id);
+                    }
+                    else {
+                        try {
+                            database.insert(id, seminar(id, keywords));
+                        }
+                        catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                    count++;
+                }
+                operations.add(count);
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return operations.sum();
+    }
+
+
+    // a seminar with the given ID
+    private static Seminar seminar(int id, String[] keywords) {
+        return new Seminar(id, "Seminar " + id, "2405231000", 60, (short)10,
+            (short)20, 30, keywords, "Benchmark seminar " + id);
+    }
+}
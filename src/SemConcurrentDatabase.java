@@ -0,0 +1,566 @@
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A seminar database that many threads can use at the same time. It has the
+ * same operations and messages as SemDatabase.
+ *
+ * The records are split by a hash of their ID into stripes, and every stripe
+ * has a hash table of its own, guarded by its own StampedLock. Operations on
+ * IDs of different stripes do not wait for each other. All stripes store
+ * their records in one memory manager, which has a StampedLock of its own.
+ * An insert or delete holds the write lock of its stripe and, only while it
+ * allocates or frees the pool block, the write lock of the memory manager.
+ *
+ * Every thread also keeps a cache of free pool blocks of the small sizes
+ * (up to 4096 bytes). A thread takes a batch of free blocks of one size from
+ * the memory manager when its cache of that size is empty, and gives a batch
+ * back when the cache holds two batches. Most inserts and deletes then do not
+ * take the memory manager lock, an insert only takes its read lock to write
+ * the record, so a pool growth does not happen at the same time. The cached
+ * blocks count as allocated in the memory block dump until the thread calls
+ * releaseThreadCache. The command file, the pipeline executor and the
+ * sessions of the server mode call it when they end.
+ *
+ * A search does not take any lock in the common case. It reads the handle
+ * from the hash table and copies the record bytes out of the pool under
+ * optimistic stamps of the two locks, and only if a writer interfered it
+ * reads again under the read locks. The messages of every operation are
+ * printed with one println, so the messages of different threads do not mix
+ * within an operation.
+ *
+ * Each stripe starts with its share of the initial hash table capacity and
+ * grows on its own, so "Hash table expanded" reports the capacity of one
+ * stripe and the hash table dump prints the stripes one after the other. The
+ * concurrent database does not save a persistent (mapped) pool.
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-09-2024
+ */
+public class SemConcurrentDatabase implements SemStore {
+    // the stripes of the hash table
+    private Stripe[] stripes;
+
+    // number of high bits of the ID hash that select the stripe
+    private int stripeBits;
+
+    // the memory manager that all stripes store their records in, and its lock
+    private SemMemoryManager memManager;
+    private StampedLock poolLock = new StampedLock();
+
+    // true if the records are stored with the compact codec
+    private boolean compact;
+
+    // the number of blocks that a thread cache takes or gives back at once
+    private int batch;
+
+    // the largest order (block size 2^order) that the thread caches keep
+    private static final int MAX_CACHED_ORDER = 12;
+
+    // the stream for the messages, null for System.out
+    private volatile PrintStream out;
+
+    // the buffers that a thread reads and encodes records with
+    private ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(
+        () -> new Buffers(compact, batch));
+
+    /**
+     * The constructor for this class initializes the stripes of the hash table
+     * and the memory pool
+     *
+     * @param mSize
+     *            integer value of initial memory pool size which is value of
+     *            power of two
+     *
+     * @param hTCapacity
+     *            integer value of initial hash table capacity, which is split
+     *            over the stripes
+     *
+     * @param options
+     *            the optional settings, e.g., the number of stripes
+     * @throws IllegalArgumentException
+     *             if the options select a persistent pool
+     */
+    public SemConcurrentDatabase(
+        int mSize,
+        int hTCapacity,
+        SemOptions options) {
+        if (options.getPoolMode().equals("mapped")) {
+            throw new IllegalArgumentException(
+                "The concurrent database does not support the mapped pool");
+        }
+        compact = options.getCodec().equals("compact");
+        batch = options.getBlockCache();
+        int count = options.getStripes();
+        stripeBits = Integer.numberOfTrailingZeros(count);
+        stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            SemClosedHashTable table = new SemClosedHashTable(Math.max(1,
+                hTCapacity / count));
+            table.setIncrementalResize(options.isIncrementalRehash());
+            table.setTombstoneLimit(options.getTombstoneLimit());
+            stripes[i] = new Stripe(table);
+        }
+        memManager = new SemMemoryManager(options.createPoolStorage(mSize));
+    }
+
+
+    /**
+     * Set the stream that the messages of the database, its hash tables and
+     * its memory manager are printed to, before the database is used
+     *
+     * @param output
+     *            the stream for the messages, null for System.out
+     */
+    public void setOutput(PrintStream output) {
+        out = output;
+        for (Stripe stripe : stripes) {
+            stripe.table.setOutput(output);
+        }
+        memManager.setOutput(output);
+    }
+
+
+    // the stream for the messages, System.out is looked up on every message
+    // so a replaced System.out takes effect
+    private PrintStream out() {
+        PrintStream output = out;
+        return output == null ? System.out : output;
+    }
+
+
+    // get the stripe of an ID, from the high bits of a multiplicative hash so
+    // the IDs of one stripe still spread over the slots of its table
+    private Stripe stripeOf(int semID) {
+        if (stripeBits == 0) {
+            return stripes[0];
+        }
+        return stripes[(semID * 0x9E3779B9) >>> (32 - stripeBits)];
+    }
+
+
+    /**
+     * Insert the seminar object
+     *
+     * @param semID
+     *            integer value of the unique seminar ID
+     *
+     * @param sem
+     *            Seminar object
+     * @throws Exception
+     *             if the seminar can not be serialized
+     */
+    public void insert(int semID, Seminar sem) throws Exception {
+        // serialize before taking any lock
+        Buffers local = buffers.get();
+        if (local.codec != null) {
+            int semSize = local.codec.encode(sem);
+            insert(semID, sem, local.codec.getBuffer(), semSize);
+        }
+        else {
+            byte[] semSerialized = sem.serialize();
+            insert(semID, sem, semSerialized, semSerialized.length);
+        }
+    }
+
+
+    /**
+     * Insert the seminar object with its record encoded ahead, e.g., by a
+     * worker of the pipeline or by a client of the binary protocol, the
+     * record is stored as it is
+     *
+     * @param semID
+     *            integer value of the unique seminar ID
+     * @param sem
+     *            Seminar object
+     * @param semSerialized
+     *            byte array of the encoded record
+     * @param semSize
+     *            integer value of the record size (bytes)
+     */
+    public void insert(
+        int semID,
+        Seminar sem,
+        byte[] semSerialized,
+        int semSize) {
+        Buffers local = buffers.get();
+        Stripe stripe = stripeOf(semID);
+        String message;
+        long stamp = stripe.lock.writeLock();
+        try {
+            SemClosedHashTable table = stripe.table;
+            int slot = table.findInsertSlot(semID);
+            if (slot < 0) {
+                message = "Insert FAILED - There is already a record with ID "
+                    + semID;
+            }
+            else {
+                SemMemoryManager.Handle semHandle = allocate(local,
+                    semSerialized, semSize);
+                if (table.getSize() >= table.getCapacity() / 2) {
+                    table.resize();
+                    slot = table.findInsertSlot(semID);
+                }
+                table.insertAt(slot, semID, semHandle);
+                message = "Successfully inserted record with ID " + semID
+                    + "\n" + sem.toString() + "\nSize: " + semSize;
+            }
+        }
+        finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+        out().println(message);
+    }
+
+
+    // store the record bytes in the memory pool, in a block of the thread
+    // cache if the block size is cached. The memory manager grows the pool
+    // first if the record does not fit, as in SemDatabase.insert
+    private SemMemoryManager.Handle allocate(
+        Buffers local,
+        byte[] semSerialized,
+        int semSize) {
+        int blockSize = memManager.calculateBlockSize(semSize);
+        int order = Integer.numberOfTrailingZeros(blockSize);
+        long stamp;
+        if (local.cache == null || order > MAX_CACHED_ORDER) {
+            stamp = poolLock.writeLock();
+            try {
+                return memManager.insert(semSerialized, semSize);
+            }
+            finally {
+                poolLock.unlockWrite(stamp);
+            }
+        }
+
+        long start = local.cache.take(order);
+        if (start < 0) {
+            stamp = poolLock.writeLock();
+            try {
+                for (int i = 0; i < batch; i++) {
+                    local.cache.put(order, memManager.allocateBlock(
+                        blockSize));
+                }
+            }
+            finally {
+                poolLock.unlockWrite(stamp);
+            }
+            start = local.cache.take(order);
+        }
+        // the read lock keeps a pool growth from copying the pool while the
+        // record is written
+        stamp = poolLock.readLock();
+        try {
+            return memManager.store(start, semSerialized, semSize);
+        }
+        finally {
+            poolLock.unlockRead(stamp);
+        }
+    }
+
+
+    // free the pool block of a record, into the thread cache if the block
+    // size is cached. A full cache gives a batch back to the memory manager
+    private void free(Buffers local, SemMemoryManager.Handle semHandle) {
+        int blockSize = memManager.calculateBlockSize(semHandle.getSize());
+        int order = Integer.numberOfTrailingZeros(blockSize);
+        if (local.cache != null && order <= MAX_CACHED_ORDER && local.cache
+            .put(order, semHandle.getStart())) {
+            return;
+        }
+        long stamp = poolLock.writeLock();
+        try {
+            if (local.cache == null || order > MAX_CACHED_ORDER) {
+                memManager.remove(semHandle);
+                return;
+            }
+            for (int i = 0; i < batch; i++) {
+                memManager.freeBlock(local.cache.take(order), blockSize);
+            }
+        }
+        finally {
+            poolLock.unlockWrite(stamp);
+        }
+        local.cache.put(order, semHandle.getStart());
+    }
+
+
+    /**
+     * @return true, the operations may run in many threads at once
+     */
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+
+    /**
+     * Give the cached free blocks of the calling thread back to the memory
+     * manager, a thread that ends should call it so its blocks can be used
+     * again
+     */
+    public void releaseThreadCache() {
+        Buffers local = buffers.get();
+        buffers.remove();
+        if (local.cache == null) {
+            return;
+        }
+        long stamp = poolLock.writeLock();
+        try {
+            for (int order = 0; order <= MAX_CACHED_ORDER; order++) {
+                long start = local.cache.take(order);
+                while (start >= 0) {
+                    memManager.freeBlock(start, 1 << order);
+                    start = local.cache.take(order);
+                }
+            }
+        }
+        finally {
+            poolLock.unlockWrite(stamp);
+        }
+    }
+
+
+    /**
+     * delete a record given its key, i.e., seminar ID
+     *
+     * @param semID
+     *            integer value of the seminar ID
+     */
+    public void delete(int semID) {
+        Stripe stripe = stripeOf(semID);
+        String message;
+        long stamp = stripe.lock.writeLock();
+        try {
+            SemMemoryManager.Handle semHandle = stripe.table.search(semID);
+            if (semHandle == null) {
+                message = "Delete FAILED -- There is no record with ID "
+                    + semID;
+            }
+            else {
+                stripe.table.delete(semID);
+                free(buffers.get(), semHandle);
+                message = "Record with ID " + semID
+                    + " successfully deleted from the database";
+            }
+        }
+        finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+        out().println(message);
+    }
+
+
+    /**
+     * search for a record by a given key, i.e., seminar ID
+     *
+     * @param seminID
+     *            integer value of the seminar ID
+     */
+    public void search(int seminID) {
+        SeminarView semView = read(seminID);
+        if (semView == null) {
+            out().println("Search FAILED -- There is no record with ID "
+                + seminID);
+        }
+        else {
+            out().println("Found record with ID " + seminID + ":\n"
+                + semView.toString());
+        }
+    }
+
+
+    /**
+     * Get a copy of a record by a given key, i.e., seminar ID
+     *
+     * @param seminID
+     *            integer value of the seminar ID
+     * @return the seminar, or null if there is no record with the given ID
+     */
+    public Seminar get(int seminID) {
+        SeminarView semView = read(seminID);
+        return semView == null ? null : semView.toSeminar();
+    }
+
+
+    // copy the record of an ID into the buffer of the calling thread and bind
+    // the view of the thread to it, null if there is no record with the ID
+    private SeminarView read(int seminID) {
+        Stripe stripe = stripeOf(seminID);
+        Buffers local = buffers.get();
+
+        // first without locks, the copy counts only if no writer interfered
+        long stamp = stripe.lock.tryOptimisticRead();
+        long poolStamp = poolLock.tryOptimisticRead();
+        if (stamp != 0 && poolStamp != 0) {
+            try {
+                SemMemoryManager.Handle semHandle = stripe.table.search(
+                    seminID);
+                int length = semHandle == null ? 0 : local.copy(memManager,
+                    semHandle);
+                if (poolLock.validate(poolStamp) && stripe.lock.validate(
+                    stamp)) {
+                    return semHandle == null ? null : local.bind(length);
+                }
+            }
+            catch (RuntimeException e) {
+                // a writer changed the table or the pool during the reads
+            }
+        }
+
+        stamp = stripe.lock.readLock();
+        try {
+            SemMemoryManager.Handle semHandle = stripe.table.search(seminID);
+            if (semHandle == null) {
+                return null;
+            }
+            poolStamp = poolLock.readLock();
+            try {
+                return local.bind(local.copy(memManager, semHandle));
+            }
+            finally {
+                poolLock.unlockRead(poolStamp);
+            }
+        }
+        finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+
+    /**
+     * Hash table Dump
+     * Prints out a dump of the hash table of every stripe
+     */
+    public void hashTableDump() {
+        // the dump finishes incremental resizes, so it needs the write locks
+        long[] stamps = new long[stripes.length];
+        for (int i = 0; i < stripes.length; i++) {
+            stamps[i] = stripes[i].lock.writeLock();
+        }
+        try {
+            for (Stripe stripe : stripes) {
+                stripe.table.dump();
+            }
+        }
+        finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].lock.unlockWrite(stamps[i]);
+            }
+        }
+    }
+
+
+    /**
+     * Memory blocks Dump
+     * Prints out a dump of the memory pool contents
+     */
+    public void memoryBlocksDataDump() {
+        long stamp = poolLock.readLock();
+        try {
+            memManager.dump();
+        }
+        finally {
+            poolLock.unlockRead(stamp);
+        }
+    }
+
+
+    /**
+     * Close the database and release the memory pool, no other thread may
+     * use the database during or after the close
+     */
+    public void close() {
+        long stamp = poolLock.writeLock();
+        try {
+            memManager.release();
+        }
+        finally {
+            poolLock.unlockWrite(stamp);
+        }
+    }
+
+
+    /*********** Nested classes ***************/
+    // one stripe of the hash table, a hash table and its lock
+    private static class Stripe {
+        private final StampedLock lock = new StampedLock();
+        private final SemClosedHashTable table;
+
+        Stripe(SemClosedHashTable table) {
+            this.table = table;
+        }
+    } /// close nested class Stripe
+
+
+    // the buffers of one thread, a record buffer with its view, the codec
+    // that the thread encodes records with and its cache of free blocks
+    private static class Buffers {
+        private byte[] record = new byte[256];
+        private SeminarView view = new SeminarView();
+        private SemRecordCodec codec;
+        private BlockCache cache;
+
+        Buffers(boolean compact, int batch) {
+            if (compact) {
+                codec = new SemRecordCodec();
+            }
+            if (batch > 0) {
+                cache = new BlockCache(batch);
+            }
+        }
+
+
+        // copy the bytes of a record into the record buffer
+        int copy(SemMemoryManager memManager, SemMemoryManager.Handle handle) {
+            int length = memManager.length(handle);
+            if (record.length < length) {
+                record = new byte[Math.max(length, record.length * 2)];
+            }
+            return memManager.get(record, handle, length);
+        }
+
+
+        // bind the view to the record in the record buffer
+        SeminarView bind(int length) {
+            return view.bind(ByteBuffer.wrap(record, 0, length));
+        }
+    } /// close nested class Buffers
+
+
+    // the free blocks of one thread, a stack of block starts per order that
+    // holds up to two batches
+    private static class BlockCache {
+        private long[][] starts = new long[MAX_CACHED_ORDER + 1][];
+        private int[] counts = new int[MAX_CACHED_ORDER + 1];
+        private int batch;
+
+        BlockCache(int batch) {
+            this.batch = batch;
+        }
+
+
+        // take a cached block of the order, -1 if there is none
+        long take(int order) {
+            if (counts[order] == 0) {
+                return -1;
+            }
+            return starts[order][--counts[order]];
+        }
+
+
+        // cache a free block of the order, false if the cache is full
+        boolean put(int order, long start) {
+            if (starts[order] == null) {
+                starts[order] = new long[2 * batch];
+            }
+            if (counts[order] == starts[order].length) {
+                return false;
+            }
+            starts[order][counts[order]++] = start;
+            return true;
+        }
+    } /// close nested class BlockCache
+}
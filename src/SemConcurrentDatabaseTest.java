@@ -0,0 +1,187 @@
+import student.TestCase;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is used to perform testing on SemConcurrentDatabase.java class
+ *
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-09-2024
+ */
+public class SemConcurrentDatabaseTest extends TestCase {
+    private String[] keywords = { "Good", "Bad", "Ugly" };
+
+    // a seminar with the given ID
+    private Seminar seminar(int id) {
+        return new Seminar(id, "Seminar " + id, "2405231000", 75, (short)15,
+            (short)33, 125, keywords, "This is seminar " + id);
+    }
+
+
+    /**
+     * Test the messages of the operations
+     *
+     * @throws Exception
+     */
+    public void testOperations() throws Exception {
+        SemConcurrentDatabase database = new SemConcurrentDatabase(64, 4,
+            SemOptions.parse(new String[] { "--stripes=2" }, 0));
+        database.insert(7, seminar(7));
+        database.insert(7, seminar(7));
+        database.search(7);
+        database.delete(7);
+        database.delete(7);
+        database.search(7);
+        String output = systemOut().getHistory();
+        assertTrue(output.contains("Successfully inserted record with ID 7\n"
+            + seminar(7).toString() + "\nSize: "));
+        assertTrue(output.contains(
+            "Insert FAILED - There is already a record with ID 7"));
+        assertTrue(output.contains("Found record with ID 7:\n" + seminar(7)
+            .toString()));
+        assertTrue(output.contains(
+            "Record with ID 7 successfully deleted from the database"));
+        assertTrue(output.contains(
+            "Delete FAILED -- There is no record with ID 7"));
+        assertTrue(output.contains(
+            "Search FAILED -- There is no record with ID 7"));
+        assertNull(database.get(7));
+        database.close();
+    }
+
+
+    /**
+     * Test a record encoded ahead is stored as it is, not encoded again
+     *
+     * @throws Exception
+     */
+    public void testEncodedInsert() throws Exception {
+        SemConcurrentDatabase database = new SemConcurrentDatabase(4096, 4,
+            SemOptions.parse(new String[] { "--stripes=2" }, 0));
+        SemRecordCodec codec = new SemRecordCodec();
+        int size = codec.encode(seminar(7));
+        byte[] record = Arrays.copyOf(codec.getBuffer(), size);
+        assertTrue(size < seminar(7).serialize().length);
+        database.insert(7, seminar(7), record, size);
+        database.search(7);
+        database.close();
+        assertEquals("Successfully inserted record with ID 7\n" + seminar(7)
+            .toString() + "\nSize: " + size + "\nFound record with ID 7:\n"
+            + seminar(7).toString() + "\n", systemOut().getHistory());
+    }
+
+
+    /**
+     * Test the thread cache takes and gives back blocks in batches
+     *
+     * @throws Exception
+     */
+    public void testBlockCache() throws Exception {
+        SemConcurrentDatabase database = new SemConcurrentDatabase(4096, 64,
+            SemOptions.parse(new String[] { "--block-cache=4" }, 0));
+        for (int id = 0; id < 20; id++) {
+            database.insert(id, seminar(id));
+        }
+        for (int id = 0; id < 20; id++) {
+            database.delete(id);
+        }
+        // the thread cache still holds some blocks
+        database.memoryBlocksDataDump();
+        assertFalse(systemOut().getHistory().contains("4096: 0"));
+        for (int id = 100; id < 108; id++) {
+            database.insert(id, seminar(id));
+            assertEquals("Seminar " + id, database.get(id).getTitle());
+            database.delete(id);
+        }
+
+        database.releaseThreadCache();
+        systemOut().clearHistory();
+        database.memoryBlocksDataDump();
+        assertEquals("Freeblock List:\n4096: 0\n", systemOut()
+            .getHistory());
+        database.close();
+    }
+
+
+    /**
+     * Test the mapped pool is rejected
+     */
+    public void testMappedPool() {
+        Exception exception = null;
+        try {
+            new SemConcurrentDatabase(64, 4, SemOptions.parse(new String[] {
+                "--pool=mapped" }, 0));
+        }
+        catch (IllegalArgumentException e) {
+            exception = e;
+        }
+        assertNotNull(exception);
+    }
+
+
+    /**
+     * Test many threads insert, read and delete records at the same time
+     *
+     * @throws Exception
+     */
+    public void testConcurrentThreads() throws Exception {
+        SemConcurrentDatabase database = new SemConcurrentDatabase(256, 4,
+            SemOptions.parse(new String[] { "--stripes=4",
+                "--codec=compact" }, 0));
+        int threadCount = 8;
+        int perThread = 300;
+        List<Throwable> errors = new ArrayList<Throwable>();
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            int first = t * perThread;
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int id = first; id < first + perThread; id++) {
+                        database.insert(id, seminar(id));
+                        // read the records of all threads, those of this
+                        // thread must be there
+                        for (int other = id; other >= 0; other -= 97) {
+                            Seminar found = database.get(other);
+                            if (found != null && found.getId() != other) {
+                                throw new AssertionError("Read " + found
+                                    .getId() + " for " + other);
+                            }
+                        }
+                        if (database.get(id) == null) {
+                            throw new AssertionError("Lost " + id);
+                        }
+                        if (id % 2 == 0) {
+                            database.delete(id);
+                        }
+                    }
+                    database.releaseThreadCache();
+                }
+                catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(errors.toString(), errors.isEmpty());
+
+        for (int id = 0; id < threadCount * perThread; id++) {
+            Seminar found = database.get(id);
+            if (id % 2 == 0) {
+                assertNull(found);
+            }
+            else {
+                assertEquals(seminar(id).toString(), found.toString());
+            }
+        }
+        database.close();
+    }
+}
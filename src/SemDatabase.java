@@ -1,3 +1,18 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collection;
 // import java.util.Iterator;
 
 /**
@@ -12,13 +27,20 @@
  * Many of these methods will simply call the appropriate version of the
  * Hash Table methods after some preparation.
  * 
+ * With a memory-mapped pool (--pool=mapped) the database is persistent. On
+ * close the allocation state of the memory manager and the hash table slots
+ * are saved to a metadata file next to the pool file, and the next database
+ * over the same pool file reopens them instead of starting empty. The
+ * metadata file is removed while the database is open, so a run that does
+ * not close the database starts over with an empty pool.
+ * 
  * @author Sadath-Mohammed-msadath
  * @author Emadeldin-Abdrabou-emazied
  * 
  * @version 04-26-2024
  * 
  */
-public class SemDatabase {
+public class SemDatabase implements SemStore {
     // this is the Hash Table object that we are using
     // an integer for the seminar ID or record key
     // and handle object for memory manager access
@@ -29,6 +51,22 @@ public class SemDatabase {
     // information between the memory manager and hash table
     private SemMemoryManager memManager;
 
+    // the view that the search reads the found record through, it is bound
+    // to one record after the other
+    private SeminarView semView = new SeminarView();
+
+    // the compact record codec, null for the canonical serialized form
+    private SemRecordCodec codec;
+
+    // the stream for the messages, null for System.out
+    private PrintStream out;
+
+    // the metadata file of a persistent (memory-mapped) pool, null otherwise
+    private File metaFile;
+
+    // first integer of a metadata file
+    private static final int META_MAGIC = 0x53454d31;
+
     // This is an Iterator object over the hash table to loop through it from
     // to check the existence of the ID and not allowing duplicate ID
     // private Iterator itr1;
@@ -45,11 +83,67 @@ public class SemDatabase {
      *            integer value of initial hash table capacity
      */
     public SemDatabase(int mSize, int hTCapacity) {
+        this(mSize, hTCapacity, new SemOptions());
+    }
+
+
+    /**
+     * The constructor for this class with the optional database settings
+     * 
+     * @param mSize
+     *            integer value of initial memory pool size which is value of
+     *            power of two
+     * 
+     * @param hTCapacity
+     *            integer value of initial hash table capacity
+     * 
+     * @param options
+     *            the optional settings, e.g., the pool storage to use
+     */
+    public SemDatabase(int mSize, int hTCapacity, SemOptions options) {
+        if (options.getCodec().equals("compact")) {
+            codec = new SemRecordCodec();
+        }
+
+        // a persistent pool reopens the saved database if there is one
+        if (options.getPoolMode().equals("mapped")) {
+            metaFile = new File(options.getPoolFile().getPath() + ".meta");
+            if (metaFile.exists()) {
+                reopen(options.getPoolFile());
+                hashTable.setIncrementalResize(options.isIncrementalRehash());
+                hashTable.setTombstoneLimit(options.getTombstoneLimit());
+                return;
+            }
+        }
+
         // instantiate hash table object
         hashTable = new SemClosedHashTable(hTCapacity);
+        hashTable.setIncrementalResize(options.isIncrementalRehash());
+        hashTable.setTombstoneLimit(options.getTombstoneLimit());
 
         // instantiate memory manager object
-        memManager = new SemMemoryManager(mSize);
+        memManager = new SemMemoryManager(options.createPoolStorage(mSize));
+    }
+
+
+    /**
+     * Set the stream that the messages of the database, its hash table and
+     * its memory manager are printed to
+     * 
+     * @param output
+     *            the stream for the messages, null for System.out
+     */
+    public void setOutput(PrintStream output) {
+        out = output;
+        hashTable.setOutput(output);
+        memManager.setOutput(output);
+    }
+
+
+    // the stream for the messages, System.out is looked up on every message
+    // so a replaced System.out takes effect
+    private PrintStream out() {
+        return out == null ? System.out : out;
     }
 
 
@@ -65,26 +159,58 @@ public class SemDatabase {
      * @throws Exception
      */
     public void insert(int semID, Seminar sem) throws Exception {
+        insert(semID, sem, null, 0);
+    }
+
+
+    /**
+     * Insert the seminar object with its record encoded ahead in the form of
+     * the codec of this database
+     * 
+     * @param semID
+     *            integer value of the unique seminar ID
+     * @param sem
+     *            Seminar object
+     * @param record
+     *            byte array of the encoded record, null to encode the
+     *            seminar here
+     * @param size
+     *            integer value of the record size (bytes)
+     * @throws Exception
+     */
+    public void insert(int semID, Seminar sem, byte[] record, int size)
+        throws Exception {
         // The logic of calling insert method in memory manager and hash table
         // goes here
 
-        // 1- call the hashTable is duplicate to check the if the sem ID exists,
-        // if yes print failure message and exit
-        if (hashTable.isDuplicate(semID)) {
-            System.out.println(
+        // 1- find the hash table slot of the sem ID, which also checks if the
+        // sem ID exists, if yes print failure message and exit
+        int slot = hashTable.findInsertSlot(semID);
+        if (slot < 0) {
+            out().println(
                 "Insert FAILED - There is already a record with ID " + semID);
             return;
         }
         // otherwise continue with the
         // following step
         // check if we need to resize memory pool
-        // 2- serialize the the seminar object to get it in bytes format
-        byte[] semSerialized = sem.serialize();
-        int semSize = semSerialized.length;
+        // 2- serialize the the seminar object to get it in bytes format,
+        // the compact codec encodes it into its reused buffer, unless the
+        // record was encoded ahead
+        byte[] semSerialized = record;
+        int semSize = size;
+        if (semSerialized == null && codec != null) {
+            semSize = codec.encode(sem);
+            semSerialized = codec.getBuffer();
+        }
+        else if (semSerialized == null) {
+            semSerialized = sem.serialize();
+            semSize = semSerialized.length;
+        }
         // System.out.println("Seminar byte array size: " + semSize); // checked
 
-        int currentMemPoolSize = memManager.getPoolSize();
-        int currentMemAllocSize = memManager.calculateTotalAllocatedSize();
+        long currentMemPoolSize = memManager.getPoolSize();
+        long currentMemAllocSize = memManager.calculateTotalAllocatedSize();
         int requestedBlockSize = memManager.calculateBlockSize(semSize);
 
         // System.out.println("current allocated size: " + currentMemAllocSize
@@ -123,17 +249,92 @@ public class SemDatabase {
         int currentHashTableSize = hashTable.getSize();
         int currentHashTableCapaicty = hashTable.getCapacity() / 2;
         if (currentHashTableSize >= currentHashTableCapaicty) {
-            // resize the hash table
+            // resize the hash table, which moves the slot of the sem ID
             hashTable.resize();
+            slot = hashTable.findInsertSlot(semID);
         }
 
         // call insert method in the hash table
-        hashTable.insert(semID, semHandle);
+        hashTable.insertAt(slot, semID, semHandle);
 
         // 5- print out the required successful insertion message
-        System.out.println("Successfully inserted record with ID " + semID);
-        System.out.println(sem.toString());
-        System.out.println("Size: " + semSize);
+        out().println("Successfully inserted record with ID " + semID);
+        out().println(sem.toString());
+        out().println("Size: " + semSize);
+    }
+
+
+    /**
+     * Insert many seminars with the messages of an insert for each. The
+     * records are encoded first, then the hash table grows once to the
+     * capacity that holds all the distinct IDs and the memory pool once to
+     * the size that holds all the new records, so a bulk load does not copy
+     * the pool and rehash the table at every doubling. The expansion
+     * messages come before the insert messages
+     * 
+     * @param sems
+     *            the seminars in the order of their messages
+     * @throws Exception
+     */
+    public void insertAll(Collection<Seminar> sems) throws Exception {
+        Seminar[] all = sems.toArray(new Seminar[0]);
+        byte[][] records = new byte[all.length][];
+        // the IDs of the records, sorted to count the distinct ones
+        int[] ids = new int[all.length];
+        for (int i = 0; i < all.length; i++) {
+            if (codec != null) {
+                int size = codec.encode(all[i]);
+                records[i] = Arrays.copyOf(codec.getBuffer(), size);
+            }
+            else {
+                records[i] = all[i].serialize();
+            }
+            ids[i] = all[i].getId();
+        }
+        // the table makes room for every distinct ID of the batch, then
+        // every record takes one probe, which also tells whether its ID is
+        // new. The slot of a new ID is claimed before its record is stored,
+        // so the later records of the ID find it
+        Arrays.sort(ids);
+        int keys = 0;
+        for (int k = 0; k < ids.length; k++) {
+            if (k == 0 || ids[k] != ids[k - 1]) {
+                keys++;
+            }
+        }
+        hashTable.reserve(keys);
+        int[] slots = new int[all.length];
+        long blockBytes = 0;
+        for (int i = 0; i < all.length; i++) {
+            slots[i] = hashTable.findInsertSlot(all[i].getId());
+            if (slots[i] >= 0) {
+                hashTable.claimAt(slots[i], all[i].getId());
+                blockBytes += memManager.calculateBlockSize(
+                    records[i].length);
+            }
+        }
+
+        // the pool holds all the new records now, so there is no growth
+        // check per record
+        memManager.reserve(blockBytes);
+        for (int i = 0; i < all.length; i++) {
+            int semID = all[i].getId();
+            if (slots[i] < 0) {
+                out().println(
+                    "Insert FAILED - There is already a record with ID "
+                        + semID);
+            }
+            else {
+                hashTable.setHandleAt(slots[i], memManager.insert(records[i],
+                    records[i].length));
+                out().println("Successfully inserted record with ID "
+                    + semID);
+                out().println(all[i].toString());
+                out().println("Size: " + records[i].length);
+            }
+            // the record is in the pool now
+            records[i] = null;
+        }
     }
 
 
@@ -149,7 +350,7 @@ public class SemDatabase {
         // otherwise return a failure message that the given ID does not exist
         SemMemoryManager.Handle semHandle = hashTable.search(semID);
         if (semHandle == null) {
-            System.out.println("Delete FAILED -- There is no record with ID "
+            out().println("Delete FAILED -- There is no record with ID "
                 + semID);
         }
         // 2- after finding the record get its handle and remove it from hash
@@ -161,13 +362,45 @@ public class SemDatabase {
             if (hashTable.delete(semID)) {
                 // delete the record from the memory manager
                 memManager.remove(semHandle);
-                System.out.println("Record with ID " + semID
+                out().println("Record with ID " + semID
                     + " successfully deleted from the database");
             }
         }
     }
 
 
+    /**
+     * Delete many records with the messages of a delete for every ID in the
+     * given order. The blocks of the deleted records are freed afterwards in
+     * one pass over the pool in the order of their offsets, in which the
+     * blocks of neighboring records merge before they are added to the free
+     * blocks
+     * 
+     * @param semIDs
+     *            the seminar IDs
+     */
+    public void delete(int[] semIDs) {
+        // the packed handles of the deleted records, their order is the
+        // order of the pool offsets
+        long[] deleted = new long[semIDs.length];
+        int count = 0;
+        for (int semID : semIDs) {
+            SemMemoryManager.Handle semHandle = hashTable.search(semID);
+            if (semHandle == null) {
+                out().println("Delete FAILED -- There is no record with ID "
+                    + semID);
+            }
+            else if (hashTable.delete(semID)) {
+                deleted[count++] = semHandle.pack();
+                out().println("Record with ID " + semID
+                    + " successfully deleted from the database");
+            }
+        }
+        Arrays.sort(deleted, 0, count);
+        memManager.removeAll(deleted, count);
+    }
+
+
     /**
      * 03- search for a record by a given key, i.e., seminar ID
      * 
@@ -189,7 +422,7 @@ public class SemDatabase {
         // }
 
         if (semHandle == null) {
-            System.out.println("Search FAILED -- There is no record with ID "
+            out().println("Search FAILED -- There is no record with ID "
                 + seminID);
         }
         // 2- after finding the record in the hash table, get its handle and
@@ -202,22 +435,95 @@ public class SemDatabase {
          * Keywords: high_performance_computing, grids, VT, computer, science
          */
         else {
-            // instantiate a byte array to copy the content of the handle in the
-            // memory pool
-            byte[] semDeserial = new byte[memManager.length(semHandle)];
-            int recordLen = memManager.get(semDeserial, semHandle, memManager
-                .length(semHandle));
-            if (recordLen == semDeserial.length) {
-                System.out.println("Found record with ID " + seminID + ":");
-                // convert the byte array to seminar object
-                Seminar semi = Seminar.deserialize(semDeserial);
-                // print out the contents of seminar record
-                System.out.println(semi.toString());
+            // read the record in place through a view of the memory pool
+            // instead of copying it into a new byte array
+            ByteBuffer semDeserial = memManager.view(semHandle);
+            if (semDeserial.remaining() == memManager.length(semHandle)) {
+                out().println("Found record with ID " + seminID + ":");
+                // print out the contents of seminar record, the fields are
+                // decoded from the pool bytes without a seminar object
+                out().println(semView.bind(semDeserial).toString());
             }
         }
     }
 
 
+    /**
+     * Search for many records with the messages of a search for every ID in
+     * the given order. All handles are looked up in the hash table first,
+     * then the records are read in the order of their pool offsets, so the
+     * reads pass the pool once from low to high addresses. A record that is
+     * asked for more than once is read once
+     * 
+     * @param semIDs
+     *            the seminar IDs
+     * @throws Exception
+     */
+    public void search(int[] semIDs) throws Exception {
+        // the packed handles of the found records, 0 for a missing one, so
+        // sorting a copy of them sorts the records by their pool offsets
+        long[] found = new long[semIDs.length];
+        long[] sorted = new long[semIDs.length];
+        int count = 0;
+        for (int i = 0; i < semIDs.length; i++) {
+            SemMemoryManager.Handle semHandle = hashTable.search(semIDs[i]);
+            if (semHandle != null) {
+                found[i] = semHandle.pack();
+                sorted[count++] = found[i];
+            }
+        }
+        Arrays.sort(sorted, 0, count);
+        // the record of every sorted handle, once for equal handles
+        String[] records = new String[count];
+        for (int k = 0; k < count; k++) {
+            if (k == 0 || sorted[k] != sorted[k - 1]) {
+                SemMemoryManager.Handle semHandle = SemMemoryManager.Handle
+                    .unpack(sorted[k]);
+                ByteBuffer semDeserial = memManager.view(semHandle);
+                if (semDeserial.remaining() == memManager.length(semHandle)) {
+                    records[k] = semView.bind(semDeserial).toString();
+                }
+            }
+        }
+        for (int i = 0; i < semIDs.length; i++) {
+            if (found[i] == 0) {
+                out().println("Search FAILED -- There is no record with ID "
+                    + semIDs[i]);
+                continue;
+            }
+            // the first of the equal handles holds the record
+            int k = Arrays.binarySearch(sorted, 0, count, found[i]);
+            while (k > 0 && sorted[k - 1] == found[i]) {
+                k--;
+            }
+            if (records[k] != null) {
+                out().println("Found record with ID " + semIDs[i] + ":");
+                out().println(records[k]);
+            }
+        }
+    }
+
+
+    /**
+     * Find a record by a given key and get a view of it, which reads the
+     * record fields from the memory pool only when they are asked for. The
+     * same view object is returned by every call and it is only valid until
+     * the next call or until the database changes
+     * 
+     * @param seminID
+     *            integer value of the seminar ID
+     * @return the view bound to the record, or null if there is no record
+     *         with the given ID
+     */
+    public SeminarView view(int seminID) {
+        SemMemoryManager.Handle semHandle = hashTable.search(seminID);
+        if (semHandle == null) {
+            return null;
+        }
+        return semView.bind(memManager.view(semHandle));
+    }
+
+
     /**
      * 04- Hash table Dump
      * Prints out a dump of the Hash table contents in the format as described
@@ -240,4 +546,56 @@ public class SemDatabase {
         // call it here
         memManager.dump();
     }
+
+
+    // load the memory manager and the hash table that the last close saved
+    // next to the pool file
+    private void reopen(File poolFile) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+            new FileInputStream(metaFile)))) {
+            if (in.readInt() != META_MAGIC) {
+                throw new IOException("Invalid metadata file " + metaFile);
+            }
+            long poolSize = in.readLong();
+            memManager = SemMemoryManager.load(new SemMappedPoolStorage(
+                poolFile, poolSize, true), in);
+            hashTable = SemClosedHashTable.load(in, memManager);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // the saved state is stale as soon as the database changes
+        metaFile.delete();
+    }
+
+
+    /**
+     * 06- Close the database
+     * Releases the memory pool, which matters for a pool that is kept outside
+     * the Java heap. A persistent pool also saves the allocation state and
+     * the hash table, so the next run reopens the database. The database can
+     * not be used afterwards
+     * 
+     * @throws IOException
+     *             if the metadata of a persistent pool can not be saved
+     */
+    public void close() throws IOException {
+        if (metaFile == null) {
+            memManager.release();
+            return;
+        }
+        File tempFile = new File(metaFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            out.writeInt(META_MAGIC);
+            out.writeLong(memManager.getPoolSize());
+            memManager.save(out);
+            hashTable.save(out, memManager);
+        }
+        // the pool bytes reach the file before the metadata becomes visible
+        memManager.release();
+        Files.move(tempFile.toPath(), metaFile.toPath(),
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+    }
 }
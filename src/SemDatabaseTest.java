@@ -1,15 +1,192 @@
-// import student.TestCase;
-//
-/// **
-// * This class is used to perform testing on SemDatabase.java class
-// *
-// *
-// * @author Sadath-Mohammed-msadath
-// * @author Emadeldin-Abdrabou-emazied
-// *
-// * @version 04-27-20240
-// */
-//
-// public class SemDatabaseTest {
-//
-// }
+import student.TestCase;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is used to perform testing on SemDatabase.java class
+ *
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-18-2024
+ */
+public class SemDatabaseTest extends TestCase {
+    // the seminars of the tests, with a duplicate ID at the end
+    private List<Seminar> seminars() {
+        List<Seminar> sems = new ArrayList<>();
+        for (int id = 0; id < 100; id++) {
+            sems.add(new Seminar(id, "Seminar " + id, "0610051600", 90,
+                (short)10, (short)10, 45, new String[] { "HCI", "VT" },
+                "Description " + id));
+        }
+        sems.add(sems.get(7));
+        return sems;
+    }
+
+
+    // the messages without the expansion lines
+    private static String inserts(String messages) {
+        return messages.replaceAll("(Memory pool|Hash table) expanded to "
+            + "\\d+ (bytes|records)\n", "");
+    }
+
+
+    // compare a bulk load with inserts one at a time
+    private void checkInsertAll(String codec) throws Exception {
+        SemOptions options = SemOptions.parse(new String[] { "--codec="
+            + codec }, 0);
+        ByteArrayOutputStream single = new ByteArrayOutputStream();
+        SemDatabase one = new SemDatabase(64, 4, options);
+        one.setOutput(new PrintStream(single, true));
+        one.insert(3, seminars().get(3));
+        single.reset();
+        for (Seminar sem : seminars()) {
+            one.insert(sem.getId(), sem);
+        }
+
+        ByteArrayOutputStream bulk = new ByteArrayOutputStream();
+        SemDatabase all = new SemDatabase(64, 4, options);
+        all.setOutput(new PrintStream(bulk, true));
+        all.insert(3, seminars().get(3));
+        bulk.reset();
+        all.insertAll(seminars());
+
+        // the table and the pool grew once, to the sizes that the inserts
+        // one at a time reached
+        String messages = bulk.toString();
+        String[] lines = messages.split("\n");
+        assertEquals("Hash table expanded to 256 records", lines[0]);
+        assertTrue(lines[1].startsWith("Memory pool expanded to "));
+        assertEquals(3, messages.split("expanded").length);
+        assertTrue(single.toString().contains(lines[0] + "\n"));
+        assertTrue(single.toString().contains(lines[1] + "\n"));
+        assertEquals(inserts(single.toString()), inserts(messages));
+        assertEquals(2, messages.split("Insert FAILED").length - 1);
+
+        for (int id = 0; id < 100; id++) {
+            assertEquals(one.view(id).toString(), all.view(id).toString());
+        }
+    }
+
+
+    /**
+     * Test a bulk load grows the pool and the hash table once and prints
+     * the messages of the inserts
+     *
+     * @throws Exception
+     */
+    public void testInsertAll() throws Exception {
+        checkInsertAll("standard");
+        checkInsertAll("compact");
+    }
+
+
+    /**
+     * Test a bulk load grows the pool and the hash table before the first
+     * insert and not during the inserts, also with tombstones in the table
+     * and with incremental rehashing
+     *
+     * @throws Exception
+     */
+    public void testInsertAllGrowsOnce() throws Exception {
+        for (String rehash : new String[] { "full", "incremental" }) {
+            ByteArrayOutputStream messages = new ByteArrayOutputStream();
+            SemDatabase db = new SemDatabase(64, 4, SemOptions.parse(
+                new String[] { "--rehash=" + rehash }, 0));
+            db.setOutput(new PrintStream(messages, true));
+            for (int id = 200; id < 210; id++) {
+                db.insert(id, seminars().get(id - 200));
+                db.delete(id);
+            }
+            messages.reset();
+            List<Seminar> sems = seminars();
+            db.insertAll(sems);
+            String[] lines = messages.toString().split("\n");
+            assertTrue(lines[0].startsWith("Hash table expanded to "));
+            assertTrue(lines[1].startsWith("Memory pool expanded to "));
+            for (int i = 2; i < lines.length; i++) {
+                assertFalse(lines[i].contains("expanded"));
+            }
+            assertEquals(100, messages.toString().split(
+                "Successfully inserted").length - 1);
+            for (Seminar sem : sems.subList(0, 100)) {
+                assertEquals(sem.toString(), db.view(sem.getId()).toString());
+            }
+        }
+    }
+
+
+    // a database with the seminars, its messages go to the given stream
+    private SemDatabase loaded(ByteArrayOutputStream messages)
+        throws Exception {
+        SemDatabase db = new SemDatabase(64, 4);
+        db.setOutput(new PrintStream(messages, true));
+        // inserted out of ID order so the pool offsets are not the ID order
+        for (int id = 99; id >= 0; id -= 2) {
+            db.insert(id, seminars().get(id));
+        }
+        for (int id = 0; id < 100; id += 2) {
+            db.insert(id, seminars().get(id));
+        }
+        messages.reset();
+        return db;
+    }
+
+
+    /**
+     * Test a search for many IDs prints the messages of a search for every
+     * ID in the given order
+     *
+     * @throws Exception
+     */
+    public void testMultiSearch() throws Exception {
+        int[] ids = { 42, 7, 200, 99, 0, 7, -1, 58 };
+        ByteArrayOutputStream single = new ByteArrayOutputStream();
+        SemDatabase one = loaded(single);
+        for (int id : ids) {
+            one.search(id);
+        }
+        ByteArrayOutputStream multi = new ByteArrayOutputStream();
+        SemDatabase all = loaded(multi);
+        all.search(ids);
+        assertEquals(single.toString(), multi.toString());
+        assertEquals(2, multi.toString().split("Search FAILED").length - 1);
+    }
+
+
+    /**
+     * Test a delete of many IDs prints the messages of a delete for every ID
+     * and frees the blocks, which merge back into one free pool
+     *
+     * @throws Exception
+     */
+    public void testMultiDelete() throws Exception {
+        int[] ids = new int[103];
+        for (int i = 0; i < 100; i++) {
+            ids[i] = (i * 37) % 100;
+        }
+        ids[100] = 5;
+        ids[101] = 500;
+        ids[102] = 5;
+        ByteArrayOutputStream single = new ByteArrayOutputStream();
+        SemDatabase one = loaded(single);
+        for (int id : ids) {
+            one.delete(id);
+        }
+        ByteArrayOutputStream multi = new ByteArrayOutputStream();
+        SemDatabase all = loaded(multi);
+        all.delete(ids);
+        assertEquals(single.toString(), multi.toString());
+        assertEquals(3, multi.toString().split("Delete FAILED").length - 1);
+
+        single.reset();
+        one.memoryBlocksDataDump();
+        multi.reset();
+        all.memoryBlocksDataDump();
+        assertEquals(single.toString(), multi.toString());
+        assertEquals(1, multi.toString().split(": 0").length - 1);
+    }
+}
@@ -0,0 +1,36 @@
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A server that serves the commands of the clients of the server mode.
+ * SemServer reads all connections in one selector thread, SemSessionServer
+ * runs every client in a thread of its own.
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-17-2024
+ */
+public interface SemFrontEnd extends Closeable {
+    /**
+     * @return the port that the server listens on
+     * @throws IOException
+     *             if the server is closed
+     */
+    public int getPort() throws IOException;
+
+
+    /**
+     * Serve the clients until the server is closed
+     *
+     * @throws IOException
+     *             if the server fails
+     */
+    public void serve() throws IOException;
+
+
+    /**
+     * Stop the server, also from another thread, the connections are closed
+     */
+    public void close();
+}
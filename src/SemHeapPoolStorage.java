@@ -0,0 +1,112 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Pool storage that keeps the whole pool in one on-heap byte array. Growing
+ * the pool allocates a new array and copies the old pool into it, which is
+ * the original behaviour of the memory manager. Since it is one array, the
+ * pool can not grow beyond 2 GiB.
+ * 
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ * 
+ * @version 05-02-2024
+ */
+public class SemHeapPoolStorage implements SemPoolStorage {
+    private byte[] memoryPool;
+    // read-only buffer over the whole pool that the views are sliced from
+    private ByteBuffer readOnlyPool;
+
+    /**
+     * constructor
+     * 
+     * @param poolSize
+     *            integer value of the initial memory pool size (bytes)
+     */
+    public SemHeapPoolStorage(int poolSize) {
+        memoryPool = new byte[poolSize];
+        readOnlyPool = ByteBuffer.wrap(memoryPool).asReadOnlyBuffer();
+    }
+
+
+    /**
+     * @return the number of bytes the storage currently holds
+     */
+    public long capacity() {
+        return memoryPool.length;
+    }
+
+
+    /**
+     * Grow the storage by copying the pool into a larger array
+     * 
+     * @param newCapacity
+     *            long value of the new pool size (bytes)
+     */
+    public void grow(long newCapacity) {
+        if (newCapacity > Integer.MAX_VALUE) {
+            throw new IllegalStateException("The heap pool can not grow to "
+                + newCapacity + " bytes, use the segmented pool instead");
+        }
+        byte[] newMemoryPool = new byte[(int)newCapacity];
+        System.arraycopy(memoryPool, 0, newMemoryPool, 0, memoryPool.length);
+        memoryPool = newMemoryPool;
+        readOnlyPool = ByteBuffer.wrap(memoryPool).asReadOnlyBuffer();
+    }
+
+
+    /**
+     * Copy bytes into the pool
+     * 
+     * @param address
+     *            long value of the pool address of the first byte
+     * @param src
+     *            byte array that holds the bytes to copy
+     * @param srcOffset
+     *            integer value of the first byte to copy in src
+     * @param length
+     *            integer value of the number of bytes to copy
+     */
+    public void write(long address, byte[] src, int srcOffset, int length) {
+        System.arraycopy(src, srcOffset, memoryPool, (int)address, length);
+    }
+
+
+    /**
+     * Copy bytes out of the pool
+     * 
+     * @param address
+     *            long value of the pool address of the first byte
+     * @param dst
+     *            byte array that receives the bytes
+     * @param dstOffset
+     *            integer value of the first position to fill in dst
+     * @param length
+     *            integer value of the number of bytes to copy
+     */
+    public void read(long address, byte[] dst, int dstOffset, int length) {
+        System.arraycopy(memoryPool, (int)address, dst, dstOffset, length);
+    }
+
+
+    /**
+     * Get a read-only view of pool bytes without copying them
+     * 
+     * @param address
+     *            long value of the pool address of the first byte
+     * @param length
+     *            integer value of the number of bytes in the view
+     * @return a read-only buffer over the pool array
+     */
+    public ByteBuffer view(long address, int length) {
+        return readOnlyPool.slice((int)address, length);
+    }
+
+
+    /**
+     * Release the pool array, the storage can not be used afterwards
+     */
+    public void release() {
+        memoryPool = new byte[0];
+        readOnlyPool = ByteBuffer.wrap(memoryPool).asReadOnlyBuffer();
+    }
+}
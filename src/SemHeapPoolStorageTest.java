@@ -0,0 +1,41 @@
+import student.TestCase;
+import java.util.Arrays;
+
+/**
+ * This class is used to perform testing on SemHeapPoolStorage.java class
+ *
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-02-2024
+ */
+public class SemHeapPoolStorageTest extends TestCase {
+    /** Test growth copies the stored bytes */
+    public void testGrowKeepsBytes() {
+        SemHeapPoolStorage storage = new SemHeapPoolStorage(8);
+        byte[] data = { 1, 2, 3, 4, 5 };
+        storage.write(3, data, 0, data.length);
+        storage.grow(16);
+        assertEquals(16, storage.capacity());
+
+        byte[] retrievedData = new byte[5];
+        storage.read(3, retrievedData, 0, retrievedData.length);
+        assertTrue(Arrays.equals(data, retrievedData));
+    }
+
+
+    /** Test the heap pool refuses to grow beyond 2 GiB */
+    public void testGrowTooLarge() {
+        SemHeapPoolStorage storage = new SemHeapPoolStorage(8);
+        Exception exception = null;
+        try {
+            storage.grow(1L << 31);
+        }
+        catch (IllegalStateException e) {
+            exception = e;
+        }
+        assertNotNull(exception);
+        assertEquals(8, storage.capacity());
+    }
+}
@@ -1,7 +1,10 @@
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.util.ArrayList;
-import java.util.Scanner;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 
 /**
  * Build a memory management system for Seminar training sessions. Using the
@@ -45,6 +48,18 @@ import java.util.Scanner;
 // letter of this restriction.
 
 public class SemManager {
+    // number of commands that are read ahead of the running command
+    private static final int PREFETCH_COMMANDS = 1024;
+
+    // size of the buffer of the buffered output (bytes)
+    private static final int OUTPUT_BUFFER = 1 << 16;
+
+    // number of commands that may wait for the executor of the pipeline
+    private static final int PIPELINE_COMMANDS = 1024;
+
+    // time that a stopped server waits for the database to close (ms)
+    private static final long STOP_WAIT = 10000;
+
     /**
      * @param args
      *            Command line parameters
@@ -66,6 +81,10 @@ public class SemManager {
      * 
      *            args[2] << command-file >>
      *            is the name of the command file to read.
+     * 
+     *            args[3] ... << options >>
+     *            optional database settings in the form --name=value (see
+     *            SemOptions).
      * @throws Exception
      */
     public static void main(String[] args) throws Exception {
@@ -101,55 +120,101 @@ public class SemManager {
             return;
         }
 
+        // parse the optional database settings
+        SemOptions options;
+        try {
+            options = SemOptions.parse(args, 3);
+        }
+        catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+
         // Attempts to open the file and scan through it
         try {
             // takes the first command line argument and opens that file
             file = new File(args[2]);
 
-            // creates a scanner object
-            Scanner scanner = new Scanner(file);
+            // creates a command reader object, it reads the commands from
+            // the file while the earlier ones run, so the file is never held
+            // in memory as a whole; with mapped input the commands are
+            // tokenized in a memory mapping of the file instead
+            SemCommandSource reader;
+            if (options.isMappedInput()) {
+                reader = new SemMappedCommandReader(file);
+            }
+            else {
+                reader = new SemCommandReader(new FileReader(file),
+                    PREFETCH_COMMANDS);
+            }
 
             // creates a command processor object with memory size and initial
             // hash table size
             SemCommandProcessor cmdProc = new SemCommandProcessor(
-                memoryPoolSize, initialHashTableSize);
+                memoryPoolSize, initialHashTableSize, options);
 
-            // reads the entire file and processes the commands
-            // line by line
-            ArrayList<String> commands = new ArrayList<>();
+            // with buffered output the messages are collected in a sink
+            // that writes them to the console a buffer at a time
+            PrintStream output = null;
+            if (!options.getOutput().equals("direct")) {
+                output = new PrintStream(new SemOutputSink(System.out,
+                    OUTPUT_BUFFER, options.getOutput().equals("async")),
+                    false);
+                cmdProc.setOutput(output);
+            }
 
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                // determines if the file has more lines to read
-                if (!line.trim().isEmpty()) { // check line is not blank line
-                    commands.add(line);
-                }
+            // with a pipeline the insert commands are parsed and encoded by
+            // worker threads and applied in file order by its executor
+            SemPipeline pipeline = null;
+            if (options.getPipeline() > 0) {
+                pipeline = new SemPipeline(cmdProc, options, options
+                    .getPipeline(), PIPELINE_COMMANDS);
             }
 
-            int i = 0;
-            // System.out.println(commands.size());
-            while (i < commands.size()) {
-                String commandType = commands.get(i).trim().split("\\s{1,}")[0];
-                if (commandType.equals("insert")) {
-                    String[] insertCommand = { commands.get(i), commands.get(i
-                        + 1), commands.get(i + 2), commands.get(i + 3), commands
-                            .get(i + 4) };
-                    cmdProc.processor(insertCommand);
-                    i += 5;
+            // processes the commands one after the other, an insert command
+            // has five lines and the other commands one line
+            try {
+                CharSequence[] command = reader.next();
+                while (command != null) {
+                    if (pipeline != null) {
+                        pipeline.submit(command);
+                    }
+                    else if (command.length == 5) {
+                        cmdProc.processor(command);
+                    }
+                    else {
+                        cmdProc.processor(command[0]);
+                    }
+                    command = reader.next();
                 }
-                else if (commandType.equals("search") || commandType.equals(
-                    "delete") || commandType.equals("print")) {
-                    cmdProc.processor(commands.get(i));
-                    i++;
+                if (pipeline != null) {
+                    pipeline.finish();
                 }
                 else {
+                    cmdProc.releaseThread();
+                }
+                reader.close();
 
-                    // System.out.println(commands.get(i));
-                    i++;
+                // in the server mode the database serves the commands of the
+                // clients until the program is stopped
+                if (options.getServerPort() > 0) {
+                    if (output != null) {
+                        output.flush();
+                    }
+                    serve(cmdProc, options);
+                }
+                // releases the memory pool
+                cmdProc.close();
+            }
+            finally {
+                if (pipeline != null) {
+                    pipeline.close();
+                }
+                // writes the collected messages, also before an error
+                if (output != null) {
+                    output.close();
                 }
             }
-            // closes the scanner
-            scanner.close();
         }
         // catches the exception if the file cannot be found
         // and outputs the correct information to the console
@@ -160,6 +225,36 @@ public class SemManager {
     }
 
 
+    // serve the commands of the clients on the loopback address until the
+    // program is stopped, the stop waits for the database to be closed
+    private static void serve(SemCommandProcessor cmdProc, SemOptions options)
+        throws IOException {
+        SemSharedProcessor shared = new SemSharedProcessor(cmdProc);
+        InetSocketAddress address = new InetSocketAddress(InetAddress
+            .getLoopbackAddress(), options.getServerPort());
+        SemFrontEnd server;
+        if (options.isSessionFrontEnd()) {
+            server = new SemSessionServer(shared, address);
+        }
+        else {
+            server = new SemServer(shared, address);
+        }
+        Thread main = Thread.currentThread();
+        Thread stop = new Thread(() -> {
+            server.close();
+            try {
+                main.join(STOP_WAIT);
+            }
+            catch (InterruptedException e) {
+                // stop now
+            }
+        });
+        Runtime.getRuntime().addShutdownHook(stop);
+        System.err.println("Serving on port " + options.getServerPort());
+        server.serve();
+    }
+
+
     // helper function to check for integer data type
     private static boolean isInteger(String intNum) {
         try {
@@ -171,6 +171,57 @@ public class SemManagerTest extends TestCase {
         assertFalse(systemOut().getHistory().contains(": TOMBSTONE"));
         assertTrue(systemOut().getHistory().contains("Freeblock List:"));
     }
+
+
+    /**
+     * Test the segmented pool option and an invalid option
+     * 
+     * @throws Exception
+     */
+    public void testPoolOption() throws Exception {
+        String[] args = { "256", "256", "commands.txt", "--pool=segmented" };
+        SemManager.main(args);
+        assertTrue(systemOut().getHistory().contains(
+            "Successfully inserted record with ID 1"));
+
+        String[] invalidArgs = { "256", "256", "commands.txt", "--pool=disk" };
+        SemManager.main(invalidArgs);
+        assertTrue(systemErr().getHistory().contains("Invalid pool disk"));
+    }
+
+
+    /**
+     * Test the buffered outputs print the same as the direct output
+     * 
+     * @throws Exception
+     */
+    public void testOutputOption() throws Exception {
+        systemOut().clearHistory();
+        SemManager.main(new String[] { "256", "256", "commands.txt" });
+        String direct = systemOut().getHistory();
+        for (String output : new String[] { "buffered", "async" }) {
+            systemOut().clearHistory();
+            SemManager.main(new String[] { "256", "256", "commands.txt",
+                "--output=" + output });
+            assertEquals(direct, systemOut().getHistory());
+        }
+    }
+
+
+    /**
+     * Test the pipeline prints the same as the commands one after the other
+     * 
+     * @throws Exception
+     */
+    public void testPipelineOption() throws Exception {
+        systemOut().clearHistory();
+        SemManager.main(new String[] { "256", "256", "commands.txt" });
+        String expected = systemOut().getHistory();
+        systemOut().clearHistory();
+        SemManager.main(new String[] { "256", "256", "commands.txt",
+            "--pipeline=2", "--output=async" });
+        assertEquals(expected, systemOut().getHistory());
+    }
     // After 'insert'
     // size 128 working
     // size 134 working
@@ -0,0 +1,333 @@
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the commands of a command file from a memory mapping of the file, so
+ * the file bytes go from the page cache to the tokenizer without being
+ * copied into a character stream first. The commands are the same as those
+ * of SemCommandReader: blank lines are skipped, an insert command is the
+ * insert line and the four lines that follow it, a search, delete or print
+ * command is one line, and lines that start with another word are skipped.
+ *
+ * The lines of a command are views of the mapped bytes, no string is made of
+ * a line. The command processor makes strings only of the words and lines
+ * that it stores, e.g., the title and the keywords of a seminar. A line of
+ * ASCII bytes is read byte by byte, a line with other bytes is decoded with
+ * the default character set as a FileReader would. The views, and the array
+ * that holds them, are reused by the next call of next, so a command must be
+ * processed before the next one is read.
+ *
+ * A file is mapped in windows of up to 1 GiB, so files larger than a single
+ * mapping can be read. When a command runs over the end of a window the next
+ * window starts at that command.
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-13-2024
+ */
+public class SemMappedCommandReader implements SemCommandSource {
+    // the command file and its size
+    private FileChannel channel;
+    private long fileSize;
+
+    // the mapped window, the file position of its first byte and the largest
+    // window size
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long windowSize;
+
+    // the window position of the next line, and of the first line of the
+    // command that is being read
+    private int pos;
+    private int commandStart;
+
+    // the line views and the arrays of an insert command and of the other
+    // commands
+    private Line[] lines = new Line[5];
+    private CharSequence[] insertCommand = new CharSequence[5];
+    private CharSequence[] lineCommand = new CharSequence[1];
+
+    // the tokenizer that finds the command word of a line
+    private SemCommandTokenizer tokens = new SemCommandTokenizer();
+
+    // the results of nextLine and readCommand, a line was read, the file
+    // ended, or the window ended within the line or command
+    private static final int LINE = 1;
+    private static final int END = 0;
+    private static final int SHORT = -1;
+
+    // the largest window
+    private static final long MAX_WINDOW = 1L << 30;
+
+    /**
+     * Map the command file
+     *
+     * @param file
+     *            the command file
+     * @throws IOException
+     *             if the file can not be opened or mapped
+     */
+    public SemMappedCommandReader(File file) throws IOException {
+        this(file, MAX_WINDOW);
+    }
+
+
+    /**
+     * Map the command file in windows of the given size
+     *
+     * @param file
+     *            the command file
+     * @param windowSize
+     *            long value of the largest window size (bytes), up to 1 GiB
+     * @throws FileNotFoundException
+     *             if the file does not exist, as for a FileReader
+     * @throws IOException
+     *             if the file can not be opened or mapped
+     */
+    SemMappedCommandReader(File file, long windowSize) throws IOException {
+        this.windowSize = Math.min(windowSize, MAX_WINDOW);
+        try {
+            channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.READ);
+        }
+        catch (NoSuchFileException e) {
+            throw new FileNotFoundException(file.getPath());
+        }
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = new Line();
+            insertCommand[i] = lines[i];
+        }
+        lineCommand[0] = lines[0];
+        try {
+            fileSize = channel.size();
+            map(0);
+        }
+        catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+
+    /**
+     * Read the next command
+     *
+     * @return the lines of the next command, five lines for an insert command
+     *         and one line otherwise, or null after the last command. The
+     *         lines and the array are valid until the next call.
+     * @throws IOException
+     *             if the file can not be read or it ends within an insert
+     *             command
+     */
+    public CharSequence[] next() throws IOException {
+        if (window == null) {
+            return null;
+        }
+        int result = readCommand();
+        while (result == SHORT) {
+            // read the command again from the start of a window at it
+            long start = windowStart + commandStart;
+            if (start == windowStart) {
+                throw new IOException("Command at " + start
+                    + " is larger than the mapped window");
+            }
+            map(start);
+            result = readCommand();
+        }
+        if (result == END) {
+            return null;
+        }
+        return result == 5 ? insertCommand : lineCommand;
+    }
+
+
+    /**
+     * Unmap the command file and close it
+     *
+     * @throws IOException
+     *             if the file can not be closed
+     */
+    public void close() throws IOException {
+        if (window != null) {
+            unmap(window);
+            window = null;
+        }
+        channel.close();
+    }
+
+
+    // map the window that starts at the given file position
+    private void map(long start) throws IOException {
+        MappedByteBuffer old = window;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(
+            windowSize, fileSize - start));
+        windowStart = start;
+        pos = 0;
+        if (old != null) {
+            unmap(old);
+        }
+    }
+
+
+    // unmap a window, the views are cleared first so that none of them
+    // reads the unmapped bytes
+    private void unmap(MappedByteBuffer old) {
+        for (Line line : lines) {
+            line.set(null, 0, 0, true);
+        }
+        SemOffHeapPoolStorage.free(old);
+    }
+
+
+    // true if the window reaches the end of the file
+    private boolean atLastWindow() {
+        return windowStart + window.limit() >= fileSize;
+    }
+
+
+    // read the lines of the next command, the number of lines, END at the end
+    // of the file or SHORT if the window ends within the command
+    private int readCommand() throws IOException {
+        while (true) {
+            commandStart = pos;
+            int status = nextLine(lines[0]);
+            if (status != LINE) {
+                return status;
+            }
+            tokens.reset(lines[0]).next();
+            if (tokens.wordEquals("insert")) {
+                for (int i = 1; i < lines.length; i++) {
+                    status = nextLine(lines[i]);
+                    if (status == SHORT) {
+                        return SHORT;
+                    }
+                    if (status == END) {
+                        throw new EOFException("Incomplete insert command "
+                            + lines[0].toString().trim());
+                    }
+                }
+                return 5;
+            }
+            else if (tokens.wordEquals("search") || tokens.wordEquals(
+                "delete") || tokens.wordEquals("print")) {
+                return 1;
+            }
+        }
+    }
+
+
+    // read the next line that is not blank into the view, with the line ends
+    // of BufferedReader.readLine (\n, \r or \r\n); LINE, END at the end of the
+    // file or SHORT if the window ends within the line
+    private int nextLine(Line line) {
+        int limit = window.limit();
+        while (true) {
+            if (pos == limit) {
+                return atLastWindow() ? END : SHORT;
+            }
+            int start = pos;
+            int end = pos;
+            boolean ascii = true;
+            boolean blank = true;
+            byte b = 0;
+            while (end < limit) {
+                b = window.get(end);
+                if (b == '\n' || b == '\r') {
+                    break;
+                }
+                ascii &= b >= 0;
+                blank &= (b & 0xFF) <= ' ';
+                end++;
+            }
+            // a \r at the end of the window may be followed by a \n
+            if ((end == limit || (b == '\r' && end + 1 == limit))
+                && !atLastWindow()) {
+                return SHORT;
+            }
+            pos = end;
+            if (end < limit) {
+                pos++;
+                if (b == '\r' && pos < limit && window.get(pos) == '\n') {
+                    pos++;
+                }
+            }
+            if (!blank) {
+                line.set(window, start, end, ascii);
+                return LINE;
+            }
+        }
+    }
+
+
+    /*********** Nested classes ***************/
+    // a line of the mapped bytes, read byte by byte if it is ASCII and
+    // decoded otherwise
+    private static class Line implements CharSequence {
+        private ByteBuffer bytes;
+        private int start;
+        private int length;
+        private String decoded;
+
+        // point the view at the bytes from start to end
+        void set(ByteBuffer window, int from, int end, boolean ascii) {
+            bytes = window;
+            start = from;
+            length = end - from;
+            decoded = null;
+            if (!ascii) {
+                decoded = new String(copy(0, length), Charset
+                    .defaultCharset());
+            }
+        }
+
+
+        public int length() {
+            return decoded != null ? decoded.length() : length;
+        }
+
+
+        public char charAt(int index) {
+            if (decoded != null) {
+                return decoded.charAt(index);
+            }
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return (char)bytes.get(start + index);
+        }
+
+
+        public CharSequence subSequence(int from, int end) {
+            if (decoded != null) {
+                return decoded.substring(from, end);
+            }
+            if (from < 0 || end > length || from > end) {
+                throw new IndexOutOfBoundsException(from);
+            }
+            return new String(copy(from, end), StandardCharsets.ISO_8859_1);
+        }
+
+
+        public String toString() {
+            return subSequence(0, length()).toString();
+        }
+
+
+        // copy the bytes of the line from from to end
+        private byte[] copy(int from, int end) {
+            byte[] copy = new byte[end - from];
+            bytes.get(start + from, copy);
+            return copy;
+        }
+    } /// close nested class Line
+}
@@ -0,0 +1,198 @@
+import student.TestCase;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+
+/**
+ * This class is used to perform testing on SemMappedCommandReader.java class
+ *
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-13-2024
+ */
+public class SemMappedCommandReaderTest extends TestCase {
+    private String file = "insert 1\n\nTitle one\r\n  0610051600 90 10 10 45\r"
+        + "HCI VT\nDescription one\n\n  search 1\nunknown command\n"
+        + "print blocks\n\ndelete   1";
+
+    private File commandFile;
+
+    /**
+     * Set up the command file
+     *
+     * @throws Exception
+     */
+    public void setUp() throws Exception {
+        commandFile = File.createTempFile("commands", ".txt");
+        commandFile.deleteOnExit();
+    }
+
+
+    /**
+     * Delete the command file
+     */
+    public void tearDown() {
+        commandFile.delete();
+    }
+
+
+    // write the command file
+    private void write(String text) throws Exception {
+        try (FileOutputStream out = new FileOutputStream(commandFile)) {
+            out.write(text.getBytes(Charset.defaultCharset()));
+        }
+    }
+
+
+    // read all commands and join them, one command per line
+    private String readAll(SemCommandSource reader) throws Exception {
+        StringBuilder commands = new StringBuilder();
+        CharSequence[] command = reader.next();
+        while (command != null) {
+            commands.append(String.join("|", command)).append("\n");
+            command = reader.next();
+        }
+        assertNull(reader.next());
+        reader.close();
+        return commands.toString();
+    }
+
+
+    /**
+     * Test the commands are the same as those of the stream reader, with
+     * every window size down to a few bytes
+     *
+     * @throws Exception
+     */
+    public void testCommands() throws Exception {
+        write(file);
+        String expected = readAll(new SemCommandReader(new StringReader(
+            file)));
+        assertEquals(expected, readAll(new SemMappedCommandReader(
+            commandFile)));
+        for (int window = 80; window <= file.length(); window++) {
+            assertEquals(expected, readAll(new SemMappedCommandReader(
+                commandFile, window)));
+        }
+    }
+
+
+    /**
+     * Test a line that is not ASCII is decoded
+     *
+     * @throws Exception
+     */
+    public void testDecodedLine() throws Exception {
+        String text = "insert 7\nTitle \u00e9t\u00e9\n0610051600 90 10 10 "
+            + "45\nHCI\nDescription\n";
+        write(text);
+        SemCommandReader streamReader = new SemCommandReader(new FileReader(
+            commandFile));
+        String title = streamReader.next()[1];
+        streamReader.close();
+        SemMappedCommandReader reader = new SemMappedCommandReader(
+            commandFile);
+        CharSequence[] command = reader.next();
+        assertEquals(5, command.length);
+        assertEquals(title, command[1].toString());
+        assertEquals('9', command[2].charAt(11));
+        assertEquals("HCI", command[3].subSequence(0, 3));
+        assertNull(reader.next());
+        reader.close();
+    }
+
+
+    /**
+     * Test a command that is larger than the window
+     *
+     * @throws Exception
+     */
+    public void testCommandLargerThanWindow() throws Exception {
+        write(file);
+        SemMappedCommandReader reader = new SemMappedCommandReader(
+            commandFile, 16);
+        IOException exception = null;
+        try {
+            reader.next();
+        }
+        catch (IOException e) {
+            exception = e;
+        }
+        assertNotNull(exception);
+        assertFalse(exception instanceof EOFException);
+        reader.close();
+    }
+
+
+    /**
+     * Test an empty file, a missing file and a file that ends within an
+     * insert command
+     *
+     * @throws Exception
+     */
+    public void testEndOfFile() throws Exception {
+        write("");
+        assertEquals("", readAll(new SemMappedCommandReader(commandFile)));
+
+        write("search 3\ninsert 2\nTitle\n");
+        SemMappedCommandReader reader = new SemMappedCommandReader(
+            commandFile);
+        assertEquals("search 3", reader.next()[0].toString());
+        Exception exception = null;
+        try {
+            reader.next();
+        }
+        catch (EOFException e) {
+            exception = e;
+        }
+        assertNotNull(exception);
+        reader.close();
+
+        exception = null;
+        try {
+            new SemMappedCommandReader(new File(commandFile.getPath()
+                + ".missing"));
+        }
+        catch (FileNotFoundException e) {
+            exception = e;
+        }
+        assertNotNull(exception);
+    }
+
+
+    /**
+     * Test the processor runs the mapped commands
+     *
+     * @throws Exception
+     */
+    public void testProcessor() throws Exception {
+        write(file);
+        SemCommandProcessor processor = new SemCommandProcessor(512, 4,
+            new SemOptions());
+        SemMappedCommandReader reader = new SemMappedCommandReader(
+            commandFile);
+        systemOut().clearHistory();
+        for (CharSequence[] command = reader.next(); command != null;
+            command = reader.next()) {
+            if (command.length == 5) {
+                processor.processor(command);
+            }
+            else {
+                processor.processor(command[0]);
+            }
+        }
+        reader.close();
+        processor.close();
+        String output = systemOut().getHistory();
+        assertTrue(output.contains("Successfully inserted record with ID 1"));
+        assertTrue(output.contains("Title one"));
+        assertTrue(output.contains("Record with ID 1 successfully deleted"));
+    }
+}
@@ -0,0 +1,112 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Pool storage that keeps the pool in a memory-mapped file. Every arena maps
+ * the range of the file at its pool addresses (FileChannel.map), so the pool
+ * address of a byte is also its position in the file, and growing the pool
+ * maps the next range of the file, which extends the file.
+ * 
+ * The pool bytes survive a restart, the database saves the free blocks and
+ * the hash table next to the pool file (see SemDatabase) and reopens them
+ * without reading the command file again.
+ * 
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ * 
+ * @version 05-04-2024
+ */
+public class SemMappedPoolStorage extends SemOffHeapPoolStorage {
+    private FileChannel channel;
+
+    /**
+     * constructor that maps the first poolSize bytes of the pool file
+     * 
+     * @param poolFile
+     *            the file that holds the pool
+     * @param poolSize
+     *            long value of the memory pool size (bytes)
+     * @param keepContents
+     *            true to keep the bytes of an existing pool file (reopen) and
+     *            false to start with an empty file
+     */
+    public SemMappedPoolStorage(
+        File poolFile,
+        long poolSize,
+        boolean keepContents) {
+        super();
+        try {
+            channel = FileChannel.open(poolFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+            if (!keepContents) {
+                channel.truncate(0);
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        grow(poolSize);
+    }
+
+
+    /**
+     * Map the range of the pool file of an arena
+     * 
+     * @param start
+     *            long value of the pool address of the first byte of the arena
+     * @param size
+     *            integer value of the arena size (bytes)
+     * @return the mapped arena
+     */
+    protected ByteBuffer newSegment(long start, int size) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_WRITE, start, size);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /**
+     * Write the changed bytes of every arena to the pool file
+     */
+    public void force() {
+        for (int i = 0; i < getSegmentCount(); i++) {
+            ((MappedByteBuffer)getSegment(i)).force();
+        }
+    }
+
+
+    /**
+     * Write the arena to the pool file and unmap it
+     * 
+     * @param segment
+     *            the arena to release
+     */
+    protected void releaseSegment(ByteBuffer segment) {
+        ((MappedByteBuffer)segment).force();
+        super.releaseSegment(segment);
+    }
+
+
+    /**
+     * Unmap the arenas and close the pool file, the storage can not be used
+     * afterwards
+     */
+    public void release() {
+        super.release();
+        try {
+            channel.close();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
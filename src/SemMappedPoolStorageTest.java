@@ -0,0 +1,94 @@
+import student.TestCase;
+import java.io.File;
+import java.util.Arrays;
+
+/**
+ * This class is used to perform testing on SemMappedPoolStorage.java class
+ *
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-04-2024
+ */
+public class SemMappedPoolStorageTest extends TestCase {
+    private File poolFile;
+
+    /**
+     * Sets up the tests that follow. In general, used for initialization
+     * 
+     * @throws Exception
+     */
+    public void setUp() throws Exception {
+        poolFile = File.createTempFile("SemMappedPoolStorageTest", ".pool");
+    }
+
+
+    /**
+     * Remove the pool files of the test
+     */
+    public void tearDown() {
+        new File(poolFile.getPath() + ".meta").delete();
+        poolFile.delete();
+    }
+
+
+    /** Test the pool bytes are kept in the pool file */
+    public void testReopenKeepsBytes() {
+        SemMappedPoolStorage storage = new SemMappedPoolStorage(poolFile, 8,
+            false);
+        byte[] data = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 };
+        storage.grow(16);
+        storage.write(4, data, 0, data.length);
+        storage.release();
+        assertEquals(16, poolFile.length());
+
+        storage = new SemMappedPoolStorage(poolFile, 16, true);
+        byte[] retrievedData = new byte[10];
+        storage.read(4, retrievedData, 0, retrievedData.length);
+        assertTrue(Arrays.equals(data, retrievedData));
+        storage.release();
+    }
+
+
+    /**
+     * Test a persistent database is reopened with its records, hash table
+     * and free blocks
+     * 
+     * @throws Exception
+     */
+    public void testReopenDatabase() throws Exception {
+        SemOptions options = SemOptions.parse(new String[] { "--pool=mapped",
+            "--pool-file=" + poolFile.getPath() }, 0);
+        SemDatabase database = new SemDatabase(256, 4, options);
+        String[] keywords = { "Good", "Bad", "Ugly" };
+        for (int id = 1; id <= 3; id++) {
+            database.insert(id, new Seminar(id, "Seminar Title", "2405231000",
+                75, (short)15, (short)33, 125, keywords,
+                "This is a great seminar"));
+        }
+        database.delete(2);
+        database.hashTableDump();
+        database.memoryBlocksDataDump();
+        String before = systemOut().getHistory();
+        database.close();
+        assertTrue(new File(poolFile.getPath() + ".meta").exists());
+
+        systemOut().clearHistory();
+        database = new SemDatabase(256, 4, options);
+        // the saved state is removed while the database is open
+        assertFalse(new File(poolFile.getPath() + ".meta").exists());
+        database.hashTableDump();
+        database.memoryBlocksDataDump();
+        String after = systemOut().getHistory();
+        assertTrue(before.endsWith(after));
+
+        database.search(3);
+        assertTrue(systemOut().getHistory().contains(
+            "Found record with ID 3:"));
+        database.search(2);
+        assertTrue(systemOut().getHistory().contains(
+            "Search FAILED -- There is no record with ID 2"));
+        database.close();
+    }
+}
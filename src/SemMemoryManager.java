@@ -1,9 +1,25 @@
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.Collections;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
 
 /**
+ * Buddy memory manager that stores the serialized seminar records in a
+ * memory pool. The pool bytes are kept by a pool storage, either one on-heap
+ * array that is copied when it grows or a list of arenas that never move, and
+ * the pool addresses are long values so the pool can grow beyond 2 GiB. The
+ * free blocks of every order (block size 2^order) are
+ * tracked in a free block bitmap, in which bit i of order k means that the
+ * block that starts at i * 2^k is free. The buddy of a block is found by
+ * flipping the bit of its size in its start position (start XOR size), so
+ * allocating and freeing a block cost O(log poolSize).
  *
+ * The free block bitmaps are the only allocation state of the pool, a block
+ * that is not free is allocated. The bitmaps are split into pages that are
+ * created when the first block of the page becomes free and dropped when the
+ * last one is allocated, so the orders and pool regions without free blocks
+ * take no memory and the metadata stays well under 1% of the pool.
  *
  * @author Sadath-Mohammed-msadath
  * @author Emadeldin-Abdrabou-emazied
@@ -11,12 +27,14 @@ import java.util.Collections;
  * @version 04-26-2024
  */
 public class SemMemoryManager {
-    private byte[] memoryPool;
-    private boolean[] isAllocated;
-    private int poolSize;
-    private int totalAllocatedSize;
+    private SemPoolStorage memoryPool;
+    private long poolSize;
+    private long totalAllocatedSize;
     private int freeBlocksArraySize;
-    private LinkedList<FreeBlock>[] freeBlocks;
+    private FreeBitmap[] freeBlocks;
+
+    // the stream for the messages, null for System.out
+    private PrintStream out;
 
     /**
      * constructor
@@ -24,25 +42,35 @@ public class SemMemoryManager {
      * @param poolSize
      *            integer value of the memory pool size (bytes)
      */
-    @SuppressWarnings("unchecked")
     public SemMemoryManager(int poolSize) {
-        this.poolSize = poolSize;
-        memoryPool = new byte[poolSize];
-        isAllocated = new boolean[poolSize];
+        this(new SemHeapPoolStorage(poolSize));
+    }
+
+
+    /**
+     * constructor for a memory manager over a given pool storage
+     * 
+     * @param storage
+     *            the pool storage, its capacity is the initial memory pool
+     *            size which is a power of two
+     */
+    public SemMemoryManager(SemPoolStorage storage) {
+        this.poolSize = storage.capacity();
+        memoryPool = storage;
         totalAllocatedSize = 0;
         // free blocks initial size
         freeBlocksArraySize = getIndexOfBlock(poolSize);
 
-        freeBlocks = new LinkedList[freeBlocksArraySize + 1];
-
-        // System.out.println("Free Block array length is: " +
-        // freeBlocks.length);
+        freeBlocks = new FreeBitmap[freeBlocksArraySize + 1];
 
+        // one bitmap per order, the bitmap of order i has a bit for every
+        // block of size 2^i in the pool
         for (int i = 0; i <= freeBlocksArraySize; i++) {
-            freeBlocks[i] = new LinkedList<>();
+            freeBlocks[i] = new FreeBitmap(poolSize >> i);
         }
 
-        freeBlocks[freeBlocksArraySize].add(new FreeBlock(0, poolSize - 1));
+        // the whole pool is one free block at the highest order
+        freeBlocks[freeBlocksArraySize].set(0);
     }
 
 
@@ -62,21 +90,68 @@ public class SemMemoryManager {
     public Handle insert(byte[] space, int size) {
         // Check first if there is sufficient memory for new insertion after
         // calculating the required blockSize
-        int blockSize = calculateBlockSize(size);
+        long start = allocateBlock(calculateBlockSize(size));
+        return store(start, space, size);
+    }
 
+
+    /**
+     * Allocate a free block without storing a record in it yet, the pool is
+     * resized until there is a free block of the given size
+     * 
+     * @param blockSize
+     *            integer value of the block size, a power of two
+     * @return the start of the allocated block
+     */
+    public long allocateBlock(int blockSize) {
         while (poolSize < totalAllocatedSize + blockSize) {
             resizePool();
         }
 
-        FreeBlock block = findFreeBlock(blockSize);
-
-        allocateBlock(block, blockSize);
+        long start = findFreeBlock(blockSize);
 
-        System.arraycopy(space, 0, memoryPool, block.start, size);
+        // the pool may have enough free bytes in total while they are split
+        // into blocks smaller than the requested one
+        while (start < 0) {
+            resizePool();
+            start = findFreeBlock(blockSize);
+        }
 
         totalAllocatedSize += blockSize;
+        return start;
+    }
+
 
-        return new Handle(block.start, size);
+    /**
+     * Store a record in a block that allocateBlock returned
+     * 
+     * @param start
+     *            long value of the start of the block
+     * @param space
+     *            byte[] the serialized version of seminar object as byte array
+     * @param size
+     *            the length of the seminar object, the block size must be
+     *            calculateBlockSize(size) so that remove frees the block
+     * @return Handle handle object of the stored record
+     */
+    public Handle store(long start, byte[] space, int size) {
+        memoryPool.write(start, space, 0, size);
+        return new Handle(start, size);
+    }
+
+
+    /**
+     * Free a block that allocateBlock returned, it merges with its free
+     * buddies
+     * 
+     * @param start
+     *            long value of the start of the block
+     * @param blockSize
+     *            integer value of the block size, a power of two
+     */
+    public void freeBlock(long start, int blockSize) {
+        totalAllocatedSize -= blockSize;
+        mergeFreeBlocks(start, getIndexOfBlock(blockSize));
     }
 
 
@@ -84,86 +159,112 @@ public class SemMemoryManager {
     // Helper methods for insertion
     /*******************************/
 
-    // method to get the index of a free block in the free blocks array
-    private int getIndexOfBlock(int bSize) {
-        return (int)(Math.log(bSize) / Math.log(2));
+    // method to get the index of a free block in the free blocks array, i.e.,
+    // the order of a block size that is a power of two
+    private int getIndexOfBlock(long bSize) {
+        return 63 - Long.numberOfLeadingZeros(bSize);
     }
 
 
     // resize pool
     /** Resize the pool size for insertion that needs more memory space */
-    @SuppressWarnings("unchecked")
     public void resizePool() {
-        int newPoolSize = poolSize * 2;
-        byte[] newMemoryPool = new byte[newPoolSize];
-        boolean[] newIsAllocated = new boolean[newPoolSize];
-
-        // first copy the old free blocks to the new free blocks
-        // then clear the freeBlocks list freeBlocks.clear();
-        LinkedList<FreeBlock>[] oldFreeBlocks =
-            new LinkedList[freeBlocks.length];
+        resizePool(poolSize * 2);
+    }
 
-        for (int i = 0; i < freeBlocks.length; i++) {
-            oldFreeBlocks[i] = new LinkedList<>();
-            oldFreeBlocks[i].addAll(freeBlocks[i]);
 
-            // clear the linked list in the free block cell
-            freeBlocks[i].clear();
+    /**
+     * Make room ahead of a bulk insert, the pool grows once to the size that
+     * holds the given bytes of blocks in addition to the allocated blocks,
+     * instead of doubling once per insert that does not fit. An insert can
+     * still resize the pool if the free bytes are split into blocks that are
+     * too small
+     * 
+     * @param blockBytes
+     *            long value of the total block size of the new records
+     */
+    public void reserve(long blockBytes) {
+        long newPoolSize = poolSize;
+        while (newPoolSize < totalAllocatedSize + blockBytes) {
+            newPoolSize *= 2;
+        }
+        if (newPoolSize > poolSize) {
+            resizePool(newPoolSize);
         }
+    }
 
+
+    // resize the pool to the pool size times a power of two, the pool is
+    // copied once for all the doublings
+    private void resizePool(long newPoolSize) {
         // free blocks new size
         int freeBlocksNewSize = getIndexOfBlock(newPoolSize);
 
-        freeBlocks = new LinkedList[freeBlocksNewSize + 1];
+        FreeBitmap[] newFreeBlocks = new FreeBitmap[freeBlocksNewSize + 1];
 
-        // initialize each cell in the free blocks array with an empty linked
-        // list
+        // the old bitmaps keep their bits and get room for the blocks of the
+        // expanded half, the new highest order starts empty
         for (int k = 0; k <= freeBlocksNewSize; k++) {
-            freeBlocks[k] = new LinkedList<>();
+            if (k < freeBlocks.length) {
+                newFreeBlocks[k] = freeBlocks[k];
+                newFreeBlocks[k].grow(newPoolSize >> k);
+            }
+            else {
+                newFreeBlocks[k] = new FreeBitmap(newPoolSize >> k);
+            }
         }
 
-        // copy back the old contents of free block lists before resizing it
-        for (int j = 0; j < oldFreeBlocks.length; j++) {
-            freeBlocks[j].addAll(oldFreeBlocks[j]);
-            // clear all linked lists in the old free block cell
-            oldFreeBlocks[j].clear();
-        }
-        // instantiate new object to be merged later
-        FreeBlock newExpandedBlock = new FreeBlock(poolSize, newPoolSize - 1);
+        // grow the pool storage, the stored records keep their addresses
+        memoryPool.grow(newPoolSize);
 
-        // System.out.println("Free Block array length is: " +
-        // freeBlocks.length);
-        // Copy existing memory pool and allocation status
-        System.arraycopy(memoryPool, 0, newMemoryPool, 0, poolSize);
-        System.arraycopy(isAllocated, 0, newIsAllocated, 0, poolSize);
+        // the expanded memory blocks to be merged later, one per doubling
+        long expandedBlockStart = poolSize;
 
         // Update class variables
-        memoryPool = newMemoryPool;
-        isAllocated = newIsAllocated;
         poolSize = newPoolSize;
+        freeBlocks = newFreeBlocks;
         freeBlocksArraySize = freeBlocksNewSize;
 
-        // add the expanded memory block to the free block list
-        // the new block size should exist in the earlier cell
-        // System.out.println("The new expanded block size is: "
-        // + newExpandedBlock.size);
-        mergeFreeBlocks(newExpandedBlock);
+        // add the expanded memory blocks to the free block list, the block
+        // of a doubling is as large as the pool before it and merges with
+        // that pool if it is completely free
+        for (; expandedBlockStart < newPoolSize; expandedBlockStart *= 2) {
+            mergeFreeBlocks(expandedBlockStart, getIndexOfBlock(
+                expandedBlockStart));
+        }
 
-        System.out.println("Memory pool expanded to " + poolSize + " bytes");
+        out().println("Memory pool expanded to " + poolSize + " bytes");
     }
 
 
     /**
      * to calculate the current total size of the memory pool
      * 
-     * @return totalAllocatedSize integer value of the current total allocated
+     * @return totalAllocatedSize long value of the current total allocated
      *         size in the pool
      */
-    public int calculateTotalAllocatedSize() {
+    public long calculateTotalAllocatedSize() {
         return totalAllocatedSize;
     }
 
 
+    /**
+     * to calculate the size of the allocation metadata, i.e., the free block
+     * bitmaps of all orders
+     * 
+     * @return metadataSize
+     *         long value of the approximate number of bytes used by the free
+     *         block bitmaps
+     */
+    public long calculateMetadataSize() {
+        long metadataSize = 0;
+        for (int i = 0; i < freeBlocks.length; i++) {
+            metadataSize += freeBlocks[i].memorySize();
+        }
+        return metadataSize;
+    }
+
+
     /**
      * calculate memory block size
      * 
@@ -182,176 +283,54 @@ public class SemMemoryManager {
     }
 
 
-    // Method to find a free block of given size ... in this method we need to
-    // pick up the best fit block that
-    // has size is close to the requested size. Otherwise, split a larger block
-    // if necessary
-    private FreeBlock findFreeBlock(int recordBlockSize) {
-        // System.out.println("First I entered here to find a free block");
-        FreeBlock blockToBeReturned = null;
-// System.out.println("The free block array lenght is: "
-// + freeBlocks.length);
-        for (int i = 0; i < freeBlocks.length; i++) {
-// System.out.println("Did you enter the loop with: "
-// + freeBlocks.length + " iterations?");
-            if (!freeBlocks[i].isEmpty()) {
-// System.out.println(
-// "Did you check the empty condition at cell number: " + i
-// + " in the free block list?"
-// + "The element size in this cell is " + freeBlocks[i]
-// .get(0).size);
-                if (freeBlocks[i].get(0).size == recordBlockSize) {
-// System.out.println(
-// "I entered here to find perfect matched block size");
-                    blockToBeReturned = freeBlocks[i].get(0);
-                    break;
-                }
-                else if (freeBlocks[i].get(0).size > recordBlockSize) {
-                    blockToBeReturned = splitBlock(freeBlocks[i].get(0),
-                        recordBlockSize);
-// System.out.println(
-// "If perfect matched block size not found, I got a return from split block
-// which is: "
-// + blockToBeReturned);
-// System.out.println(
-// "The output block size of split block is: "
-// + blockToBeReturned.size);
-// this.dump();
-                    break;
-                }
-                else {
-                    // do nothing and continue with the loop
-                }
-            } // end of if (freeBlocks[i].size() > 0)
-
-        } // end of the for loop
-
-        return blockToBeReturned;
-    }
-
-
-    // Method to split a larger block into smaller ones that needs to be split
-    // this method works only when the requested
-    // block size is less than the passed block's size
-    private FreeBlock splitBlock(FreeBlock block, int reqBlockSize) {
-        boolean blockRemoved = false;
-        // find the index of the current passed block
-        // to remove it from the free blocks array
-        // find the block and remove it
-        for (int i = 0; i < freeBlocks.length; i++) {
-            if (freeBlocks[i].contains(block)) {
-                blockRemoved = freeBlocks[i].remove(block);
-                break;
+    // Method to find a free block of given size and allocate it. We pick up
+    // the best fit block, which is the free block with the lowest start in the
+    // smallest order that is not less than the requested size, and split it if
+    // it is larger than the requested size. Returns the start of the allocated
+    // block or -1 if there is no block large enough
+    private long findFreeBlock(int recordBlockSize) {
+        int order = getIndexOfBlock(recordBlockSize);
+        for (int i = order; i <= freeBlocksArraySize; i++) {
+            long index = freeBlocks[i].first();
+            if (index >= 0) {
+                freeBlocks[i].clear(index);
+                long start = index << i;
+                splitBlock(start, i, order);
+                return start;
             }
         }
-        // divide the large block into two blocks
-        FreeBlock tempBlock = new FreeBlock(block.start, block.start
-            + reqBlockSize - 1);
-        int startOfNextBlock = tempBlock.end + 1;
-        int bSize = reqBlockSize;
-        while (bSize < block.size) {
-            FreeBlock newBlock = new FreeBlock(startOfNextBlock,
-                startOfNextBlock + bSize - 1);
-            mergeFreeBlocks(newBlock);
-            startOfNextBlock = newBlock.end + 1;
-            bSize *= 2;
-        }
-        return tempBlock;
+        return -1;
     }
 
 
-    // Method to allocate a block
-    private void allocateBlock(FreeBlock block, int blockSize) {
-        if (block.size == blockSize) {
-            // find the block and remove it from free blocks
-            for (int i = 0; i < freeBlocks.length; i++) {
-                if (freeBlocks[i].contains(block)) {
-                    isAllocated[block.start] = freeBlocks[i].remove(block);
-                    break;
-                }
-            }
+    // Method to split a larger block into smaller ones. The lower half is kept
+    // for the requested block and every upper half is added to the free
+    // blocks of its order, its buddy is the lower half, so it never merges
+    private void splitBlock(long start, int blockIndex, int reqIndex) {
+        for (int j = blockIndex - 1; j >= reqIndex; j--) {
+            freeBlocks[j].set((start >> j) + 1);
         }
-
     }
 
 
     /*******************************/
     // Helper methods for removal
     /******************************/
-    // Method to deallocate a block
-    private void deallocateBlock(int start, int size) {
-        int blockSize = calculateBlockSize(size);
-        isAllocated[start] = false;
-
-        // Add the deallocated block to free block
-        FreeBlock block = new FreeBlock(start, start + blockSize - 1);
-
-        // assume that we will add the block to free block at position zero
-        mergeFreeBlocks(block);
-    }
-
-
-    private boolean isBuddy(FreeBlock blockA, FreeBlock blockB) {
-
-        return (blockA.start | blockA.size) == (blockB.start | blockB.size);
-
-    }
-
-
-    private FreeBlock mergeTwoBlocks(FreeBlock blockA, FreeBlock blockB) {
-        if (blockA.end + 1 == blockB.start) {
-            return (new FreeBlock(blockA.start, blockB.end));
-        }
-
-        if (blockB.end + 1 == blockA.start) {
-            return (new FreeBlock(blockB.start, blockA.end));
-        }
-
-        return null;
-    }
-
-
-    private FreeBlock theBuddyBlock(FreeBlock bloc) {
-        // variable declarations
-        int blocIndex = getIndexOfBlock(bloc.size);
-
-        for (FreeBlock b : freeBlocks[blocIndex]) {
-            if (isBuddy(b, bloc)) {
-                // remove separate blocks and return the merged one
-                freeBlocks[blocIndex].remove(b);
-                freeBlocks[blocIndex].remove(bloc);
-                // merge blocks
-                return mergeTwoBlocks(b, bloc);
+    // Method to merge the free block with its free buddies, the buddy of a
+    // block of size 2^index starts at (start XOR 2^index), then the merged
+    // block is added to the free blocks of its order
+    private void mergeFreeBlocks(long start, int index) {
+        while (index < freeBlocksArraySize) {
+            long buddyStart = start ^ (1L << index);
+            if (!freeBlocks[index].get(buddyStart >> index)) {
+                break;
             }
+            // remove the buddy and continue with the merged block
+            freeBlocks[index].clear(buddyStart >> index);
+            start = Math.min(start, buddyStart);
+            index++;
         }
-        return null;
-    }
-
-
-    // Method to merge adjacent free blocks
-    private void mergeFreeBlocks(FreeBlock blk) {
-        // variable declaration
-        int indexOfTheBlock = getIndexOfBlock(blk.size);
-
-        if (freeBlocks[indexOfTheBlock].isEmpty()) {
-            freeBlocks[indexOfTheBlock].add(blk);
-            return;
-        }
-
-        FreeBlock buddyMergedBlock = theBuddyBlock(blk);
-        if (buddyMergedBlock != null) {
-            mergeFreeBlocks(buddyMergedBlock);
-        }
-        // add the block to the freeBlocksArray and sort it based on start
-        // values
-        else {
-            freeBlocks[indexOfTheBlock].add(blk);
-            // then sort to make sure the first element is the first start
-            Collections.sort(freeBlocks[indexOfTheBlock], (fb1, fb2) -> Integer
-                .compare(fb1.start, fb2.start));
-            return;
-        }
-
+        freeBlocks[index].set(start >> index);
     } // end of the mergeBlocks method
 
 
@@ -364,9 +343,72 @@ public class SemMemoryManager {
      *            Handle object of a stored record in the memory pool
      */
     public void remove(Handle theHandle) {
-        int deallocatedBlockSize = calculateBlockSize(theHandle.size);
-        totalAllocatedSize -= deallocatedBlockSize;
-        deallocateBlock(theHandle.start, theHandle.size);
+        freeBlock(theHandle.start, calculateBlockSize(theHandle.size));
+    }
+
+
+    /**
+     * Remove the memory handles of many records in one pass over the pool
+     * from low to high addresses. A freed block that is the lower half of its
+     * parent waits until the pass reaches the upper half, so the blocks freed
+     * in the pass merge with each other before they are added to the free
+     * blocks, and every merged block is added once
+     * 
+     * @param packedHandles
+     *            the packed handles of stored records in increasing order,
+     *            which is the order of their start
+     * @param count
+     *            integer value of the number of handles to remove
+     */
+    public void removeAll(long[] packedHandles, int count) {
+        // the waiting lower halves, each one inside the upper half of the
+        // one before, so there is at most one per order
+        long[] waitingStarts = new long[freeBlocksArraySize + 1];
+        int[] waitingIndexes = new int[freeBlocksArraySize + 1];
+        int waiting = 0;
+        for (int h = 0; h < count; h++) {
+            long start = packedHandles[h] >>> Handle.SIZE_BITS;
+            int blockSize = calculateBlockSize((int)(packedHandles[h]
+                & Handle.MAX_SIZE));
+            int index = getIndexOfBlock(blockSize);
+            totalAllocatedSize -= blockSize;
+            // a waiting block whose upper half ends before this block can
+            // not merge anymore
+            while (waiting > 0 && waitingStarts[waiting - 1] + (2L
+                << waitingIndexes[waiting - 1]) <= start) {
+                waiting--;
+                freeBlocks[waitingIndexes[waiting]].set(
+                    waitingStarts[waiting] >> waitingIndexes[waiting]);
+            }
+            // merge with the buddies that are free or freed in this pass
+            while (index < freeBlocksArraySize) {
+                long buddyStart = start ^ (1L << index);
+                if (waiting > 0 && waitingStarts[waiting - 1] == buddyStart
+                    && waitingIndexes[waiting - 1] == index) {
+                    waiting--;
+                }
+                else if (freeBlocks[index].get(buddyStart >> index)) {
+                    freeBlocks[index].clear(buddyStart >> index);
+                }
+                else {
+                    break;
+                }
+                start = Math.min(start, buddyStart);
+                index++;
+            }
+            if (index < freeBlocksArraySize && (start & (1L << index)) == 0) {
+                waitingStarts[waiting] = start;
+                waitingIndexes[waiting++] = index;
+            }
+            else {
+                freeBlocks[index].set(start >> index);
+            }
+        }
+        while (waiting > 0) {
+            waiting--;
+            freeBlocks[waitingIndexes[waiting]].set(
+                waitingStarts[waiting] >> waitingIndexes[waiting]);
+        }
     }
 
     /************************************************/
@@ -389,12 +431,30 @@ public class SemMemoryManager {
     }
 
 
+    /**
+     * Set the stream that the messages of the memory manager are printed to
+     * 
+     * @param output
+     *            the stream for the messages, null for System.out
+     */
+    public void setOutput(PrintStream output) {
+        out = output;
+    }
+
+
+    // the stream for the messages, System.out is looked up on every message
+    // so a replaced System.out takes effect
+    private PrintStream out() {
+        return out == null ? System.out : out;
+    }
+
+
     /**
      * get the current memory pool size
      * 
      * @return the poolSize
      */
-    public int getPoolSize() {
+    public long getPoolSize() {
         return poolSize;
     }
 
@@ -420,92 +480,482 @@ public class SemMemoryManager {
      */
     public int get(byte[] space, Handle theHandle, int size) {
         int bytesToCopy = Math.min(size, theHandle.size);
-        System.arraycopy(memoryPool, theHandle.start, space, 0, bytesToCopy);
+        memoryPool.read(theHandle.start, space, 0, bytesToCopy);
         return bytesToCopy;
     }
 
 
+    /*******************************/
+    // Persistence of the allocation state
+    /*******************************/
+    /**
+     * Save the allocation state, i.e., the total allocated size and every
+     * free block, so a memory manager over the same pool bytes can be loaded
+     * again without the records being inserted again
+     * 
+     * @param out
+     *            the output to write the allocation state to
+     * @throws IOException
+     *             from the output
+     */
+    public void save(DataOutput out) throws IOException {
+        out.writeLong(totalAllocatedSize);
+        for (int i = 0; i < freeBlocks.length; i++) {
+            long index = freeBlocks[i].first();
+            while (index >= 0) {
+                out.writeByte(i);
+                out.writeLong(index << i);
+                index = freeBlocks[i].next(index + 1);
+            }
+        }
+        // end of the free blocks
+        out.writeByte(-1);
+    }
+
+
+    /**
+     * Load a memory manager that was saved by save
+     * 
+     * @param storage
+     *            the pool storage that still holds the saved pool bytes
+     * @param in
+     *            the input to read the allocation state from
+     * @return the memory manager with the saved free blocks
+     * @throws IOException
+     *             from the input
+     */
+    public static SemMemoryManager load(SemPoolStorage storage, DataInput in)
+        throws IOException {
+        SemMemoryManager manager = new SemMemoryManager(storage);
+        manager.freeBlocks[manager.freeBlocksArraySize].clear(0);
+        manager.totalAllocatedSize = in.readLong();
+        int index = in.readByte();
+        while (index >= 0) {
+            manager.freeBlocks[index].set(in.readLong() >> index);
+            index = in.readByte();
+        }
+        return manager;
+    }
+
+
+    /**
+     * Save a handle of this memory manager
+     * 
+     * @param out
+     *            the output to write the handle to
+     * @param theHandle
+     *            Handle object of a stored record in the memory pool
+     * @throws IOException
+     *             from the output
+     */
+    public void saveHandle(DataOutput out, Handle theHandle)
+        throws IOException {
+        out.writeLong(theHandle.start);
+        out.writeInt(theHandle.size);
+    }
+
+
+    /**
+     * Load a handle that was saved by saveHandle
+     * 
+     * @param in
+     *            the input to read the handle from
+     * @return the loaded handle
+     * @throws IOException
+     *             from the input
+     */
+    public Handle loadHandle(DataInput in) throws IOException {
+        long start = in.readLong();
+        return new Handle(start, in.readInt());
+    }
+
+
+    /**
+     * Release the memory of the pool storage, the memory manager can not be
+     * used afterwards
+     */
+    public void release() {
+        memoryPool.release();
+    }
+
+
+    /**
+     * Get a read-only view of the stored bytes of a handle without copying
+     * them out of the memory pool. The view is only valid until the record is
+     * removed or the pool is resized
+     * 
+     * @param theHandle
+     *            Handle object the has the start position in the memory pool
+     *            and the size of a record
+     * 
+     * @return a read-only buffer whose position 0 is the first byte of the
+     *         record and whose limit is the record size
+     */
+    public ByteBuffer view(Handle theHandle) {
+        return memoryPool.view(theHandle.start, theHandle.size);
+    }
+
+
     /*********************************/
 
     /** printing the content of free block list in human readable format */
     public void dump() {
-        System.out.println("Freeblock List:");
-        // Print the sorted list
-        // declare list of readings
-        ArrayList<String> listOfReadings = new ArrayList<>();
+        out().println("Freeblock List:");
         boolean isEmptyFreeBlocks = true;
 
         for (int i = 0; i < freeBlocks.length; i++) {
-            if (!freeBlocks[i].isEmpty()) {
-                if (freeBlocks[i].size() > 0) {
-                    isEmptyFreeBlocks = false;
-                    // sort the freeBlocks list based on its start value of each
-                    // object
-                    Collections.sort(freeBlocks[i], (fb1, fb2) -> Integer
-                        .compare(fb1.start, fb2.start));
-                    int l = (int)Math.pow(2, i);
-                    String newReading = l + ":";
-                    for (FreeBlock block : freeBlocks[i]) {
-                        if (block.size == l) {
-                            newReading += " " + block.start;
-                        }
-                    }
-                    listOfReadings.add(newReading);
+            // the bitmap is scanned in increasing start order
+            long index = freeBlocks[i].first();
+            if (index >= 0) {
+                isEmptyFreeBlocks = false;
+                StringBuilder newReading = new StringBuilder();
+                newReading.append(1L << i).append(":");
+                while (index >= 0) {
+                    newReading.append(" ").append(index << i);
+                    index = freeBlocks[i].next(index + 1);
                 }
+                out().println(newReading);
             }
         }
-        for (String newRead : listOfReadings) {
-            System.out.println(newRead);
-        }
 
         if (isEmptyFreeBlocks) {
-            System.out.println("There are no freeblocks in the memory pool");
+            out().println("There are no freeblocks in the memory pool");
         }
     }
 
     /*********************************/
 
     /*********** Nested classes ***************/
-    // private nested class FreeBlock
-    private static class FreeBlock {
-        private int start;
-        private int end;
-        private int size;
+    // private nested class FreeBitmap, a bitmap of the free blocks of one
+    // order. The bits are stored in pages of PAGE_WORDS words that are only
+    // created while they have a set bit, and every page starts with
+    // SUMMARY_WORDS words that tell which of its words have a set bit. The
+    // pages are indexed by summary levels, each bit of a level tells if the
+    // matching page (or word of the level below) has any set bit, so the
+    // lowest free block is found in O(log64 n) steps
+    private static class FreeBitmap {
+        private static final int PAGE_SHIFT = 14;
+        private static final int PAGE_WORDS = 1 << (PAGE_SHIFT - 6);
+        private static final int SUMMARY_WORDS = PAGE_WORDS >>> 6;
+        private long[][] pages;
+        private long[][] levels;
+        private long bits;
+
+        FreeBitmap(long bits) {
+            this.bits = bits;
+            pages = new long[(int)((bits - 1) >>> PAGE_SHIFT) + 1][];
+            levels = buildLevels(pages.length);
+        }
 
-        FreeBlock(int start, int end) {
-            this.start = start;
-            this.end = end;
-            this.size = end - start + 1;
+
+        // make the summary levels for the given number of pages, the bits
+        // of the pages that have a set bit are added by the caller
+        private static long[][] buildLevels(int pageCount) {
+            int height = 1;
+            for (int w = (pageCount + 63) >>> 6; w > 1; w = (w + 63) >>> 6) {
+                height++;
+            }
+            long[][] lvls = new long[height][];
+            int w = (pageCount + 63) >>> 6;
+            for (int l = 0; l < height; l++) {
+                lvls[l] = new long[w];
+                w = (w + 63) >>> 6;
+            }
+            return lvls;
+        }
+
+
+        boolean get(long i) {
+            long[] page = pages[(int)(i >>> PAGE_SHIFT)];
+            return page != null && (page[SUMMARY_WORDS + ((int)(i >>> 6)
+                & (PAGE_WORDS - 1))] & (1L << i)) != 0;
+        }
+
+
+        void set(long i) {
+            int p = (int)(i >>> PAGE_SHIFT);
+            if (pages[p] == null) {
+                pages[p] = new long[SUMMARY_WORDS + PAGE_WORDS];
+                setLevels(p);
+            }
+            long[] page = pages[p];
+            int w = (int)(i >>> 6) & (PAGE_WORDS - 1);
+            page[SUMMARY_WORDS + w] |= 1L << i;
+            page[w >>> 6] |= 1L << w;
+        }
+
+
+        void clear(long i) {
+            int p = (int)(i >>> PAGE_SHIFT);
+            long[] page = pages[p];
+            if (page == null) {
+                return;
+            }
+            int w = (int)(i >>> 6) & (PAGE_WORDS - 1);
+            page[SUMMARY_WORDS + w] &= ~(1L << i);
+            if (page[SUMMARY_WORDS + w] != 0) {
+                return;
+            }
+            page[w >>> 6] &= ~(1L << w);
+            for (int s = 0; s < SUMMARY_WORDS; s++) {
+                if (page[s] != 0) {
+                    return;
+                }
+            }
+            // the page has no free block left
+            pages[p] = null;
+            clearLevels(p);
         }
-    } /// close nested class FreeBlock
+
+
+        // mark page p as having a set bit in the summary levels
+        private void setLevels(int p) {
+            for (int l = 0; l < levels.length; l++) {
+                int w = p >>> 6;
+                boolean wasEmpty = levels[l][w] == 0;
+                levels[l][w] |= 1L << p;
+                if (!wasEmpty) {
+                    return;
+                }
+                p = w;
+            }
+        }
+
+
+        // mark page p as empty in the summary levels
+        private void clearLevels(int p) {
+            for (int l = 0; l < levels.length; l++) {
+                int w = p >>> 6;
+                levels[l][w] &= ~(1L << p);
+                if (levels[l][w] != 0) {
+                    return;
+                }
+                p = w;
+            }
+        }
+
+
+        // lowest set bit or -1 if the bitmap is empty
+        long first() {
+            return next(0);
+        }
+
+
+        // lowest set bit that is not less than from, or -1 if there is none
+        long next(long from) {
+            if (from >= bits) {
+                return -1;
+            }
+            int p = (int)(from >>> PAGE_SHIFT);
+            if (pages[p] != null) {
+                int found = nextInPage(pages[p], (int)from & ((1
+                    << PAGE_SHIFT) - 1));
+                if (found >= 0) {
+                    return ((long)p << PAGE_SHIFT) + found;
+                }
+            }
+            p = nextPage(p + 1);
+            if (p < 0) {
+                return -1;
+            }
+            return ((long)p << PAGE_SHIFT) + nextInPage(pages[p], 0);
+        }
+
+
+        // lowest set bit of the page that is not less than from, or -1
+        private static int nextInPage(long[] page, int from) {
+            int w = from >>> 6;
+            long word = page[SUMMARY_WORDS + w] & (-1L << from);
+            if (word != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            // use the page summary to skip the words without set bits
+            int nextWord = w + 1;
+            for (int s = nextWord >>> 6; s < SUMMARY_WORDS; s++) {
+                long summary = page[s];
+                if (s == nextWord >>> 6) {
+                    summary &= -1L << nextWord;
+                }
+                if (summary != 0) {
+                    int next = (s << 6) + Long.numberOfTrailingZeros(summary);
+                    return (next << 6) + Long.numberOfTrailingZeros(
+                        page[SUMMARY_WORDS + next]);
+                }
+            }
+            return -1;
+        }
+
+
+        // lowest page that has a set bit and is not less than from, or -1
+        private int nextPage(int from) {
+            if (from >= pages.length) {
+                return -1;
+            }
+            int l = 0;
+            int i = from;
+            // climb up until a word has a set bit at or after position i
+            while (true) {
+                if (l == levels.length) {
+                    return -1;
+                }
+                int w = i >>> 6;
+                if (w >= levels[l].length) {
+                    return -1;
+                }
+                long word = levels[l][w] & (-1L << i);
+                if (word != 0) {
+                    i = (w << 6) + Long.numberOfTrailingZeros(word);
+                    break;
+                }
+                i = w + 1;
+                l++;
+            }
+            // then go down to the lowest set bit below it
+            while (l > 0) {
+                l--;
+                i = (i << 6) + Long.numberOfTrailingZeros(levels[l][i]);
+            }
+            return i;
+        }
+
+
+        // make room for more blocks, the new blocks are not free. Only the
+        // page references are copied, the pages themselves stay in place
+        void grow(long newBits) {
+            long[][] newPages = new long[(int)((newBits - 1) >>> PAGE_SHIFT)
+                + 1][];
+            System.arraycopy(pages, 0, newPages, 0, pages.length);
+            pages = newPages;
+            levels = buildLevels(pages.length);
+            for (int p = 0; p < pages.length; p++) {
+                if (pages[p] != null) {
+                    setLevels(p);
+                }
+            }
+            bits = newBits;
+        }
+
+
+        // approximate number of bytes used by this bitmap
+        long memorySize() {
+            long size = 8L * pages.length;
+            for (int p = 0; p < pages.length; p++) {
+                if (pages[p] != null) {
+                    size += 8L * pages[p].length;
+                }
+            }
+            for (int l = 0; l < levels.length; l++) {
+                size += 8L * levels[l].length;
+            }
+            return size;
+        }
+    } /// close nested class FreeBitmap
 
 
     /**
-     * This public nested class that keeps track of record handles
+     * This public nested class that keeps track of record handles. It does
+     * not refer to its memory manager, and a handle can be packed into one
+     * long value so the hash table can store it without a handle object
      * 
      * @author Sadath-Mohammed-msadath
      * @author Emadeldin-Abdrabou-emazied
      * 
-     * @version 04-20-2024
+     * @version 05-08-2024
      */
-    public class Handle {
-        private int start;
+    public static class Handle {
+        // bits of a packed handle that hold the size, the start is above them
+        private static final int SIZE_BITS = 24;
+
+        // largest start and size that a packed handle can hold
+        private static final long MAX_START = (1L << (63 - SIZE_BITS)) - 1;
+        private static final int MAX_SIZE = (1 << SIZE_BITS) - 1;
+
+        private long start;
         private int size;
 
         /**
          * constructor
          * 
          * @param start
-         *            integer value that refers to the start position of the
-         *            handle stored in the memory block
+         *            long value that refers to the start position of the
+         *            handle stored in the memory block, i.e., the pool address
+         *            that the pool storage splits into its arena and offset
          * @param size
          *            integer value of the handle size, i.e., size of byte array
          *            that store a record contents
          */
-        Handle(int start, int size) {
+        Handle(long start, int size) {
             this.start = start;
             this.size = size;
         }
+
+
+        /**
+         * @return the start position of the record in the memory pool
+         */
+        public long getStart() {
+            return start;
+        }
+
+
+        /**
+         * @return the size of the record in bytes
+         */
+        public int getSize() {
+            return size;
+        }
+
+
+        /**
+         * Pack the handle into one long value, the start in the high bits and
+         * the size in the low 24 bits. A packed handle is never 0 or negative
+         * because a record is never empty
+         * 
+         * @return the packed handle
+         */
+        public long pack() {
+            if (start > MAX_START || size > MAX_SIZE) {
+                throw new IllegalArgumentException("Handle at " + start
+                    + " with size " + size + " can not be packed");
+            }
+            return (start << SIZE_BITS) | size;
+        }
+
+
+        /**
+         * Get the handle of a packed value
+         * 
+         * @param packed
+         *            the value that pack returned
+         * @return the handle
+         */
+        public static Handle unpack(long packed) {
+            return new Handle(packed >>> SIZE_BITS, (int)(packed & MAX_SIZE));
+        }
+
+
+        /**
+         * Two handles are equal if they refer to the same pool block and size
+         * 
+         * @param other
+         *            the object to compare with
+         * @return true if the other object is an equal handle
+         */
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Handle)) {
+                return false;
+            }
+            Handle handle = (Handle)other;
+            return start == handle.start && size == handle.size;
+        }
+
+
+        /** @return the hash code of the handle */
+        @Override
+        public int hashCode() {
+            return Long.hashCode(start) * 31 + size;
+        }
     } /// close nested class Handle
 
 } /// close the outer class SemMemoryManager
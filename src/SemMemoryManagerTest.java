@@ -1,5 +1,6 @@
 import student.TestCase;
 import java.util.Arrays;
+import java.util.Random;
 
 /**
  * This class is used to perform testing on SemMemoryManager.java class
@@ -77,4 +78,173 @@ public class SemMemoryManagerTest extends TestCase {
 
     }
 
+
+    /** Test splitting and merging buddy blocks in the free block list */
+    public void testSplitAndMergeBuddies() {
+        SemMemoryManager memoryManager = new SemMemoryManager(64);
+        byte[] data = { 1, 2, 3, 4, 5 };
+        SemMemoryManager.Handle handle = memoryManager.insert(data,
+            data.length);
+        SemMemoryManager.Handle handleTwo = memoryManager.insert(data,
+            data.length);
+        memoryManager.dump();
+        assertTrue(systemOut().getHistory().contains("16: 16\n32: 32"));
+
+        memoryManager.remove(handle);
+        systemOut().clearHistory();
+        memoryManager.dump();
+        assertTrue(systemOut().getHistory().contains("8: 0\n16: 16\n32: 32"));
+
+        memoryManager.remove(handleTwo);
+        systemOut().clearHistory();
+        memoryManager.dump();
+        assertEquals("Freeblock List:\n64: 0\n", systemOut().getHistory());
+    }
+
+
+    /** Test the allocation metadata stays small compared with the pool */
+    public void testMetadataSize() {
+        SemMemoryManager memoryManager = new SemMemoryManager(1 << 24);
+        byte[] data = new byte[100];
+        SemMemoryManager.Handle[] handles = new SemMemoryManager.Handle[20000];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = memoryManager.insert(data, data.length);
+        }
+        for (int i = 0; i < handles.length; i += 2) {
+            memoryManager.remove(handles[i]);
+        }
+        assertTrue(memoryManager.calculateMetadataSize() < (1 << 24) / 100);
+    }
+
+
+    /** Test a read-only view of a record in the pool */
+    public void testView() {
+        SemMemoryManager memoryManager = new SemMemoryManager(128);
+        byte[] data = { 1, 2, 3, 4, 5 };
+        memoryManager.insert(data, data.length);
+        SemMemoryManager.Handle handle = memoryManager.insert(data, 3);
+        java.nio.ByteBuffer view = memoryManager.view(handle);
+        assertEquals(3, view.remaining());
+        assertEquals(1, view.get(0));
+        assertEquals(3, view.get(2));
+        assertTrue(view.isReadOnly());
+    }
+
+
+    /** Test packing handles into long values */
+    public void testPackHandle() {
+        SemMemoryManager memManager = new SemMemoryManager(64);
+        memManager.insert(new byte[40], 40);
+        SemMemoryManager.Handle handle = memManager.insert(new byte[7], 7);
+        long packed = handle.pack();
+        assertTrue(packed > 0);
+        assertEquals(handle, SemMemoryManager.Handle.unpack(packed));
+
+        SemMemoryManager.Handle large = SemMemoryManager.Handle.unpack(
+            SemMemoryManager.Handle.unpack(123456789L << 24 | 5000).pack());
+        assertEquals(123456789L << 24 | 5000, large.pack());
+    }
+
+
+    /** Test allocating a block and storing a record in it later */
+    public void testAllocateBlock() {
+        SemMemoryManager memManager = new SemMemoryManager(64);
+        long first = memManager.allocateBlock(16);
+        long second = memManager.allocateBlock(16);
+        assertEquals(0, first);
+        assertEquals(16, second);
+        assertEquals(32, memManager.calculateTotalAllocatedSize());
+
+        byte[] record = new byte[12];
+        record[1] = 2;
+        SemMemoryManager.Handle handle = memManager.store(second, record, 12);
+        assertEquals(16, handle.getStart());
+        assertEquals(12, handle.getSize());
+        byte[] copy = new byte[12];
+        memManager.get(copy, handle, 12);
+        assertEquals(2, copy[1]);
+
+        memManager.freeBlock(first, 16);
+        memManager.remove(handle);
+        assertEquals(0, memManager.calculateTotalAllocatedSize());
+        memManager.dump();
+        assertTrue(systemOut().getHistory().contains("64: 0"));
+    }
+
+
+    /** Test reserve grows the pool once for many doublings */
+    public void testReserve() {
+        SemMemoryManager memoryManager = new SemMemoryManager(64);
+        SemMemoryManager.Handle first = memoryManager.insert(new byte[64],
+            64);
+        systemOut().clearHistory();
+        memoryManager.reserve(1000);
+        assertEquals(2048, memoryManager.getPoolSize());
+        assertEquals("Memory pool expanded to 2048 bytes\n", systemOut()
+            .getHistory());
+
+        // the expanded blocks are free and merge back with the first one
+        memoryManager.reserve(1000);
+        assertEquals(2048, memoryManager.getPoolSize());
+        assertEquals(1024, memoryManager.allocateBlock(1024));
+        assertEquals(512, memoryManager.allocateBlock(512));
+        memoryManager.freeBlock(1024, 1024);
+        memoryManager.freeBlock(512, 512);
+        memoryManager.remove(first);
+        assertEquals(0, memoryManager.allocateBlock(2048));
+        assertEquals(2048, memoryManager.getPoolSize());
+    }
+
+
+    // the dump of the free blocks of a memory manager
+    private String dump(SemMemoryManager memoryManager) {
+        systemOut().clearHistory();
+        memoryManager.dump();
+        return systemOut().getHistory();
+    }
+
+
+    /** Test removing many handles in one pass frees the same blocks */
+    public void testRemoveAll() {
+        Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            SemMemoryManager one = new SemMemoryManager(4096);
+            SemMemoryManager all = new SemMemoryManager(4096);
+            SemMemoryManager.Handle[] handles = new SemMemoryManager.Handle[60];
+            SemMemoryManager.Handle[] same = new SemMemoryManager.Handle[60];
+            for (int i = 0; i < handles.length; i++) {
+                int size = 1 + random.nextInt(100);
+                handles[i] = one.insert(new byte[size], size);
+                same[i] = all.insert(new byte[size], size);
+            }
+            // remove a random half, one at a time and all at once
+            long[] removed = new long[handles.length];
+            int count = 0;
+            for (int i = 0; i < handles.length; i++) {
+                if (random.nextBoolean()) {
+                    one.remove(handles[i]);
+                    removed[count++] = same[i].pack();
+                    handles[i] = null;
+                }
+            }
+            Arrays.sort(removed, 0, count);
+            all.removeAll(removed, count);
+            assertEquals(one.calculateTotalAllocatedSize(), all
+                .calculateTotalAllocatedSize());
+            assertEquals(dump(one), dump(all));
+
+            // the rest merges back into one free block
+            count = 0;
+            for (int i = 0; i < handles.length; i++) {
+                if (handles[i] != null) {
+                    removed[count++] = same[i].pack();
+                }
+            }
+            Arrays.sort(removed, 0, count);
+            all.removeAll(removed, count);
+            assertEquals(0, all.calculateTotalAllocatedSize());
+            assertEquals("Freeblock List:\n" + all.getPoolSize() + ": 0\n",
+                dump(all));
+        }
+    }
 }
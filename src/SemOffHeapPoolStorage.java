@@ -0,0 +1,111 @@
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Pool storage that keeps the pool arenas in direct (off-heap) memory. The
+ * pool bytes are not part of the Java heap, so the garbage collector never
+ * scans, promotes or copies them, and a pool of several GiB runs with a
+ * small heap. The pool grows by adding arenas as the segmented storage does.
+ * 
+ * The memory of the arenas is freed by release(). Direct buffers have no
+ * public way to be freed, so release uses the cleaner of the JDK
+ * (sun.misc.Unsafe.invokeCleaner). If the JDK does not offer it, the arenas
+ * are left to the garbage collector, which frees them once they are no
+ * longer referenced.
+ * 
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ * 
+ * @version 05-03-2024
+ */
+public class SemOffHeapPoolStorage extends SemSegmentedPoolStorage {
+    // the Unsafe instance and its invokeCleaner method, null if unavailable
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner",
+                ByteBuffer.class);
+        }
+        catch (Exception e) {
+            // no explicit release, the garbage collector frees the arenas
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    /**
+     * constructor
+     * 
+     * @param poolSize
+     *            long value of the initial memory pool size (bytes)
+     */
+    public SemOffHeapPoolStorage(long poolSize) {
+        super(poolSize);
+    }
+
+
+    /**
+     * constructor for an empty storage, for subclasses that have to set up
+     * their own fields before the first arena is created by grow
+     */
+    protected SemOffHeapPoolStorage() {
+        super();
+    }
+
+
+    /**
+     * Create a direct memory arena
+     * 
+     * @param start
+     *            long value of the pool address of the first byte of the arena
+     * @param size
+     *            integer value of the arena size (bytes)
+     * @return a new zero filled direct buffer of the given size
+     */
+    protected ByteBuffer newSegment(long start, int size) {
+        return ByteBuffer.allocateDirect(size);
+    }
+
+
+    /**
+     * Free the memory of a direct arena
+     * 
+     * @param segment
+     *            the arena to release
+     */
+    protected void releaseSegment(ByteBuffer segment) {
+        free(segment);
+    }
+
+
+    /**
+     * Free the memory of a direct or mapped buffer with the cleaner of the
+     * JDK, or leave it to the garbage collector if there is no cleaner. The
+     * buffer must not be used afterwards.
+     * 
+     * @param buffer
+     *            the direct or mapped buffer to free
+     */
+    static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        }
+        catch (Exception e) {
+            // leave the buffer to the garbage collector
+        }
+    }
+}
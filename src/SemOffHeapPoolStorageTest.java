@@ -0,0 +1,52 @@
+import student.TestCase;
+import java.util.Arrays;
+
+/**
+ * This class is used to perform testing on SemOffHeapPoolStorage.java class
+ *
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-03-2024
+ */
+public class SemOffHeapPoolStorageTest extends TestCase {
+    /** Test storing records in direct memory while the pool grows */
+    public void testInsertGetAndGrow() {
+        SemMemoryManager memoryManager = new SemMemoryManager(
+            new SemOffHeapPoolStorage(8));
+        byte[] data = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12 };
+        SemMemoryManager.Handle handle = memoryManager.insert(data,
+            data.length);
+        SemMemoryManager.Handle handleTwo = memoryManager.insert(data, 3);
+        assertEquals(32, memoryManager.getPoolSize());
+
+        byte[] retrievedData = new byte[12];
+        memoryManager.get(retrievedData, handle, retrievedData.length);
+        assertTrue(Arrays.equals(data, retrievedData));
+        byte[] retrievedDataTwo = new byte[3];
+        memoryManager.get(retrievedDataTwo, handleTwo, 3);
+        assertTrue(Arrays.equals(new byte[] { 1, 2, 3 }, retrievedDataTwo));
+    }
+
+
+    /** Test the storage can not be used after it was released */
+    public void testRelease() {
+        SemOffHeapPoolStorage storage = new SemOffHeapPoolStorage(64);
+        byte[] data = { 1, 2, 3 };
+        storage.write(0, data, 0, data.length);
+        storage.release();
+        assertEquals(0, storage.capacity());
+
+        Exception exception = null;
+        try {
+            storage.read(0, data, 0, data.length);
+        }
+        catch (IllegalStateException e) {
+            exception = e;
+        }
+        assertNotNull(exception);
+        // releasing twice does nothing
+        storage.release();
+    }
+}
@@ -0,0 +1,401 @@
+import java.io.File;
+
+/**
+ * The optional settings of the seminar database. The settings are given on
+ * the command line after the three required arguments of SemManager, each in
+ * the form --name=value, for example
+ * 
+ * java SemManager 512 16 commands.txt --pool=segmented
+ * 
+ * Without any option the database behaves exactly as the project specs
+ * describe.
+ * 
+ * --pool=heap|segmented|offheap|mapped
+ * the pool storage of the memory manager. heap keeps the pool in one array
+ * that is copied when the pool doubles (default), segmented adds a new arena
+ * for every growth so the stored bytes never move, offheap keeps the arenas
+ * in direct memory outside the Java heap, mapped keeps the pool in a
+ * memory-mapped file and makes the database persistent.
+ * 
+ * --pool-file=path
+ * the pool file of the mapped pool (default seminar.pool). The database is
+ * saved next to it (path.meta) when the program ends, and the next run with
+ * the same pool file starts from the saved database.
+ * 
+ * --codec=standard|compact
+ * the form of the stored records. standard is the canonical form of
+ * Seminar.serialize (default), compact is the smaller form of
+ * SemRecordCodec. The record sizes that insert prints depend on the form.
+ * 
+ * --rehash=full|incremental
+ * how the hash table grows. full rehashes all records when the table doubles
+ * (default), incremental moves them a few at a time during the following
+ * inserts and deletes, so no single insert pays for the whole table.
+ * 
+ * --tombstone-limit=percent
+ * the percent of the hash table slots that may be tombstones before the
+ * table is rehashed in place without them (default 100). The table is always
+ * rehashed before an insert would take its last empty slot.
+ * 
+ * --store=single|concurrent
+ * the database behind the commands. single is the database of the project
+ * specs (default). concurrent spreads the records over hash table stripes
+ * with locks of their own (SemConcurrentDatabase), so the sessions of the
+ * server mode run their commands at the same time instead of one after the
+ * other. Its hash table messages are those of one stripe, and it can not be
+ * combined with --shards or the mapped pool.
+ * 
+ * --stripes=count
+ * the number of hash table stripes of the concurrent store, a power of two
+ * up to 1024 (default 16).
+ * 
+ * --block-cache=count
+ * the number of small pool blocks that a thread of the concurrent store
+ * takes from the memory manager or gives back to it at once, 0 turns the
+ * thread caches of free blocks off (default 16). A thread gives its cached
+ * blocks back when its session or the command file ends.
+ * 
+ * --shards=count
+ * split the records over the given number of independent databases, each
+ * with its own memory pool, hash table and worker thread (SemShardedDatabase),
+ * a power of two up to 256. 0 keeps one database (default). The shards can
+ * not be combined with the mapped pool.
+ * 
+ * --input=stream|mapped
+ * how SemManager reads the command file. stream reads it through a character
+ * stream and a reader thread (default), mapped tokenizes the commands
+ * directly in a memory mapping of the file (SemMappedCommandReader).
+ * 
+ * --output=direct|buffered|async
+ * how SemManager prints the messages. direct prints every line to System.out
+ * (default), buffered collects the lines in a large buffer that is written
+ * when it is full and after the last command, async also writes the full
+ * buffers in a writer thread (SemOutputSink). The printed text is the same.
+ * 
+ * --pipeline=workers
+ * parse the insert commands and encode their records in the given number of
+ * worker threads, up to 64, while one executor thread applies the commands
+ * in file order (SemPipeline). 0 runs every command in the main thread
+ * (default).
+ * 
+ * --server=port
+ * after the command file, keep the database and serve the commands sent to
+ * the given port of the loopback address (SemServer) until the program is
+ * stopped, as command lines or as batches of SemBinaryProtocol. 0 ends after
+ * the command file (default).
+ * 
+ * --frontend=selector|sessions
+ * how the server mode serves the clients. selector reads all connections in
+ * one thread with a selector (SemServer, default), sessions runs every
+ * client in a thread of its own, a virtual thread where the JDK has them
+ * (SemSessionServer).
+ * 
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ * 
+ * @version 05-02-2024
+ */
+public class SemOptions {
+    private String poolMode;
+    private File poolFile;
+    private String codec;
+    private boolean incrementalRehash;
+    private int tombstoneLimit = 100;
+    private int stripes = 16;
+    private int blockCache = 16;
+    private int shards;
+    private boolean mappedInput;
+    private String output = "direct";
+    private int pipeline;
+    private int serverPort;
+    private boolean sessionFrontEnd;
+    private boolean concurrentStore;
+
+    /** constructor for the default options */
+    public SemOptions() {
+        poolMode = "heap";
+        poolFile = new File("seminar.pool");
+        codec = "standard";
+    }
+
+
+    /**
+     * Parse the options from the command line arguments
+     * 
+     * @param args
+     *            String array of the command line arguments
+     * @param from
+     *            integer value of the first argument that is an option
+     * @return the parsed options
+     * @throws IllegalArgumentException
+     *             if an option is unknown or has an invalid value
+     */
+    public static SemOptions parse(String[] args, int from) {
+        SemOptions options = new SemOptions();
+        for (int i = from; i < args.length; i++) {
+            String arg = args[i];
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Invalid option " + arg);
+            }
+            options.set(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        if (options.concurrentStore && options.shards > 0) {
+            throw new IllegalArgumentException(
+                "--store=concurrent can not be combined with --shards");
+        }
+        if (options.shards > 0 && options.poolMode.equals("mapped")) {
+            throw new IllegalArgumentException(
+                "--shards can not be combined with --pool=mapped");
+        }
+        if (options.concurrentStore && options.poolMode.equals("mapped")) {
+            throw new IllegalArgumentException(
+                "--store=concurrent can not be combined with --pool=mapped");
+        }
+        return options;
+    }
+
+
+    /**
+     * Set one option
+     * 
+     * @param name
+     *            String name of the option without the leading --
+     * @param value
+     *            String value of the option
+     * @throws IllegalArgumentException
+     *             if the option is unknown or the value is invalid
+     */
+    public void set(String name, String value) {
+        if (name.equals("pool")) {
+            if (!value.equals("heap") && !value.equals("segmented") && !value
+                .equals("offheap") && !value.equals("mapped")) {
+                throw new IllegalArgumentException("Invalid pool " + value);
+            }
+            poolMode = value;
+        }
+        else if (name.equals("pool-file")) {
+            poolFile = new File(value);
+        }
+        else if (name.equals("codec")) {
+            if (!value.equals("standard") && !value.equals("compact")) {
+                throw new IllegalArgumentException("Invalid codec " + value);
+            }
+            codec = value;
+        }
+        else if (name.equals("rehash")) {
+            if (!value.equals("full") && !value.equals("incremental")) {
+                throw new IllegalArgumentException("Invalid rehash " + value);
+            }
+            incrementalRehash = value.equals("incremental");
+        }
+        else if (name.equals("tombstone-limit")) {
+            tombstoneLimit = parseInt(name, value, 1, 100);
+        }
+        else if (name.equals("block-cache")) {
+            blockCache = parseInt(name, value, 0, 4096);
+        }
+        else if (name.equals("shards")) {
+            shards = parseInt(name, value, 0, 256);
+            if (shards > 0 && Integer.bitCount(shards) != 1) {
+                throw new IllegalArgumentException("Invalid " + name + " "
+                    + value);
+            }
+        }
+        else if (name.equals("input")) {
+            if (!value.equals("stream") && !value.equals("mapped")) {
+                throw new IllegalArgumentException("Invalid input " + value);
+            }
+            mappedInput = value.equals("mapped");
+        }
+        else if (name.equals("output")) {
+            if (!value.equals("direct") && !value.equals("buffered") && !value
+                .equals("async")) {
+                throw new IllegalArgumentException("Invalid output " + value);
+            }
+            output = value;
+        }
+        else if (name.equals("pipeline")) {
+            pipeline = parseInt(name, value, 0, 64);
+        }
+        else if (name.equals("server")) {
+            serverPort = parseInt(name, value, 0, 65535);
+        }
+        else if (name.equals("frontend")) {
+            if (!value.equals("selector") && !value.equals("sessions")) {
+                throw new IllegalArgumentException("Invalid frontend "
+                    + value);
+            }
+            sessionFrontEnd = value.equals("sessions");
+        }
+        else if (name.equals("store")) {
+            if (!value.equals("single") && !value.equals("concurrent")) {
+                throw new IllegalArgumentException("Invalid store " + value);
+            }
+            concurrentStore = value.equals("concurrent");
+        }
+        else if (name.equals("stripes")) {
+            stripes = parseInt(name, value, 1, 1024);
+            if (Integer.bitCount(stripes) != 1) {
+                throw new IllegalArgumentException("Invalid " + name + " "
+                    + value);
+            }
+        }
+        else {
+            throw new IllegalArgumentException("Unknown option --" + name);
+        }
+    }
+
+
+    /**
+     * @return the pool storage mode (heap, segmented, offheap or mapped)
+     */
+    public String getPoolMode() {
+        return poolMode;
+    }
+
+
+    /**
+     * @return the pool file of the mapped pool
+     */
+    public File getPoolFile() {
+        return poolFile;
+    }
+
+
+    /**
+     * @return the record codec (standard or compact)
+     */
+    public String getCodec() {
+        return codec;
+    }
+
+
+    /**
+     * @return true if the hash table moves its records a few at a time when
+     *         it grows
+     */
+    public boolean isIncrementalRehash() {
+        return incrementalRehash;
+    }
+
+
+    /**
+     * @return the percent of the hash table slots that may be tombstones
+     */
+    public int getTombstoneLimit() {
+        return tombstoneLimit;
+    }
+
+
+    /**
+     * @return the number of hash table stripes of the concurrent database
+     */
+    public int getStripes() {
+        return stripes;
+    }
+
+
+    /**
+     * @return the number of blocks that a thread cache of the concurrent
+     *         database takes or gives back at once, 0 for no caches
+     */
+    public int getBlockCache() {
+        return blockCache;
+    }
+
+
+    /**
+     * @return the number of shards of the sharded database, 0 for one
+     *         database
+     */
+    public int getShards() {
+        return shards;
+    }
+
+
+    /**
+     * @return true if the command file is read from a memory mapping
+     */
+    public boolean isMappedInput() {
+        return mappedInput;
+    }
+
+
+    /**
+     * @return how the messages are printed (direct, buffered or async)
+     */
+    public String getOutput() {
+        return output;
+    }
+
+
+    /**
+     * @return the number of worker threads of the pipeline, 0 for no
+     *         pipeline
+     */
+    public int getPipeline() {
+        return pipeline;
+    }
+
+
+    /**
+     * @return the port of the server mode, 0 for no server
+     */
+    public int getServerPort() {
+        return serverPort;
+    }
+
+
+    /**
+     * @return true if the server mode runs every client in a thread of its
+     *         own
+     */
+    public boolean isSessionFrontEnd() {
+        return sessionFrontEnd;
+    }
+
+
+    /**
+     * @return true if the commands run on the concurrent store
+     */
+    public boolean isConcurrentStore() {
+        return concurrentStore;
+    }
+
+
+    // parse an integer value between the given bounds
+    private static int parseInt(String name, String value, int min, int max) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number >= min && number <= max) {
+                return number;
+            }
+        }
+        catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid " + name + " " + value);
+    }
+
+
+    /**
+     * Create the pool storage for the selected pool mode
+     * 
+     * @param poolSize
+     *            integer value of the initial memory pool size (bytes)
+     * @return a new pool storage with the given capacity
+     */
+    public SemPoolStorage createPoolStorage(int poolSize) {
+        if (poolMode.equals("segmented")) {
+            return new SemSegmentedPoolStorage(poolSize);
+        }
+        if (poolMode.equals("offheap")) {
+            return new SemOffHeapPoolStorage(poolSize);
+        }
+        if (poolMode.equals("mapped")) {
+            return new SemMappedPoolStorage(poolFile, poolSize, false);
+        }
+        return new SemHeapPoolStorage(poolSize);
+    }
+}
@@ -0,0 +1,156 @@
+import student.TestCase;
+
+/**
+ * This class is used to perform testing on SemOptions.java class
+ *
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-02-2024
+ */
+public class SemOptionsTest extends TestCase {
+    /** Test the default options */
+    public void testDefaults() {
+        SemOptions options = SemOptions.parse(new String[] { "8", "8",
+            "commands.txt" }, 3);
+        assertEquals("heap", options.getPoolMode());
+        assertEquals("standard", options.getCodec());
+        assertFalse(options.isIncrementalRehash());
+        assertTrue(options.createPoolStorage(8) instanceof SemHeapPoolStorage);
+    }
+
+
+    /** Test parsing the pool option */
+    public void testPoolOption() {
+        SemOptions options = SemOptions.parse(new String[] {
+            "--pool=segmented" }, 0);
+        assertEquals("segmented", options.getPoolMode());
+        assertTrue(options
+            .createPoolStorage(8) instanceof SemSegmentedPoolStorage);
+
+        options = SemOptions.parse(new String[] { "--pool=offheap" }, 0);
+        assertTrue(options
+            .createPoolStorage(8) instanceof SemOffHeapPoolStorage);
+    }
+
+
+    /** Test parsing the codec option */
+    public void testCodecOption() {
+        SemOptions options = SemOptions.parse(new String[] {
+            "--codec=compact" }, 0);
+        assertEquals("compact", options.getCodec());
+        assertEquals("heap", options.getPoolMode());
+    }
+
+
+    /** Test parsing the rehash option */
+    public void testRehashOption() {
+        SemOptions options = SemOptions.parse(new String[] {
+            "--rehash=incremental" }, 0);
+        assertTrue(options.isIncrementalRehash());
+        options.set("rehash", "full");
+        assertFalse(options.isIncrementalRehash());
+    }
+
+
+    /** Test parsing the tombstone limit option */
+    public void testTombstoneLimitOption() {
+        assertEquals(100, new SemOptions().getTombstoneLimit());
+        SemOptions options = SemOptions.parse(new String[] {
+            "--tombstone-limit=30" }, 0);
+        assertEquals(30, options.getTombstoneLimit());
+    }
+
+
+    /** Test parsing the stripes option */
+    public void testStripesOption() {
+        assertEquals(16, new SemOptions().getStripes());
+        SemOptions options = SemOptions.parse(new String[] { "--stripes=4" },
+            0);
+        assertEquals(4, options.getStripes());
+        assertEquals(16, options.getBlockCache());
+        options.set("block-cache", "0");
+        assertEquals(0, options.getBlockCache());
+    }
+
+
+    /** Test parsing the shards option */
+    public void testShardsOption() {
+        assertEquals(0, new SemOptions().getShards());
+        SemOptions options = SemOptions.parse(new String[] { "--shards=8" },
+            0);
+        assertEquals(8, options.getShards());
+    }
+
+
+    /** Test the input option */
+    public void testInputOption() {
+        assertFalse(new SemOptions().isMappedInput());
+        SemOptions options = SemOptions.parse(new String[] {
+            "--input=mapped" }, 0);
+        assertTrue(options.isMappedInput());
+    }
+
+
+    /** Test the output option */
+    public void testOutputOption() {
+        assertEquals("direct", new SemOptions().getOutput());
+        SemOptions options = SemOptions.parse(new String[] {
+            "--output=async" }, 0);
+        assertEquals("async", options.getOutput());
+    }
+
+
+    /** Test the pipeline option */
+    public void testPipelineOption() {
+        assertEquals(0, new SemOptions().getPipeline());
+        SemOptions options = SemOptions.parse(new String[] {
+            "--pipeline=4" }, 0);
+        assertEquals(4, options.getPipeline());
+    }
+
+
+    /** Test the server option */
+    public void testServerOption() {
+        assertEquals(0, new SemOptions().getServerPort());
+        SemOptions options = SemOptions.parse(new String[] {
+            "--server=7070" }, 0);
+        assertEquals(7070, options.getServerPort());
+    }
+
+
+    /** Test the store option */
+    public void testStoreOption() {
+        assertFalse(new SemOptions().isConcurrentStore());
+        SemOptions options = SemOptions.parse(new String[] {
+            "--store=concurrent", "--stripes=4" }, 0);
+        assertTrue(options.isConcurrentStore());
+        assertEquals(4, options.getStripes());
+    }
+
+
+    /** Test invalid options */
+    public void testInvalidOptions() {
+        String[][] invalid = { { "--pool=disk" }, { "--color=red" }, {
+            "--codec=json" }, { "--rehash=lazy" }, {
+            "--tombstone-limit=0" }, { "--tombstone-limit=ten" }, {
+            "--stripes=6" }, { "--stripes=2048" }, {
+            "--block-cache=-1" }, { "--shards=3" }, {
+            "--input=scanner" }, { "--output=file" }, {
+            "--pipeline=65" }, { "--server=65536" }, { "--store=shared" }, {
+            "--store=concurrent", "--shards=2" }, { "--store=concurrent",
+                "--pool=mapped" }, { "--shards=2", "--pool=mapped" }, {
+                "pool" } };
+        for (String[] args : invalid) {
+            Exception exception = null;
+            try {
+                SemOptions.parse(args, 0);
+            }
+            catch (IllegalArgumentException e) {
+                exception = e;
+            }
+            assertNotNull(exception);
+        }
+    }
+}
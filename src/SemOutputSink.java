@@ -0,0 +1,262 @@
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * An output stream that collects the messages of the database in a large
+ * buffer and writes them to the console a buffer at a time, instead of one
+ * flushed write for every line. The bytes are written in the order they were
+ * given, so the output is the same as without the sink, only later.
+ *
+ * A synchronous sink writes a full buffer to the console in the thread that
+ * filled it. An asynchronous sink hands the full buffer to a writer thread
+ * and goes on with the next buffer, so the console writes overlap with the
+ * command execution. Either way the messages reach the console only when a
+ * buffer is full, on flush or on close, so the sink must be flushed or closed
+ * after the last command. Closing the sink does not close the console.
+ *
+ * A sink is meant to be wrapped in a PrintStream without automatic flushing,
+ * e.g., new PrintStream(sink, false).
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-14-2024
+ */
+public class SemOutputSink extends OutputStream {
+    // the stream that the buffers are written to
+    private OutputStream target;
+
+    // the buffer that is filled and its number of bytes
+    private byte[] buffer;
+    private int count;
+
+    // for an asynchronous sink, the buffers for the writer thread, the
+    // buffers it wrote, the writer thread and the error that it hit
+    private BlockingQueue<Chunk> filled;
+    private BlockingQueue<byte[]> free;
+    private Thread writer;
+    private volatile IOException failure;
+
+    // true after close
+    private boolean closed;
+
+    // the number of buffers of an asynchronous sink
+    private static final int BUFFERS = 4;
+
+    // the queue entry that stops the writer thread
+    private static final Chunk STOP = new Chunk(null, 0, null);
+
+    /**
+     * Create a sink
+     *
+     * @param target
+     *            the stream that the messages are written to
+     * @param bufferSize
+     *            integer value of the buffer size (bytes)
+     * @param async
+     *            true to write the buffers in a writer thread
+     */
+    public SemOutputSink(OutputStream target, int bufferSize, boolean async) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Invalid buffer size "
+                + bufferSize);
+        }
+        this.target = target;
+        buffer = new byte[bufferSize];
+        if (async) {
+            filled = new ArrayBlockingQueue<>(BUFFERS + 2);
+            free = new ArrayBlockingQueue<>(BUFFERS);
+            for (int i = 1; i < BUFFERS; i++) {
+                free.add(new byte[bufferSize]);
+            }
+            writer = new Thread(this::writeChunks, "SemOutputSink");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+
+    /**
+     * Write one byte
+     *
+     * @param b
+     *            the byte in the low 8 bits
+     * @throws IOException
+     *             if the sink is closed or an earlier write failed
+     */
+    public synchronized void write(int b) throws IOException {
+        if (count == buffer.length) {
+            drain();
+        }
+        buffer[count++] = (byte)b;
+    }
+
+
+    /**
+     * Write a range of bytes
+     *
+     * @param bytes
+     *            the bytes to write
+     * @param off
+     *            integer value of the first byte to write
+     * @param len
+     *            integer value of the number of bytes to write
+     * @throws IOException
+     *             if the sink is closed or an earlier write failed
+     */
+    public synchronized void write(byte[] bytes, int off, int len)
+        throws IOException {
+        if (off < 0 || len < 0 || len > bytes.length - off) {
+            throw new IndexOutOfBoundsException(off);
+        }
+        while (len > 0) {
+            if (count == buffer.length) {
+                drain();
+            }
+            int length = Math.min(len, buffer.length - count);
+            System.arraycopy(bytes, off, buffer, count, length);
+            count += length;
+            off += length;
+            len -= length;
+        }
+    }
+
+
+    /**
+     * Write all buffered bytes to the target and flush it, the call returns
+     * after the bytes were written
+     *
+     * @throws IOException
+     *             if the sink is closed or the bytes can not be written
+     */
+    public synchronized void flush() throws IOException {
+        drain();
+        if (writer == null) {
+            target.flush();
+            return;
+        }
+        CountDownLatch done = new CountDownLatch(1);
+        try {
+            filled.put(new Chunk(null, 0, done));
+            done.await();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while flushing");
+        }
+        checkFailure();
+    }
+
+
+    /**
+     * Flush the sink and stop the writer thread, the target stays open
+     *
+     * @throws IOException
+     *             if the bytes can not be written
+     */
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            flush();
+        }
+        finally {
+            closed = true;
+            if (writer != null) {
+                filled.offer(STOP);
+            }
+        }
+    }
+
+
+    // hand the filled buffer to the writer thread, or write it in this thread
+    // for a synchronous sink
+    private void drain() throws IOException {
+        if (closed) {
+            throw new IOException("The output sink is closed");
+        }
+        if (count == 0) {
+            return;
+        }
+        if (writer == null) {
+            target.write(buffer, 0, count);
+            count = 0;
+            return;
+        }
+        checkFailure();
+        try {
+            filled.put(new Chunk(buffer, count, null));
+            buffer = free.take();
+            count = 0;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing");
+        }
+    }
+
+
+    // throw the error of the writer thread
+    private void checkFailure() throws IOException {
+        IOException e = failure;
+        if (e != null) {
+            throw new IOException("The output could not be written", e);
+        }
+    }
+
+
+    // the writer thread, it writes the buffers in the order they were filled
+    // until the sink is closed; after an error the buffers are dropped so
+    // that the filling thread does not block
+    private void writeChunks() {
+        try {
+            Chunk chunk = filled.take();
+            while (chunk != STOP) {
+                try {
+                    if (failure == null) {
+                        if (chunk.done == null) {
+                            target.write(chunk.bytes, 0, chunk.length);
+                        }
+                        else {
+                            target.flush();
+                        }
+                    }
+                }
+                catch (IOException e) {
+                    failure = e;
+                }
+                if (chunk.done == null) {
+                    free.put(chunk.bytes);
+                }
+                else {
+                    chunk.done.countDown();
+                }
+                chunk = filled.take();
+            }
+        }
+        catch (InterruptedException e) {
+            // stopped
+        }
+    }
+
+
+    /*********** Nested classes ***************/
+    // a filled buffer for the writer thread, or a flush request with the
+    // latch that is counted down after the flush
+    private static class Chunk {
+        private final byte[] bytes;
+        private final int length;
+        private final CountDownLatch done;
+
+        Chunk(byte[] bytes, int length, CountDownLatch done) {
+            this.bytes = bytes;
+            this.length = length;
+            this.done = done;
+        }
+    } /// close nested class Chunk
+}
@@ -0,0 +1,139 @@
+import student.TestCase;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * This class is used to perform testing on SemOutputSink.java class
+ *
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-14-2024
+ */
+public class SemOutputSinkTest extends TestCase {
+    // print numbered lines of growing length to the stream
+    private void printLines(PrintStream out) {
+        for (int i = 0; i < 500; i++) {
+            out.println(i + ": " + "x".repeat(i % 40));
+        }
+        out.write('!');
+    }
+
+
+    /**
+     * Test the bytes are written in order, for a synchronous and an
+     * asynchronous sink with buffers smaller and larger than the lines
+     *
+     * @throws Exception
+     */
+    public void testWrite() throws Exception {
+        ByteArrayOutputStream direct = new ByteArrayOutputStream();
+        printLines(new PrintStream(direct, true));
+        for (int size : new int[] { 1, 7, 4096 }) {
+            for (boolean async : new boolean[] { false, true }) {
+                ByteArrayOutputStream target = new ByteArrayOutputStream();
+                SemOutputSink sink = new SemOutputSink(target, size, async);
+                PrintStream out = new PrintStream(sink, false);
+                printLines(out);
+                sink.flush();
+                assertEquals(direct.toString(), target.toString());
+                out.println("after flush");
+                out.close();
+                assertEquals(direct.toString() + "after flush" + System
+                    .lineSeparator(), target.toString());
+            }
+        }
+    }
+
+
+    /**
+     * Test nothing is written before a buffer is full or the sink is
+     * flushed, and a closed sink can not be written to
+     *
+     * @throws Exception
+     */
+    public void testBuffering() throws Exception {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        SemOutputSink sink = new SemOutputSink(target, 8, false);
+        sink.write("1234567".getBytes());
+        assertEquals(0, target.size());
+        sink.write("89".getBytes());
+        assertEquals(8, target.size());
+        sink.close();
+        assertEquals("123456789", target.toString());
+        sink.close();
+
+        Exception exception = null;
+        try {
+            sink.write('x');
+            sink.flush();
+        }
+        catch (IOException e) {
+            exception = e;
+        }
+        assertNotNull(exception);
+
+        exception = null;
+        try {
+            new SemOutputSink(target, 0, false);
+        }
+        catch (IllegalArgumentException e) {
+            exception = e;
+        }
+        assertNotNull(exception);
+    }
+
+
+    /**
+     * Test an error of the writer thread is reported to the caller
+     *
+     * @throws Exception
+     */
+    public void testWriteError() throws Exception {
+        OutputStream broken = new OutputStream() {
+            public void write(int b) throws IOException {
+                throw new IOException("broken");
+            }
+        };
+        SemOutputSink sink = new SemOutputSink(broken, 4, true);
+        Exception exception = null;
+        try {
+            sink.write("0123456789".getBytes());
+            sink.flush();
+        }
+        catch (IOException e) {
+            exception = e;
+        }
+        assertNotNull(exception);
+    }
+
+
+    /**
+     * Test the messages of the processor go through the sink
+     *
+     * @throws Exception
+     */
+    public void testProcessorOutput() throws Exception {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(new SemOutputSink(target, 1 << 16,
+            true), false);
+        SemCommandProcessor processor = new SemCommandProcessor(64, 4);
+        processor.setOutput(out);
+        systemOut().clearHistory();
+        processor.processor(new String[] { "insert 3", "Title",
+            "0610051600 90 10 10 45", "HCI", "Description" });
+        processor.processor("search 4");
+        processor.processor("print blocks");
+        processor.close();
+        out.close();
+        assertEquals("", systemOut().getHistory());
+        String output = target.toString();
+        assertTrue(output.contains("Successfully inserted record with ID 3"));
+        assertTrue(output.contains(
+            "Search FAILED -- There is no record with ID 4"));
+        assertTrue(output.contains("Freeblock List:"));
+    }
+}
@@ -0,0 +1,242 @@
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the commands of a command file in two stages. The insert commands are
+ * parsed into seminars and their records are encoded by a pool of worker
+ * threads, several commands at the same time. One executor thread then
+ * applies the commands to the database through the command processor, in the
+ * order of the command file, so the records are allocated and the messages
+ * printed as if the commands ran one after the other.
+ *
+ * The stages are connected by a bounded queue of the commands in file order.
+ * When the executor falls behind the queue fills up and submit waits, so the
+ * reading and the encoding never run further ahead of the executor than the
+ * queue capacity.
+ *
+ * An error of a command stops the executor, the commands after it are
+ * dropped, and the error is thrown by the next submit or by finish.
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-15-2024
+ */
+public class SemPipeline {
+    // the processor that the executor applies the commands with
+    private SemCommandProcessor processor;
+
+    // true if the records are encoded with the compact codec
+    private boolean compact;
+
+    // the worker threads and the executor thread
+    private ExecutorService workers;
+    private Thread executor;
+
+    // the prepared commands in file order, and the error that stopped the
+    // executor
+    private BlockingQueue<Future<Step>> ordered;
+    private volatile Throwable failure;
+
+    // true after finish
+    private boolean finished;
+
+    // the tokenizer and codec of every worker thread
+    private ThreadLocal<SemCommandTokenizer> tokens = ThreadLocal.withInitial(
+        SemCommandTokenizer::new);
+    private ThreadLocal<SemRecordCodec> codecs = ThreadLocal.withInitial(
+        SemRecordCodec::new);
+
+    // the queue entry that follows the last command
+    private static final Future<Step> END = CompletableFuture.completedFuture(
+        null);
+
+    /**
+     * Start the worker threads and the executor thread
+     *
+     * @param processor
+     *            the processor that applies the commands to the database
+     * @param options
+     *            the options of the database, e.g., the codec
+     * @param workerCount
+     *            integer value of the number of worker threads
+     * @param capacity
+     *            integer value of the number of commands that may wait for
+     *            the executor
+     */
+    public SemPipeline(
+        SemCommandProcessor processor,
+        SemOptions options,
+        int workerCount,
+        int capacity) {
+        if (workerCount < 1 || capacity < 1) {
+            throw new IllegalArgumentException("Invalid pipeline size");
+        }
+        this.processor = processor;
+        compact = options.getCodec().equals("compact");
+        ordered = new ArrayBlockingQueue<>(capacity);
+        AtomicInteger number = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "SemPipeline-"
+                + number.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor = new Thread(this::execute, "SemPipeline-executor");
+        executor.setDaemon(true);
+        executor.start();
+    }
+
+
+    /**
+     * Hand a command to the pipeline, it waits while the queue is full
+     *
+     * @param command
+     *            the lines of the command, five lines for an insert command
+     *            and one line otherwise, they are copied
+     * @throws Exception
+     *             if an earlier command failed
+     */
+    public void submit(CharSequence[] command) throws Exception {
+        checkFailure();
+        if (finished) {
+            throw new IllegalStateException("The pipeline is finished");
+        }
+        String[] lines = new String[command.length];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = command[i].toString();
+        }
+        if (lines.length == 5) {
+            ordered.put(workers.submit(() -> prepare(lines)));
+        }
+        else {
+            ordered.put(CompletableFuture.completedFuture(new Step(lines[0],
+                null, null, 0)));
+        }
+    }
+
+
+    /**
+     * Wait until the executor applied all submitted commands
+     *
+     * @throws Exception
+     *             if a command failed
+     */
+    public void finish() throws Exception {
+        if (!finished) {
+            finished = true;
+            ordered.put(END);
+            executor.join();
+        }
+        checkFailure();
+    }
+
+
+    /**
+     * Stop the threads of the pipeline, the commands that were not applied
+     * yet are dropped
+     */
+    public void close() {
+        finished = true;
+        executor.interrupt();
+        workers.shutdownNow();
+    }
+
+
+    // throw the error that stopped the executor
+    private void checkFailure() throws Exception {
+        Throwable e = failure;
+        if (e instanceof Exception) {
+            throw (Exception)e;
+        }
+        if (e instanceof Error) {
+            throw (Error)e;
+        }
+    }
+
+
+    // the worker stage, parse an insert command and encode its record
+    private Step prepare(String[] lines) throws Exception {
+        Seminar sem = SemCommandProcessor.parseInsert(lines, tokens.get());
+        if (sem == null) {
+            return new Step(null, null, null, 0);
+        }
+        if (!compact) {
+            byte[] record = sem.serialize();
+            return new Step(null, sem, record, record.length);
+        }
+        SemRecordCodec codec = codecs.get();
+        int size = codec.encode(sem);
+        return new Step(null, sem, Arrays.copyOf(codec.getBuffer(), size),
+            size);
+    }
+
+
+    // the executor stage, apply the commands in file order until the end or
+    // an error; after an error the commands are dropped so submit does not
+    // wait forever
+    private void execute() {
+        try {
+            Future<Step> next = ordered.take();
+            while (next != END) {
+                if (failure == null) {
+                    try {
+                        next.get().apply(processor);
+                    }
+                    catch (ExecutionException e) {
+                        failure = e.getCause();
+                    }
+                    catch (InterruptedException e) {
+                        throw e;
+                    }
+                    catch (Exception | Error e) {
+                        failure = e;
+                    }
+                }
+                next = ordered.take();
+            }
+        }
+        catch (InterruptedException e) {
+            // closed
+        }
+        finally {
+            processor.releaseThread();
+        }
+    }
+
+
+    /*********** Nested classes ***************/
+    // a prepared command, a command line, or a parsed insert command with its
+    // record, with no seminar for an invalid insert command
+    private static class Step {
+        private final String line;
+        private final Seminar sem;
+        private final byte[] record;
+        private final int size;
+
+        Step(String line, Seminar sem, byte[] record, int size) {
+            this.line = line;
+            this.sem = sem;
+            this.record = record;
+            this.size = size;
+        }
+
+
+        // apply the command with the processor
+        void apply(SemCommandProcessor processor) throws Exception {
+            if (line != null) {
+                processor.processor(line);
+            }
+            else {
+                processor.insert(sem, record, size);
+            }
+        }
+    } /// close nested class Step
+}
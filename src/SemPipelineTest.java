@@ -0,0 +1,122 @@
+import student.TestCase;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is used to perform testing on SemPipeline.java class
+ *
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-15-2024
+ */
+public class SemPipelineTest extends TestCase {
+    // the commands of the tests, inserts with duplicates, an invalid insert,
+    // deletes, searches and dumps
+    private List<String[]> commands() {
+        List<String[]> commands = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            int id = i % 45;
+            String title = i == 7 ? "x".repeat(81) : "Title " + i;
+            commands.add(new String[] { "insert " + id, title,
+                "0610051600 " + i + " 10 10 45", "HCI VT " + i,
+                "Description " + i });
+            if (i % 5 == 0) {
+                commands.add(new String[] { "delete " + (i / 2) });
+                commands.add(new String[] { "search " + (i / 3) });
+            }
+        }
+        commands.add(new String[] { "print hashtable" });
+        commands.add(new String[] { "print blocks" });
+        return commands;
+    }
+
+
+    // run the commands with a pipeline, or one after the other without, and
+    // return the messages
+    private String run(String[] args, int workers) throws Exception {
+        SemOptions options = SemOptions.parse(args, 0);
+        SemCommandProcessor processor = new SemCommandProcessor(64, 4,
+            options);
+        systemOut().clearHistory();
+        if (workers == 0) {
+            for (String[] command : commands()) {
+                if (command.length == 5) {
+                    processor.processor(command);
+                }
+                else {
+                    processor.processor(command[0]);
+                }
+            }
+        }
+        else {
+            SemPipeline pipeline = new SemPipeline(processor, options,
+                workers, 3);
+            for (String[] command : commands()) {
+                pipeline.submit(command);
+            }
+            pipeline.finish();
+            pipeline.close();
+        }
+        processor.close();
+        return systemOut().getHistory();
+    }
+
+
+    /**
+     * Test the pipeline prints the same messages in the same order as the
+     * commands one after the other, for both codecs
+     *
+     * @throws Exception
+     */
+    public void testSameOutput() throws Exception {
+        for (String codec : new String[] { "standard", "compact" }) {
+            String[] args = { "--codec=" + codec };
+            String expected = run(args, 0);
+            assertTrue(expected.contains("Usage: %> insert"));
+            assertTrue(expected.contains("Insert FAILED"));
+            assertEquals(expected, run(args, 1));
+            assertEquals(expected, run(args, 4));
+        }
+    }
+
+
+    /**
+     * Test an error of a command is thrown and the later commands are
+     * dropped
+     *
+     * @throws Exception
+     */
+    public void testFailure() throws Exception {
+        SemCommandProcessor processor = new SemCommandProcessor(64, 4);
+        SemPipeline pipeline = new SemPipeline(processor, new SemOptions(), 2,
+            2);
+        systemOut().clearHistory();
+        Exception exception = null;
+        try {
+            pipeline.submit(new String[] { "search abc" });
+            for (int i = 0; i < 10; i++) {
+                pipeline.submit(new String[] { "search " + i });
+            }
+            pipeline.finish();
+        }
+        catch (NumberFormatException e) {
+            exception = e;
+        }
+        finally {
+            pipeline.close();
+        }
+        assertNotNull(exception);
+        assertFalse(systemOut().getHistory().contains("Search FAILED"));
+
+        exception = null;
+        try {
+            new SemPipeline(processor, new SemOptions(), 0, 1);
+        }
+        catch (IllegalArgumentException e) {
+            exception = e;
+        }
+        assertNotNull(exception);
+    }
+}
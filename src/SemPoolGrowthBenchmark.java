@@ -0,0 +1,78 @@
+/**
+ * Benchmark that compares the pause of every pool growth of the heap pool
+ * storage, which copies the pool into an array twice the size, with the
+ * segmented pool storage, which adds a new arena and copies nothing.
+ * 
+ * java SemPoolGrowthBenchmark {initial-pool-size} {final-pool-size}
+ * 
+ * Both sizes are powers of two in bytes, the defaults are 1 MiB and 256 MiB.
+ * The heap storage needs about three times the final pool size of heap while
+ * it grows, so give the JVM enough memory with -Xmx.
+ * 
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ * 
+ * @version 05-02-2024
+ */
+public class SemPoolGrowthBenchmark {
+    /**
+     * @param args
+     *            Command line parameters, the initial and the final pool size
+     */
+    public static void main(String[] args) {
+        int initialSize = 1 << 20;
+        long finalSize = 1L << 28;
+        if (args != null && args.length >= 2) {
+            initialSize = Integer.parseInt(args[0]);
+            finalSize = Long.parseLong(args[1]);
+        }
+
+        System.out.println("Growing the pool from " + initialSize + " to "
+            + finalSize + " bytes");
+        // a warm up run of each storage before the measured ones
+        measure(new SemHeapPoolStorage(initialSize), finalSize >> 2, false);
+        measure(new SemSegmentedPoolStorage(initialSize), finalSize >> 2,
+            false);
+
+        System.out.println("heap (copy on double):");
+        if (finalSize > Integer.MAX_VALUE) {
+            System.out.println("  the heap pool can not grow beyond 2 GiB");
+        }
+        else {
+            measure(new SemHeapPoolStorage(initialSize), finalSize, true);
+        }
+        System.out.println("segmented:");
+        measure(new SemSegmentedPoolStorage(initialSize), finalSize, true);
+    }
+
+
+    // double the storage until it reaches the final size and print the
+    // pause of every growth in microseconds
+    private static void measure(
+        SemPoolStorage storage,
+        long finalSize,
+        boolean print) {
+        byte[] marker = { 1, 2, 3, 4, 5, 6, 7, 8 };
+        long total = 0;
+        long max = 0;
+        while (storage.capacity() < finalSize) {
+            long newCapacity = storage.capacity() * 2;
+            long begin = System.nanoTime();
+            storage.grow(newCapacity);
+            long pause = System.nanoTime() - begin;
+            // touch the new half so both storages really have the memory
+            storage.write(newCapacity - marker.length, marker, 0,
+                marker.length);
+            total += pause;
+            max = Math.max(max, pause);
+            if (print) {
+                System.out.println("  " + newCapacity + " bytes: " + pause
+                    / 1000 + " us");
+            }
+        }
+        if (print) {
+            System.out.println("  total " + total / 1000 + " us, longest "
+                + max / 1000 + " us");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+import java.nio.ByteBuffer;
+
+/**
+ * The storage of the memory pool bytes behind the memory manager. The memory
+ * manager decides where a record goes (the buddy blocks), and the storage
+ * only keeps the bytes at their pool addresses. A pool address is a long
+ * value, so a storage may hold pools larger than 2 GiB.
+ * 
+ * When the pool grows, the bytes that are already stored must keep their
+ * addresses, so the handles of the stored records stay valid.
+ * 
+ * The implementations are SemHeapPoolStorage (one on-heap array),
+ * SemSegmentedPoolStorage (on-heap arenas), SemOffHeapPoolStorage (direct
+ * memory arenas outside the Java heap) and SemMappedPoolStorage (arenas
+ * mapped from a file).
+ * 
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ * 
+ * @version 05-02-2024
+ */
+public interface SemPoolStorage {
+
+    /**
+     * @return the number of bytes the storage currently holds
+     */
+    public long capacity();
+
+
+    /**
+     * Grow the storage, the existing bytes keep their addresses and the new
+     * bytes are added at the end of the pool
+     * 
+     * @param newCapacity
+     *            long value of the new pool size (bytes)
+     */
+    public void grow(long newCapacity);
+
+
+    /**
+     * Copy bytes into the pool
+     * 
+     * @param address
+     *            long value of the pool address of the first byte
+     * @param src
+     *            byte array that holds the bytes to copy
+     * @param srcOffset
+     *            integer value of the first byte to copy in src
+     * @param length
+     *            integer value of the number of bytes to copy
+     */
+    public void write(long address, byte[] src, int srcOffset, int length);
+
+
+    /**
+     * Copy bytes out of the pool
+     * 
+     * @param address
+     *            long value of the pool address of the first byte
+     * @param dst
+     *            byte array that receives the bytes
+     * @param dstOffset
+     *            integer value of the first position to fill in dst
+     * @param length
+     *            integer value of the number of bytes to copy
+     */
+    public void read(long address, byte[] dst, int dstOffset, int length);
+
+
+    /**
+     * Get a read-only view of pool bytes without copying them. The view is
+     * only valid until the bytes are changed or the pool grows
+     * 
+     * @param address
+     *            long value of the pool address of the first byte
+     * @param length
+     *            integer value of the number of bytes in the view
+     * @return a read-only buffer whose position 0 is the byte at address and
+     *         whose limit is length
+     */
+    public ByteBuffer view(long address, int length);
+
+
+    /**
+     * Release the memory of the pool, the storage can not be used afterwards.
+     * Storages that keep the pool outside the Java heap free it here instead
+     * of waiting for the garbage collector
+     */
+    public void release();
+}
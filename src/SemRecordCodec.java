@@ -0,0 +1,164 @@
+/**
+ * Compact binary codec for Seminar records, an opt-in alternative to the
+ * canonical Seminar.serialize form (--codec=compact). The canonical form
+ * goes through an ObjectOutputStream, which adds a stream header and block
+ * data framing and needs new streams for every record. The compact form is
+ * one marker byte followed by the length-prefixed fields, written straight
+ * into a buffer that is reused for every record:
+ * 
+ * byte COMPACT_MARKER, int id, UTF title, UTF date, int length, short x,
+ * short y, int cost, int number of keywords, UTF keyword ..., UTF
+ * description
+ * 
+ * where a UTF string is an unsigned short byte count followed by the
+ * modified UTF-8 bytes of the string, as DataOutput.writeUTF writes it. The
+ * fields are the same as in the canonical form without the framing, so a
+ * compact record is a few bytes smaller and SeminarView reads both forms.
+ * 
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ * 
+ * @version 05-07-2024
+ */
+public class SemRecordCodec {
+    /**
+     * first byte of a compact record, the canonical form starts with the
+     * stream header of an ObjectOutputStream (0xAC) instead
+     */
+    public static final byte COMPACT_MARKER = 0x53;
+
+    private byte[] buffer;
+    private int count;
+
+    /** constructor */
+    public SemRecordCodec() {
+        buffer = new byte[256];
+    }
+
+
+    /**
+     * Encode a seminar into the codec buffer, which replaces the previous
+     * record in the buffer
+     * 
+     * @param sem
+     *            Seminar object
+     * @return the number of bytes of the encoded record
+     */
+    public int encode(Seminar sem) {
+        count = 0;
+        writeByte(COMPACT_MARKER);
+        writeInt(sem.getId());
+        writeUTF(sem.getTitle());
+        writeUTF(sem.getDate());
+        writeInt(sem.getLength());
+        writeShort(sem.getX());
+        writeShort(sem.getY());
+        writeInt(sem.getCost());
+        String[] keywords = sem.getKeywords();
+        writeInt(keywords.length);
+        for (String keyword : keywords) {
+            writeUTF(keyword);
+        }
+        writeUTF(sem.getDescription());
+        return count;
+    }
+
+
+    /**
+     * @return the buffer that holds the last encoded record from position 0,
+     *         it is reused by the next encode
+     */
+    public byte[] getBuffer() {
+        return buffer;
+    }
+
+
+    /**
+     * Decode a compact record
+     * 
+     * @param record
+     *            byte array that holds a compact record from position 0
+     * @return the decoded Seminar
+     */
+    public static Seminar decode(byte[] record) {
+        return new SeminarView().bind(java.nio.ByteBuffer.wrap(record))
+            .toSeminar();
+    }
+
+
+    /*******************************/
+    // Helper methods for writing
+    /*******************************/
+
+    // make room for more bytes in the buffer
+    private void ensure(int more) {
+        if (count + more > buffer.length) {
+            byte[] larger = new byte[Math.max(count + more, buffer.length
+                * 2)];
+            System.arraycopy(buffer, 0, larger, 0, count);
+            buffer = larger;
+        }
+    }
+
+
+    private void writeByte(int value) {
+        ensure(1);
+        buffer[count++] = (byte)value;
+    }
+
+
+    private void writeShort(int value) {
+        ensure(2);
+        buffer[count++] = (byte)(value >>> 8);
+        buffer[count++] = (byte)value;
+    }
+
+
+    private void writeInt(int value) {
+        ensure(4);
+        buffer[count++] = (byte)(value >>> 24);
+        buffer[count++] = (byte)(value >>> 16);
+        buffer[count++] = (byte)(value >>> 8);
+        buffer[count++] = (byte)value;
+    }
+
+
+    // write the modified UTF-8 form of a string after its byte count
+    private void writeUTF(String text) {
+        int length = text.length();
+        int utfLength = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                utfLength++;
+            }
+            else if (c <= 0x07FF) {
+                utfLength += 2;
+            }
+            else {
+                utfLength += 3;
+            }
+        }
+        if (utfLength > 0xFFFF) {
+            throw new IllegalArgumentException("String too long: "
+                + utfLength + " bytes");
+        }
+        writeShort(utfLength);
+        ensure(utfLength);
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                buffer[count++] = (byte)c;
+            }
+            else if (c <= 0x07FF) {
+                buffer[count++] = (byte)(0xC0 | ((c >> 6) & 0x1F));
+                buffer[count++] = (byte)(0x80 | (c & 0x3F));
+            }
+            else {
+                buffer[count++] = (byte)(0xE0 | ((c >> 12) & 0x0F));
+                buffer[count++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+                buffer[count++] = (byte)(0x80 | (c & 0x3F));
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+import student.TestCase;
+import java.nio.ByteBuffer;
+
+/**
+ * This class is used to perform testing on SemRecordCodec.java class
+ *
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-07-2024
+ */
+public class SemRecordCodecTest extends TestCase {
+    /**
+     * Test a compact record is smaller and decodes to the same seminar
+     * 
+     * @throws Exception
+     */
+    public void testEncodeDecode() throws Exception {
+        String[] keywords = { "Good", "Bad", "Ugly", "ké€" };
+        Seminar mysem = new Seminar(1729, "Seminar Title", "2405231000", 75,
+            (short)15, (short)33, 125, keywords, "This is a great seminar");
+        SemRecordCodec codec = new SemRecordCodec();
+        int size = codec.encode(mysem);
+        assertTrue(size < mysem.serialize().length);
+        assertEquals(SemRecordCodec.COMPACT_MARKER, codec.getBuffer()[0]);
+
+        byte[] record = new byte[size];
+        System.arraycopy(codec.getBuffer(), 0, record, 0, size);
+        assertEquals(mysem.toString(), SemRecordCodec.decode(record)
+            .toString());
+        SeminarView view = new SeminarView().bind(ByteBuffer.wrap(record));
+        assertEquals(125, view.getCost());
+        assertEquals("ké€", view.getKeyword(3));
+    }
+
+
+    /** Test the buffer is reused and grows for large records */
+    public void testBufferReuse() {
+        SemRecordCodec codec = new SemRecordCodec();
+        String[] manyKeywords = new String[100];
+        for (int i = 0; i < manyKeywords.length; i++) {
+            manyKeywords[i] = "keyword" + i;
+        }
+        Seminar large = new Seminar(1, "t", "d", 1, (short)1, (short)1, 1,
+            manyKeywords, "d");
+        int size = codec.encode(large);
+        assertTrue(size > 256);
+        byte[] buffer = codec.getBuffer();
+
+        String[] keywords = { "k" };
+        Seminar small = new Seminar(2, "t", "d", 1, (short)1, (short)1, 1,
+            keywords, "d");
+        codec.encode(small);
+        assertSame(buffer, codec.getBuffer());
+        assertEquals(2, new SeminarView().bind(ByteBuffer.wrap(codec
+            .getBuffer())).getId());
+    }
+
+
+    /**
+     * Test the database with the compact codec
+     * 
+     * @throws Exception
+     */
+    public void testCompactDatabase() throws Exception {
+        SemOptions options = SemOptions.parse(new String[] {
+            "--codec=compact" }, 0);
+        SemDatabase database = new SemDatabase(64, 4, options);
+        String[] keywords = { "Good", "Bad", "Ugly" };
+        Seminar mysem = new Seminar(1729, "Seminar Title", "2405231000", 75,
+            (short)15, (short)33, 125, keywords, "This is a great seminar");
+        database.insert(1729, mysem);
+        assertTrue(systemOut().getHistory().contains("Size: 90"));
+        database.search(1729);
+        assertTrue(systemOut().getHistory().contains(
+            "Found record with ID 1729:\n" + mysem.toString()));
+    }
+}
@@ -0,0 +1,292 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Pool storage that keeps the pool in a list of on-heap arenas (segments).
+ * Growing the pool adds new arenas for the added bytes, so the stored bytes
+ * never move and there is no copy of the old pool. A pool address is split
+ * into the arena that holds it and the offset inside that arena.
+ * 
+ * The first arena has the initial pool size and every growth adds arenas
+ * that together have the size of the added bytes. When the pool grows one
+ * doubling at a time the arenas are P, P, 2P, 4P ... for an initial size P,
+ * and a growth by several doublings at once (SemMemoryManager.reserve) adds
+ * one arena of all the added bytes, e.g., 3P when the pool grows from P to
+ * 4P. The arenas are found by their start addresses, so their sizes do not
+ * have to follow a sequence. An arena is at most MAX_SEGMENT_SIZE bytes,
+ * larger growth steps add several arenas, so the pool can grow well beyond
+ * 2 GiB.
+ * 
+ * Every arena is a ByteBuffer. The arenas of this class wrap on-heap byte
+ * arrays, subclasses override newSegment to keep the arenas somewhere else,
+ * e.g., in off-heap memory.
+ * 
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ * 
+ * @version 05-02-2024
+ */
+public class SemSegmentedPoolStorage implements SemPoolStorage {
+    /** the largest arena (1 GiB) */
+    public static final int MAX_SEGMENT_SIZE = 1 << 30;
+
+    private ByteBuffer[] segments;
+    // read-only duplicates of the arenas that the views are sliced from
+    private ByteBuffer[] readOnlySegments;
+    // segmentStarts[i] is the pool address of the first byte of segment i
+    private long[] segmentStarts;
+    private int segmentCount;
+    private long capacity;
+
+    /**
+     * constructor
+     * 
+     * @param poolSize
+     *            long value of the initial memory pool size (bytes)
+     */
+    public SemSegmentedPoolStorage(long poolSize) {
+        this();
+        addSegments(poolSize);
+    }
+
+
+    /**
+     * constructor for an empty storage, for subclasses that have to set up
+     * their own fields before the first arena is created by grow
+     */
+    protected SemSegmentedPoolStorage() {
+        segments = new ByteBuffer[8];
+        readOnlySegments = new ByteBuffer[8];
+        segmentStarts = new long[8];
+        segmentCount = 0;
+        capacity = 0;
+    }
+
+
+    /**
+     * Create the arena for the given range of pool addresses
+     * 
+     * @param start
+     *            long value of the pool address of the first byte of the arena
+     * @param size
+     *            integer value of the arena size (bytes)
+     * @return a new zero filled arena of the given size
+     */
+    protected ByteBuffer newSegment(long start, int size) {
+        return ByteBuffer.wrap(new byte[size]);
+    }
+
+
+    /**
+     * @return the number of bytes the storage currently holds
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+
+    /**
+     * @return the number of arenas of the pool
+     */
+    public int getSegmentCount() {
+        return segmentCount;
+    }
+
+
+    /**
+     * Grow the storage by adding arenas for the added bytes
+     * 
+     * @param newCapacity
+     *            long value of the new pool size (bytes)
+     */
+    public void grow(long newCapacity) {
+        checkNotReleased();
+        if (newCapacity > capacity) {
+            addSegments(newCapacity - capacity);
+        }
+    }
+
+
+    // add arenas that hold the given number of bytes at the end of the pool
+    private void addSegments(long bytes) {
+        while (bytes > 0) {
+            int segmentSize = (int)Math.min(bytes, MAX_SEGMENT_SIZE);
+            if (segmentCount == segments.length) {
+                ByteBuffer[] newSegments = new ByteBuffer[segmentCount * 2];
+                ByteBuffer[] newReadOnly = new ByteBuffer[segmentCount * 2];
+                long[] newStarts = new long[segmentCount * 2];
+                System.arraycopy(segments, 0, newSegments, 0, segmentCount);
+                System.arraycopy(readOnlySegments, 0, newReadOnly, 0,
+                    segmentCount);
+                System.arraycopy(segmentStarts, 0, newStarts, 0,
+                    segmentCount);
+                segments = newSegments;
+                readOnlySegments = newReadOnly;
+                segmentStarts = newStarts;
+            }
+            segments[segmentCount] = newSegment(capacity, segmentSize);
+            readOnlySegments[segmentCount] = segments[segmentCount]
+                .asReadOnlyBuffer();
+            segmentStarts[segmentCount] = capacity;
+            segmentCount++;
+            capacity += segmentSize;
+            bytes -= segmentSize;
+        }
+    }
+
+
+    /**
+     * Get one arena of the pool
+     * 
+     * @param index
+     *            integer value of the arena index
+     * @return the arena
+     */
+    protected ByteBuffer getSegment(int index) {
+        checkNotReleased();
+        return segments[index];
+    }
+
+
+    /**
+     * Find the arena that holds a pool address
+     * 
+     * @param address
+     *            long value of a pool address
+     * @return the index of the arena that holds the address
+     */
+    public int segmentOf(long address) {
+        // binary search for the last arena that starts at or before address
+        int low = 0;
+        int high = segmentCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (segmentStarts[mid] <= address) {
+                low = mid;
+            }
+            else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+
+    /**
+     * Copy bytes into the pool, a record that crosses the end of an arena is
+     * split between the arenas
+     * 
+     * @param address
+     *            long value of the pool address of the first byte
+     * @param src
+     *            byte array that holds the bytes to copy
+     * @param srcOffset
+     *            integer value of the first byte to copy in src
+     * @param length
+     *            integer value of the number of bytes to copy
+     */
+    public void write(long address, byte[] src, int srcOffset, int length) {
+        checkNotReleased();
+        int seg = segmentOf(address);
+        while (length > 0) {
+            int offset = (int)(address - segmentStarts[seg]);
+            int count = Math.min(length, segments[seg].capacity() - offset);
+            segments[seg].put(offset, src, srcOffset, count);
+            address += count;
+            srcOffset += count;
+            length -= count;
+            seg++;
+        }
+    }
+
+
+    /**
+     * Copy bytes out of the pool, a record that crosses the end of an arena
+     * is gathered from the arenas
+     * 
+     * @param address
+     *            long value of the pool address of the first byte
+     * @param dst
+     *            byte array that receives the bytes
+     * @param dstOffset
+     *            integer value of the first position to fill in dst
+     * @param length
+     *            integer value of the number of bytes to copy
+     */
+    public void read(long address, byte[] dst, int dstOffset, int length) {
+        checkNotReleased();
+        int seg = segmentOf(address);
+        while (length > 0) {
+            int offset = (int)(address - segmentStarts[seg]);
+            int count = Math.min(length, segments[seg].capacity() - offset);
+            segments[seg].get(offset, dst, dstOffset, count);
+            address += count;
+            dstOffset += count;
+            length -= count;
+            seg++;
+        }
+    }
+
+
+    /**
+     * Get a read-only view of pool bytes. A view inside one arena is a slice
+     * of the arena without copying, the rare record that crosses the end of
+     * an arena is gathered into a new buffer
+     * 
+     * @param address
+     *            long value of the pool address of the first byte
+     * @param length
+     *            integer value of the number of bytes in the view
+     * @return a read-only buffer over the pool bytes
+     */
+    public ByteBuffer view(long address, int length) {
+        checkNotReleased();
+        int seg = segmentOf(address);
+        int offset = (int)(address - segmentStarts[seg]);
+        if (offset + length <= segments[seg].capacity()) {
+            return readOnlySegments[seg].slice(offset, length);
+        }
+        byte[] copy = new byte[length];
+        read(address, copy, 0, length);
+        return ByteBuffer.wrap(copy).asReadOnlyBuffer();
+    }
+
+
+    /**
+     * Release the arenas, the storage can not be used afterwards
+     */
+    public void release() {
+        if (segments == null) {
+            return;
+        }
+        // drop the arenas before they are freed, so any later access fails
+        // with an exception instead of reading freed memory
+        ByteBuffer[] released = segments;
+        int releasedCount = segmentCount;
+        segments = null;
+        readOnlySegments = null;
+        segmentCount = 0;
+        capacity = 0;
+        for (int i = 0; i < releasedCount; i++) {
+            releaseSegment(released[i]);
+        }
+    }
+
+
+    /**
+     * Release one arena, on-heap arenas are left to the garbage collector
+     * 
+     * @param segment
+     *            the arena to release
+     */
+    protected void releaseSegment(ByteBuffer segment) {
+        // nothing to free for an on-heap arena
+    }
+
+
+    // make sure the storage was not released
+    private void checkNotReleased() {
+        if (segments == null) {
+            throw new IllegalStateException("The pool storage was released");
+        }
+    }
+}
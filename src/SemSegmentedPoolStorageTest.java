@@ -0,0 +1,88 @@
+import student.TestCase;
+import java.util.Arrays;
+
+/**
+ * This class is used to perform testing on SemSegmentedPoolStorage.java class
+ *
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-02-2024
+ */
+public class SemSegmentedPoolStorageTest extends TestCase {
+    /** Test growth adds arenas and keeps the stored bytes */
+    public void testGrowKeepsBytes() {
+        SemSegmentedPoolStorage storage = new SemSegmentedPoolStorage(8);
+        byte[] data = { 1, 2, 3, 4, 5, 6, 7, 8 };
+        storage.write(0, data, 0, data.length);
+        storage.grow(16);
+        storage.grow(32);
+        assertEquals(32, storage.capacity());
+        assertEquals(3, storage.getSegmentCount());
+        // several doublings at once add one arena
+        storage.grow(128);
+        assertEquals(4, storage.getSegmentCount());
+        assertEquals(3, storage.segmentOf(127));
+        assertEquals(3, storage.segmentOf(32));
+
+        byte[] retrievedData = new byte[8];
+        storage.read(0, retrievedData, 0, retrievedData.length);
+        assertTrue(Arrays.equals(data, retrievedData));
+    }
+
+
+    /** Test a record that crosses the end of an arena */
+    public void testReadWriteAcrossSegments() {
+        SemSegmentedPoolStorage storage = new SemSegmentedPoolStorage(4);
+        storage.grow(8);
+        storage.grow(16);
+        byte[] data = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12 };
+        storage.write(2, data, 0, data.length);
+
+        assertEquals(0, storage.segmentOf(3));
+        assertEquals(1, storage.segmentOf(4));
+        assertEquals(2, storage.segmentOf(8));
+        assertEquals(2, storage.segmentOf(15));
+
+        byte[] retrievedData = new byte[12];
+        storage.read(2, retrievedData, 0, retrievedData.length);
+        assertTrue(Arrays.equals(data, retrievedData));
+    }
+
+
+    /** Test the memory manager over a segmented pool */
+    public void testMemoryManagerOverSegments() {
+        SemMemoryManager memoryManager = new SemMemoryManager(
+            new SemSegmentedPoolStorage(4));
+        byte[] data = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12 };
+        SemMemoryManager.Handle handle = memoryManager.insert(data,
+            data.length);
+        assertEquals(16, memoryManager.getPoolSize());
+        assertTrue(systemOut().getHistory().contains(
+            "Memory pool expanded to 16 bytes"));
+
+        byte[] retrievedData = new byte[12];
+        memoryManager.get(retrievedData, handle, retrievedData.length);
+        assertTrue(Arrays.equals(data, retrievedData));
+    }
+
+
+    /** Test views inside one arena and across arenas */
+    public void testView() {
+        SemSegmentedPoolStorage storage = new SemSegmentedPoolStorage(4);
+        storage.grow(8);
+        byte[] data = { 1, 2, 3, 4, 5, 6 };
+        storage.write(1, data, 0, data.length);
+
+        java.nio.ByteBuffer inside = storage.view(1, 3);
+        assertEquals(3, inside.remaining());
+        assertEquals(1, inside.get(0));
+        assertEquals(3, inside.get(2));
+
+        java.nio.ByteBuffer across = storage.view(2, 5);
+        assertEquals(5, across.remaining());
+        assertEquals(2, across.get(0));
+        assertEquals(6, across.get(4));
+    }
+}
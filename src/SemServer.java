@@ -0,0 +1,377 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * A server that runs the commands of the command file format sent over TCP
+ * connections, so one long running database serves many jobs. One selector
+ * thread reads the commands of all connections without blocking and runs
+ * them with the shared command processor, one command at a time.
+ *
+ * The protocol is the command file format in UTF-8, and the responses are
+ * those of SemSharedProcessor: the messages of a command followed by a line
+ * with a single dot. A client may send many commands without waiting, the
+ * responses come back in the order of the commands.
+ *
+ * A connection that starts with SemBinaryProtocol.MAGIC sends request frames
+ * of the binary protocol instead, and gets a response frame for every
+ * request frame. A frame that is not well formed closes the connection.
+ *
+ * The responses of a connection are queued until the client reads them. A
+ * connection whose queued responses exceed a limit is not read from until
+ * the client has read them, so a client that does not read can not fill the
+ * memory.
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-18-2024
+ */
+public class SemServer implements SemFrontEnd {
+    // the processor that runs the commands
+    private SemSharedProcessor processor;
+
+    // the selector and the listening channel
+    private Selector selector;
+    private ServerSocketChannel server;
+
+    // the buffer that the connections are read into
+    private ByteBuffer readBuffer = ByteBuffer.allocateDirect(1 << 16);
+
+    // true while serve runs, and after close
+    private boolean serving;
+    private volatile boolean closed;
+
+    // the longest line of the text protocol, and the queued response bytes
+    // of a connection above which it is not read from
+    private static final int MAX_LINE = 1 << 16;
+    private static final int MAX_QUEUED = 1 << 20;
+
+    /**
+     * Open the server
+     *
+     * @param processor
+     *            the shared processor that runs the commands
+     * @param address
+     *            the address to listen on, port 0 for any free port
+     * @throws IOException
+     *             if the address can not be bound
+     */
+    public SemServer(SemSharedProcessor processor, SocketAddress address)
+        throws IOException {
+        this.processor = processor;
+        selector = Selector.open();
+        try {
+            server = ServerSocketChannel.open();
+            server.bind(address);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        }
+        catch (IOException e) {
+            selector.close();
+            if (server != null) {
+                server.close();
+            }
+            throw e;
+        }
+    }
+
+
+    /**
+     * @return the port that the server listens on
+     * @throws IOException
+     *             if the server is closed
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress)server.getLocalAddress()).getPort();
+    }
+
+
+    /**
+     * Serve the connections until the server is closed
+     *
+     * @throws IOException
+     *             if the selector fails
+     */
+    public void serve() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            serving = true;
+        }
+        try {
+            while (!closed) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys()
+                    .iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+            }
+        }
+        catch (ClosedSelectorException e) {
+            // closed
+        }
+        finally {
+            processor.releaseThread();
+            closeChannels();
+        }
+    }
+
+
+    /**
+     * Stop the server, also from another thread, the connections are closed
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            if (!serving) {
+                closeChannels();
+                return;
+            }
+        }
+        selector.wakeup();
+    }
+
+
+    // accept a connection or serve a ready connection
+    private void handle(SelectionKey key) throws IOException {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            SocketChannel channel;
+            try {
+                channel = server.accept();
+            }
+            catch (IOException e) {
+                // e.g., out of file descriptors, the client waits in the
+                // backlog and the accept is tried again
+                return;
+            }
+            if (channel != null) {
+                channel.configureBlocking(false);
+                channel.register(selector, SelectionKey.OP_READ,
+                    new Connection(channel, processor.newSession()));
+            }
+            return;
+        }
+        Connection connection = (Connection)key.attachment();
+        try {
+            if (key.isReadable()) {
+                read(connection);
+            }
+            // the responses are written right away, the rest when the socket
+            // is writable again
+            connection.write();
+            if (connection.isDone()) {
+                key.cancel();
+                connection.channel.close();
+            }
+            else {
+                key.interestOps(connection.interestOps());
+            }
+        }
+        catch (IOException e) {
+            // the client is gone
+            key.cancel();
+            connection.channel.close();
+        }
+    }
+
+
+    // read from a connection and run its complete commands
+    private void read(Connection connection) throws IOException {
+        readBuffer.clear();
+        int count = connection.channel.read(readBuffer);
+        if (count < 0) {
+            // the last line may have no line end, an unfinished frame is
+            // dropped
+            connection.eof = true;
+            if (connection.inCount > 0 && connection.binary != Boolean.TRUE) {
+                line(connection, new String(connection.in, 0,
+                    connection.inCount, StandardCharsets.UTF_8).trim());
+                connection.consume(connection.inCount);
+            }
+            return;
+        }
+        readBuffer.flip();
+        connection.append(readBuffer);
+        if (connection.binary == null && connection.inCount > 0) {
+            // the first byte tells the protocol
+            int first = connection.in[0] & 0xFF;
+            connection.binary = first == SemBinaryProtocol.MAGIC;
+            if (connection.binary) {
+                connection.consume(1);
+            }
+        }
+        if (connection.binary == Boolean.TRUE) {
+            frames(connection);
+            return;
+        }
+        byte[] in = connection.in;
+        int start = 0;
+        for (int i = 0; i < connection.inCount; i++) {
+            if (in[i] == '\n') {
+                int end = i > start && in[i - 1] == '\r' ? i - 1 : i;
+                line(connection, new String(in, start, end - start,
+                    StandardCharsets.UTF_8));
+                start = i + 1;
+            }
+        }
+        connection.consume(start);
+        if (connection.inCount > MAX_LINE) {
+            throw new IOException("Line too long");
+        }
+    }
+
+
+    // run the complete request frames of a binary connection
+    private void frames(Connection connection) throws IOException {
+        int start = 0;
+        while (connection.inCount - start >= 4) {
+            int size = ByteBuffer.wrap(connection.in, start, 4).getInt();
+            if (size < 2 || size > SemBinaryProtocol.MAX_FRAME) {
+                throw new IOException("Invalid frame size " + size);
+            }
+            if (connection.inCount - start - 4 < size) {
+                break;
+            }
+            byte[] frame = Arrays.copyOfRange(connection.in, start + 4, start
+                + 4 + size);
+            try {
+                connection.queue(processor.executeBatch(frame));
+            }
+            catch (IllegalArgumentException e) {
+                throw new IOException("Invalid frame", e);
+            }
+            start += 4 + size;
+        }
+        connection.consume(start);
+    }
+
+
+    // take a line of a connection and queue the response if it has one
+    private void line(Connection connection, String line) {
+        byte[] response = connection.session.line(line);
+        if (response != null) {
+            connection.queue(response);
+        }
+    }
+
+
+    // close the connections and the listening channel
+    private void closeChannels() {
+        try {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        }
+        catch (IOException | ClosedSelectorException e) {
+            // closing anyway
+        }
+        try {
+            server.close();
+        }
+        catch (IOException e) {
+            // closing anyway
+        }
+    }
+
+
+    /*********** Nested classes ***************/
+    // a client connection, the bytes of its unfinished line or frame, its
+    // protocol (null until its first byte), its session and its queued
+    // responses
+    private static class Connection {
+        private final SocketChannel channel;
+        private final SemSharedProcessor.Session session;
+        private byte[] in = new byte[1024];
+        private int inCount;
+        private Boolean binary;
+        private ArrayDeque<ByteBuffer> out = new ArrayDeque<>();
+        private long queued;
+        private boolean eof;
+
+        Connection(SocketChannel channel, SemSharedProcessor.Session session) {
+            this.channel = channel;
+            this.session = session;
+        }
+
+
+        // append the read bytes to the unfinished line
+        void append(ByteBuffer bytes) {
+            int count = bytes.remaining();
+            if (inCount + count > in.length) {
+                byte[] grown = new byte[Math.max(in.length * 2, inCount
+                    + count)];
+                System.arraycopy(in, 0, grown, 0, inCount);
+                in = grown;
+            }
+            bytes.get(in, inCount, count);
+            inCount += count;
+        }
+
+
+        // drop the bytes of the lines that were taken
+        void consume(int count) {
+            System.arraycopy(in, count, in, 0, inCount - count);
+            inCount -= count;
+        }
+
+
+        // queue a response
+        void queue(byte[] response) {
+            out.add(ByteBuffer.wrap(response));
+            queued += response.length;
+        }
+
+
+        // write the queued responses until the socket buffer is full
+        void write() throws IOException {
+            while (!out.isEmpty()) {
+                ByteBuffer head = out.peek();
+                queued -= channel.write(head);
+                if (head.hasRemaining()) {
+                    return;
+                }
+                out.poll();
+            }
+        }
+
+
+        // the events to wait for, read while the queue is short and write
+        // while it is not empty
+        int interestOps() {
+            int ops = 0;
+            if (!eof && queued < MAX_QUEUED) {
+                ops |= SelectionKey.OP_READ;
+            }
+            if (!out.isEmpty()) {
+                ops |= SelectionKey.OP_WRITE;
+            }
+            return ops;
+        }
+
+
+        // true after the client closed its side and all responses were
+        // written
+        boolean isDone() {
+            return eof && out.isEmpty();
+        }
+    } /// close nested class Connection
+}
@@ -0,0 +1,136 @@
+import student.TestCase;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class is used to perform testing on SemServer.java class
+ *
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-16-2024
+ */
+public class SemServerTest extends TestCase {
+    private SemServer server;
+    private Thread serving;
+
+    /**
+     * Start a server on a free loopback port
+     *
+     * @throws Exception
+     */
+    public void setUp() throws Exception {
+        SemCommandProcessor processor = new SemCommandProcessor(64, 4);
+        server = new SemServer(new SemSharedProcessor(processor),
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        serving = new Thread(() -> {
+            try {
+                server.serve();
+            }
+            catch (Exception e) {
+                // ends the test server
+            }
+        });
+        serving.start();
+    }
+
+
+    /**
+     * Stop the server
+     *
+     * @throws Exception
+     */
+    public void tearDown() throws Exception {
+        server.close();
+        serving.join(10000);
+        assertFalse(serving.isAlive());
+    }
+
+
+    // send the text over a new connection in pieces, close the sending side
+    // and read all responses
+    private String send(String text, int piece) throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(),
+            server.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < bytes.length; i += piece) {
+                out.write(bytes, i, Math.min(piece, bytes.length - i));
+                out.flush();
+            }
+            socket.shutdownOutput();
+            InputStream in = socket.getInputStream();
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+
+    // the commands of the tests, one insert and the other commands
+    private String[][] commands = { { "insert 5", "Title", "0610051600 90 10 "
+        + "10 45", "HCI VT", "Description" }, { "search 5" }, {
+            "insert 5", "Again", "0610051600 90 10 10 45", "HCI",
+            "Description" }, { "print hashtable" }, { "delete 5" }, {
+                "search 5" }, { "print blocks" } };
+
+    // the responses of the commands, the messages of a processor and a dot
+    // line for every command
+    private String expected() throws Exception {
+        ByteArrayOutputStream messages = new ByteArrayOutputStream();
+        SemCommandProcessor processor = new SemCommandProcessor(64, 4);
+        processor.setOutput(new PrintStream(messages, true));
+        for (String[] command : commands) {
+            if (command.length == 5) {
+                processor.processor(command);
+            }
+            else {
+                processor.processor(command[0]);
+            }
+            messages.write(".\n".getBytes());
+        }
+        return messages.toString();
+    }
+
+
+    /**
+     * Test pipelined commands are answered in order, also when the bytes
+     * arrive in small pieces
+     *
+     * @throws Exception
+     */
+    public void testCommands() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (String[] command : commands) {
+            text.append("\r\n").append(String.join("\r\n", command));
+        }
+        String responses = send(text + "\n", 1 << 16);
+        assertEquals(expected(), responses);
+
+        // a second connection sees the same database
+        assertEquals("Search FAILED -- There is no record with ID 5\n.\n",
+            send("search 5", 3));
+    }
+
+
+    /**
+     * Test an unknown command and a failing command
+     *
+     * @throws Exception
+     */
+    public void testErrors() throws Exception {
+        String responses = send("hello\nsearch abc\nsearch 1\n", 7);
+        String[] lines = responses.split("\n");
+        assertEquals(".", lines[0]);
+        assertTrue(lines[1].startsWith("Error: "));
+        assertEquals(".", lines[2]);
+        assertEquals("Search FAILED -- There is no record with ID 1",
+            lines[3]);
+        assertEquals(".", lines[4]);
+    }
+}
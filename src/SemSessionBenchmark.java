@@ -0,0 +1,263 @@
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Loopback load test of the servers. A server is started over a database
+ * with records, then the given number of client sessions connect to it, and
+ * each session sends one command, waits for its response and sends the next
+ * one. After the run the commands per second and the 50th and 99th
+ * percentile of the response times are printed for every session count.
+ *
+ * java SemSessionBenchmark {front-end} {sessions} ...
+ *
+ * The front end is sessions (SemSessionServer, a thread per session, virtual
+ * threads where the JDK has them) or selector (SemServer). The defaults are
+ * the sessions front end with 1000 and 10000 sessions. The commands are 95
+ * percent searches, the others delete a record or insert it again. All
+ * clients run in one thread with a selector, so the client side does not
+ * need a thread per session. Every session needs two file descriptors in
+ * this process, so 10000 sessions need an open file limit above 20000.
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-17-2024
+ */
+public class SemSessionBenchmark {
+    // how long every session count runs, in milliseconds
+    private static final long RUN_MILLIS = 5000;
+
+    // the number of records in the database
+    private static final int RECORDS = 10000;
+
+    /**
+     * @param args
+     *            Command line parameters, the front end and the session
+     *            counts
+     * @throws Exception
+     *             if the server fails
+     */
+    public static void main(String[] args) throws Exception {
+        String frontEnd = "sessions";
+        int[] counts = { 1000, 10000 };
+        if (args != null && args.length >= 1) {
+            frontEnd = args[0];
+        }
+        if (args != null && args.length >= 2) {
+            counts = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                counts[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+        for (int sessions : counts) {
+            run(frontEnd, sessions);
+        }
+    }
+
+
+    // run the given number of sessions against a new server and print the
+    // results
+    private static void run(String frontEnd, int sessions) throws Exception {
+        SemCommandProcessor processor = new SemCommandProcessor(1 << 20,
+            1 << 15);
+        SemSharedProcessor shared = new SemSharedProcessor(processor);
+        for (int id = 0; id < RECORDS; id++) {
+            shared.execute(insert(id));
+        }
+
+        InetSocketAddress address = new InetSocketAddress(InetAddress
+            .getLoopbackAddress(), 0);
+        SemFrontEnd server;
+        String kind;
+        if (frontEnd.equals("selector")) {
+            server = new SemServer(shared, address);
+            kind = "selector";
+        }
+        else {
+            SemSessionServer sessionServer = new SemSessionServer(shared,
+                address);
+            server = sessionServer;
+            kind = sessionServer.isVirtual()
+                ? "virtual threads"
+                : "platform threads";
+        }
+        Thread serving = new Thread(() -> {
+            try {
+                server.serve();
+            }
+            catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, "SemSessionBenchmark-server");
+        serving.start();
+
+        try (Selector selector = Selector.open()) {
+            Client[] clients = connect(selector, new InetSocketAddress(
+                InetAddress.getLoopbackAddress(), server.getPort()), sessions);
+            long[] latencies = drive(selector, clients);
+            int count = latencies.length;
+            Arrays.sort(latencies);
+            System.out.println(clients.length + " sessions (" + kind + "): "
+                + count * 1000 / RUN_MILLIS + " commands/s, p50 "
+                + percentile(latencies, 50) / 1000 + " us, p99 "
+                + percentile(latencies, 99) / 1000 + " us");
+            for (Client client : clients) {
+                client.channel.close();
+            }
+        }
+        finally {
+            server.close();
+            serving.join();
+            processor.close();
+        }
+    }
+
+
+    // open the client connections, fewer if the open file limit is reached
+    private static Client[] connect(
+        Selector selector,
+        InetSocketAddress address,
+        int sessions)
+        throws IOException {
+        Client[] clients = new Client[sessions];
+        int count = 0;
+        try {
+            for (; count < sessions; count++) {
+                SocketChannel channel = SocketChannel.open(address);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                channel.configureBlocking(false);
+                clients[count] = new Client(channel);
+                channel.register(selector, SelectionKey.OP_READ,
+                    clients[count]);
+            }
+        }
+        catch (IOException e) {
+            if (count == 0) {
+                throw e;
+            }
+            System.out.println("  only " + count + " sessions connected: "
+                + e.getMessage());
+        }
+        return Arrays.copyOf(clients, count);
+    }
+
+
+    // let every client send commands one after the other for RUN_MILLIS and
+    // return the response times (ns)
+    private static long[] drive(Selector selector, Client[] clients)
+        throws IOException {
+        long[] latencies = new long[1 << 16];
+        int count = 0;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+        long end = System.nanoTime() + RUN_MILLIS * 1000000;
+        for (Client client : clients) {
+            client.send();
+        }
+        while (System.nanoTime() < end) {
+            selector.select(100);
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                Client client = (Client)key.attachment();
+                buffer.clear();
+                if (client.channel.read(buffer) < 0) {
+                    throw new IOException("The server closed a session");
+                }
+                buffer.flip();
+                if (client.received(buffer)) {
+                    long now = System.nanoTime();
+                    if (now < end) {
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = now - client.sentAt;
+                        client.send();
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+
+    // the given percentile of the sorted values
+    private static long percentile(long[] sorted, int percent) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int)Math.ceil(sorted.length * percent / 100.0) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+
+    // the lines of an insert command for the given ID
+    private static String[] insert(int id) {
+        return new String[] { "insert " + id, "Seminar " + id,
+            "2405231000 60 10 20 30", "benchmark sessions",
+            "Benchmark seminar " + id };
+    }
+
+
+    /*********** Nested classes ***************/
+    // one client session, its connection, the time its command was sent and
+    // the state of the scan for the end line of the response
+    private static class Client {
+        private final SocketChannel channel;
+        private long sentAt;
+        private boolean lineStart = true;
+        private boolean dot;
+
+        Client(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+
+        // send the next command, mostly searches
+        void send() throws IOException {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int id = random.nextInt(RECORDS);
+            String command;
+            int kind = random.nextInt(100);
+            if (kind >= 5) {
+                command = "search " + id + "\n";
+            }
+            else if (kind >= 2) {
+                command = "delete " + id + "\n";
+            }
+            else {
+                command = String.join("\n", insert(id)) + "\n";
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(command.getBytes(
+                StandardCharsets.UTF_8));
+            sentAt = System.nanoTime();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+
+
+        // scan the received bytes, true if they end the response with the
+        // dot line
+        boolean received(ByteBuffer bytes) {
+            boolean done = false;
+            while (bytes.hasRemaining()) {
+                byte b = bytes.get();
+                done = dot && b == '\n';
+                dot = lineStart && b == '.';
+                lineStart = b == '\n';
+            }
+            return done;
+        }
+    } /// close nested class Client
+}
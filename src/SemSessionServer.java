@@ -0,0 +1,278 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A server that runs every client session in a thread of its own, with
+ * blocking reads and writes, as the alternative to the selector loop of
+ * SemServer. The protocols and the responses are the same, the text protocol
+ * and the binary protocol of SemBinaryProtocol. The sessions run
+ * their commands through the shared processor, which lets one command run at
+ * a time, or the commands of all sessions at the same time on a thread-safe
+ * store (--store=concurrent).
+ *
+ * The session threads are virtual threads if the JDK has them (Java 21 and
+ * later), so tens of thousands of mostly idle sessions cost little memory.
+ * The project builds for Java 17, so the virtual threads are created through
+ * reflection; on a JDK without them the sessions run in platform threads
+ * with small stacks.
+ *
+ * A session writes its responses when it has read all the commands that the
+ * client sent so far, so a client that sends many commands without waiting
+ * gets their responses in few writes.
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-18-2024
+ */
+public class SemSessionServer implements SemFrontEnd {
+    // the processor that runs the commands
+    private SemSharedProcessor processor;
+
+    // the listening socket and the sockets of the open sessions
+    private ServerSocket server;
+    private Set<Socket> sessions = ConcurrentHashMap.newKeySet();
+
+    // the factory of the session threads, and true if it makes virtual
+    // threads
+    private ThreadFactory threads;
+    private boolean virtual;
+
+    // true after close
+    private volatile boolean closed;
+
+    // the stack size of a platform session thread (bytes)
+    private static final long PLATFORM_STACK = 256 * 1024;
+
+    // the wait after a failed accept (ms)
+    private static final long ACCEPT_PAUSE = 10;
+
+    /**
+     * Open the server
+     *
+     * @param processor
+     *            the shared processor that runs the commands
+     * @param address
+     *            the address to listen on, port 0 for any free port
+     * @throws IOException
+     *             if the address can not be bound
+     */
+    public SemSessionServer(
+        SemSharedProcessor processor,
+        SocketAddress address)
+        throws IOException {
+        this.processor = processor;
+        server = new ServerSocket();
+        try {
+            server.bind(address, 1024);
+        }
+        catch (IOException e) {
+            server.close();
+            throw e;
+        }
+        threads = virtualThreads();
+        virtual = threads != null;
+        if (!virtual) {
+            threads = runnable -> {
+                Thread thread = new Thread(null, runnable, "SemSession",
+                    PLATFORM_STACK);
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+
+
+    // the factory of virtual threads of Thread.ofVirtual, null if the JDK has
+    // no virtual threads
+    private static ThreadFactory virtualThreads() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builderClass.getMethod("name", String.class).invoke(builder,
+                "SemSession");
+            Method factory = builderClass.getMethod("factory");
+            return (ThreadFactory)factory.invoke(builder);
+        }
+        catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+
+    /**
+     * @return the port that the server listens on
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+
+    /**
+     * @return true if the sessions run in virtual threads
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+
+    /**
+     * Accept the clients and start a session thread for every client, until
+     * the server is closed
+     *
+     * @throws IOException
+     *             if the listening socket fails
+     */
+    public void serve() throws IOException {
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = server.accept();
+            }
+            catch (IOException e) {
+                if (closed || server.isClosed()) {
+                    break;
+                }
+                // e.g., out of file descriptors, the client waits in the
+                // backlog until a session ends
+                pause();
+                continue;
+            }
+            sessions.add(socket);
+            if (closed) {
+                socket.close();
+                break;
+            }
+            threads.newThread(() -> session(socket)).start();
+        }
+    }
+
+
+    // wait a moment before the next accept after a failed one
+    private static void pause() {
+        try {
+            Thread.sleep(ACCEPT_PAUSE);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Stop the server, also from another thread, the sessions are closed
+     */
+    public void close() {
+        closed = true;
+        try {
+            server.close();
+        }
+        catch (IOException e) {
+            // closing anyway
+        }
+        for (Socket socket : sessions) {
+            try {
+                socket.close();
+            }
+            catch (IOException e) {
+                // closing anyway
+            }
+        }
+    }
+
+
+    // the session of one client, it runs the commands until the client
+    // closes its side or the server is closed
+    private void session(Socket socket) {
+        try (Socket client = socket) {
+            client.setTcpNoDelay(true);
+            InputStream in = new BufferedInputStream(client.getInputStream());
+            OutputStream out = new BufferedOutputStream(client
+                .getOutputStream());
+            // the first byte tells the protocol
+            in.mark(1);
+            int first = in.read();
+            if (first == SemBinaryProtocol.MAGIC) {
+                frames(new DataInputStream(in), out);
+            }
+            else if (first >= 0) {
+                in.reset();
+                lines(in, out);
+            }
+            out.flush();
+        }
+        catch (IOException e) {
+            // the client is gone or the server is closed
+        }
+        finally {
+            processor.releaseThread();
+            sessions.remove(socket);
+        }
+    }
+
+
+    // run the commands of the text protocol
+    private void lines(InputStream input, OutputStream out)
+        throws IOException {
+        SemSharedProcessor.Session session = processor.newSession();
+        BufferedReader in = new BufferedReader(new InputStreamReader(input,
+            StandardCharsets.UTF_8));
+        String line = in.readLine();
+        while (line != null) {
+            byte[] response = session.line(line);
+            if (response != null) {
+                out.write(response);
+            }
+            // write the responses when no further command is waiting
+            if (!in.ready()) {
+                out.flush();
+            }
+            line = in.readLine();
+        }
+    }
+
+
+    // run the request frames of the binary protocol
+    private void frames(DataInputStream in, OutputStream out)
+        throws IOException {
+        while (true) {
+            int size;
+            try {
+                size = in.readInt();
+            }
+            catch (EOFException e) {
+                return;
+            }
+            if (size < 2 || size > SemBinaryProtocol.MAX_FRAME) {
+                throw new IOException("Invalid frame size " + size);
+            }
+            byte[] frame = new byte[size];
+            in.readFully(frame);
+            try {
+                out.write(processor.executeBatch(frame));
+            }
+            catch (IllegalArgumentException e) {
+                throw new IOException("Invalid frame", e);
+            }
+            // write the responses when no further frame is waiting
+            if (in.available() == 0) {
+                out.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+import student.TestCase;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class is used to perform testing on SemSessionServer.java class
+ *
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-17-2024
+ */
+public class SemSessionServerTest extends TestCase {
+    private SemSessionServer server;
+    private Thread serving;
+
+    /**
+     * Start a server on a free loopback port
+     *
+     * @throws Exception
+     */
+    public void setUp() throws Exception {
+        start(new SemCommandProcessor(64, 4));
+    }
+
+
+    // start a server of the processor on a free loopback port
+    private void start(SemCommandProcessor processor) throws Exception {
+        server = new SemSessionServer(new SemSharedProcessor(processor),
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        serving = new Thread(() -> {
+            try {
+                server.serve();
+            }
+            catch (Exception e) {
+                // ends the test server
+            }
+        });
+        serving.start();
+    }
+
+
+    /**
+     * Stop the server
+     *
+     * @throws Exception
+     */
+    public void tearDown() throws Exception {
+        server.close();
+        serving.join(10000);
+        assertFalse(serving.isAlive());
+    }
+
+
+    // a client connection
+    private Socket connect() throws Exception {
+        return new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+    }
+
+
+    // send text over a connection
+    private void send(Socket socket, String text) throws Exception {
+        OutputStream out = socket.getOutputStream();
+        out.write(text.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+
+    // read one response without its end line
+    private String response(BufferedReader in) throws Exception {
+        StringBuilder response = new StringBuilder();
+        String line = in.readLine();
+        while (!line.equals(".")) {
+            response.append(line).append("\n");
+            line = in.readLine();
+        }
+        return response.toString();
+    }
+
+
+    /**
+     * Test pipelined commands are answered in order
+     *
+     * @throws Exception
+     */
+    public void testCommands() throws Exception {
+        try (Socket socket = connect()) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(
+                socket.getInputStream(), StandardCharsets.UTF_8));
+            send(socket, "insert 4\r\nTitle\r\n0610051600 90 10 10 45\r\n"
+                + "HCI\r\n");
+            send(socket, "Description\nsearch 4\nhello\ndelete 4\n");
+            assertTrue(response(in).startsWith(
+                "Successfully inserted record with ID 4\n"));
+            assertTrue(response(in).startsWith("Found record with ID 4:\n"));
+            assertEquals("", response(in));
+            assertEquals("Record with ID 4 successfully deleted from the "
+                + "database\n", response(in));
+            send(socket, "search x\n");
+            assertTrue(response(in).startsWith("Error: "));
+        }
+    }
+
+
+    /**
+     * Test many open sessions, each one waits while the others are served,
+     * and the sessions are closed with the server
+     *
+     * @throws Exception
+     */
+    public void testManySessions() throws Exception {
+        Socket[] sockets = new Socket[200];
+        BufferedReader[] readers = new BufferedReader[sockets.length];
+        for (int i = 0; i < sockets.length; i++) {
+            sockets[i] = connect();
+            readers[i] = new BufferedReader(new InputStreamReader(sockets[i]
+                .getInputStream(), StandardCharsets.UTF_8));
+        }
+        for (int i = sockets.length - 1; i >= 0; i--) {
+            send(sockets[i], "search " + i + "\n");
+        }
+        for (int i = 0; i < sockets.length; i++) {
+            assertEquals("Search FAILED -- There is no record with ID " + i
+                + "\n", response(readers[i]));
+        }
+        server.close();
+        for (int i = 0; i < sockets.length; i++) {
+            assertNull(readers[i].readLine());
+            sockets[i].close();
+        }
+    }
+
+
+    /**
+     * Test a session that ends gives the free blocks of its thread cache
+     * back to the concurrent store
+     *
+     * @throws Exception
+     */
+    public void testSessionReleasesBlocks() throws Exception {
+        tearDown();
+        start(new SemCommandProcessor(4096, 4, SemOptions.parse(new String[] {
+            "--store=concurrent", "--block-cache=4" }, 0)));
+        try (Socket socket = connect()) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(
+                socket.getInputStream(), StandardCharsets.UTF_8));
+            send(socket, "insert 4\nTitle\n0610051600 90 10 10 45\nHCI\n"
+                + "Description\ndelete 4\nprint blocks\n");
+            response(in);
+            response(in);
+            // the blocks of the session thread are still cached
+            assertFalse(response(in).contains("4096: 0"));
+        }
+        String blocks = null;
+        for (int i = 0; i < 200 && !"Freeblock List:\n4096: 0\n".equals(
+            blocks); i++) {
+            Thread.sleep(10);
+            try (Socket socket = connect()) {
+                BufferedReader in = new BufferedReader(new InputStreamReader(
+                    socket.getInputStream(), StandardCharsets.UTF_8));
+                send(socket, "print blocks\n");
+                blocks = response(in);
+            }
+        }
+        assertEquals("Freeblock List:\n4096: 0\n", blocks);
+    }
+}
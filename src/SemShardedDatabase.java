@@ -0,0 +1,297 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A seminar database that splits the records by a hash of their ID into
+ * shards. Every shard is a SemDatabase of its own, with its own memory pool
+ * and hash table, and it is owned by one worker thread that runs the
+ * operations of the shard in the order they were given. The shards share
+ * nothing, so they need no locks and a pool or hash table growth in one shard
+ * does not hold up the others.
+ *
+ * The caller thread only hands every operation to its shard and goes on with
+ * the next one. The messages of an operation are collected by its shard and
+ * printed by the caller thread in the order of the operations, so the output
+ * has the same order as with one database. A memory pool or hash table
+ * reports the size of its shard, and the dumps print the shards one after the
+ * other.
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-10-2024
+ */
+public class SemShardedDatabase implements SemStore {
+    // the shards and their worker threads
+    private Shard[] shards;
+
+    // number of high bits of the ID hash that select the shard
+    private int shardBits;
+
+    // the messages of the handed over operations, in operation order
+    private ArrayDeque<Future<String>> pending = new ArrayDeque<>();
+
+    // the stream for the messages, null for System.out
+    private PrintStream out;
+
+    // the number of operations that may wait for their messages to print
+    private static final int MAX_PENDING = 4096;
+
+    /**
+     * The constructor for this class creates the shards, each with its share
+     * of the initial memory pool size and hash table capacity
+     *
+     * @param mSize
+     *            integer value of initial memory pool size which is value of
+     *            power of two
+     * @param hTCapacity
+     *            integer value of initial hash table capacity
+     * @param options
+     *            the optional settings, e.g., the number of shards
+     * @throws IllegalArgumentException
+     *             if the options select a persistent pool
+     */
+    public SemShardedDatabase(int mSize, int hTCapacity, SemOptions options) {
+        if (options.getPoolMode().equals("mapped")) {
+            throw new IllegalArgumentException(
+                "The sharded database does not support the mapped pool");
+        }
+        int count = Math.max(1, options.getShards());
+        shardBits = Integer.numberOfTrailingZeros(count);
+        shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard(i, new SemDatabase(Math.max(1, mSize / count),
+                Math.max(1, hTCapacity / count), options));
+        }
+    }
+
+
+    /**
+     * Set the stream that the messages of the shards are printed to
+     *
+     * @param output
+     *            the stream for the messages, null for System.out
+     */
+    public void setOutput(PrintStream output) {
+        out = output;
+    }
+
+
+    // get the shard of an ID, from the high bits of a multiplicative hash so
+    // the IDs of one shard still spread over the slots of its hash table
+    private Shard shardOf(int semID) {
+        if (shardBits == 0) {
+            return shards[0];
+        }
+        return shards[(semID * 0x9E3779B9) >>> (32 - shardBits)];
+    }
+
+
+    /**
+     * Insert the seminar object in its shard
+     *
+     * @param semID
+     *            integer value of the unique seminar ID
+     * @param sem
+     *            Seminar object
+     * @throws Exception
+     *             if an earlier operation failed
+     */
+    public void insert(int semID, Seminar sem) throws Exception {
+        submit(shardOf(semID), database -> database.insert(semID, sem));
+    }
+
+
+    /**
+     * Insert the seminar object in its shard with its record encoded ahead,
+     * the shard stores the record as it is. The record array is read later
+     * by the shard thread, so it must not be changed afterwards
+     *
+     * @param semID
+     *            integer value of the unique seminar ID
+     * @param sem
+     *            Seminar object
+     * @param record
+     *            byte array of the encoded record
+     * @param size
+     *            integer value of the record size (bytes)
+     * @throws Exception
+     *             if an earlier operation failed
+     */
+    public void insert(int semID, Seminar sem, byte[] record, int size)
+        throws Exception {
+        submit(shardOf(semID), database -> database.insert(semID, sem, record,
+            size));
+    }
+
+
+    /**
+     * delete a record given its key, i.e., seminar ID
+     *
+     * @param semID
+     *            integer value of the seminar ID
+     * @throws Exception
+     *             if an earlier operation failed
+     */
+    public void delete(int semID) throws Exception {
+        submit(shardOf(semID), database -> database.delete(semID));
+    }
+
+
+    /**
+     * search for a record by a given key, i.e., seminar ID
+     *
+     * @param seminID
+     *            integer value of the seminar ID
+     * @throws Exception
+     *             if an earlier operation failed
+     */
+    public void search(int seminID) throws Exception {
+        submit(shardOf(seminID), database -> database.search(seminID));
+    }
+
+
+    /**
+     * Prints out a dump of the hash table of every shard
+     *
+     * @throws Exception
+     *             if an earlier operation failed
+     */
+    public void hashTableDump() throws Exception {
+        for (Shard shard : shards) {
+            submit(shard, database -> database.hashTableDump());
+        }
+        flush();
+    }
+
+
+    /**
+     * Prints out a dump of the memory pool of every shard
+     *
+     * @throws Exception
+     *             if an earlier operation failed
+     */
+    public void memoryBlocksDataDump() throws Exception {
+        for (Shard shard : shards) {
+            submit(shard, database -> database.memoryBlocksDataDump());
+        }
+        flush();
+    }
+
+
+    /**
+     * Wait for all handed over operations and print their messages
+     *
+     * @throws Exception
+     *             if an operation failed
+     */
+    public void flush() throws Exception {
+        while (!pending.isEmpty()) {
+            printNext();
+        }
+    }
+
+
+    /**
+     * Close the database after all handed over operations are done, which
+     * releases the memory pools and ends the worker threads
+     *
+     * @throws IOException
+     *             if a shard can not be closed
+     */
+    public void close() throws IOException {
+        try {
+            flush();
+            for (Shard shard : shards) {
+                submit(shard, database -> database.close());
+            }
+            flush();
+        }
+        catch (IOException e) {
+            throw e;
+        }
+        catch (Exception e) {
+            throw new IOException(e);
+        }
+        finally {
+            for (Shard shard : shards) {
+                shard.worker.shutdown();
+            }
+        }
+    }
+
+
+    // hand an operation to the worker of its shard and print the messages of
+    // the operations that are done, the messages stay in operation order
+    private void submit(Shard shard, Operation operation) throws Exception {
+        pending.add(shard.worker.submit(shard.task(operation)));
+        while (!pending.isEmpty() && (pending.peek().isDone() || pending
+            .size() > MAX_PENDING)) {
+            printNext();
+        }
+    }
+
+
+    // wait for the oldest operation and print its messages
+    private void printNext() throws Exception {
+        try {
+            PrintStream output = out == null ? System.out : out;
+            output.print(pending.poll().get());
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception)e.getCause();
+            }
+            throw e;
+        }
+    }
+
+
+    /*********** Nested classes ***************/
+    // an operation on the database of one shard
+    private interface Operation {
+        void run(SemDatabase database) throws Exception;
+    }
+
+
+    // one shard, a database with its worker thread and the stream that
+    // collects the messages of the current operation
+    private static class Shard {
+        private final SemDatabase database;
+        private final ExecutorService worker;
+        private final ByteArrayOutputStream messages =
+            new ByteArrayOutputStream();
+
+        Shard(int number, SemDatabase database) {
+            this.database = database;
+            database.setOutput(new PrintStream(messages, true));
+            worker = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "SemShard-" + number);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+
+        // the task that runs an operation in the worker and returns its
+        // messages
+        Callable<String> task(Operation operation) {
+            return () -> {
+                try {
+                    operation.run(database);
+                    return messages.toString();
+                }
+                finally {
+                    messages.reset();
+                }
+            };
+        }
+    } /// close nested class Shard
+}
@@ -0,0 +1,120 @@
+import student.TestCase;
+import java.util.Arrays;
+
+/**
+ * This class is used to perform testing on SemShardedDatabase.java class
+ *
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-10-2024
+ */
+public class SemShardedDatabaseTest extends TestCase {
+    private String[] keywords = { "Good", "Bad", "Ugly" };
+
+    // a seminar with the given ID
+    private Seminar seminar(int id) {
+        return new Seminar(id, "Seminar " + id, "2405231000", 75, (short)15,
+            (short)33, 125, keywords, "This is seminar " + id);
+    }
+
+
+    /**
+     * Test the messages of the shards come in operation order and match one
+     * database
+     *
+     * @throws Exception
+     */
+    public void testMessageOrder() throws Exception {
+        SemDatabase single = new SemDatabase(1024, 64);
+        for (int id = 0; id < 200; id++) {
+            single.insert(id, seminar(id));
+            single.search(id / 2);
+            if (id % 3 == 0) {
+                single.delete(id / 3);
+            }
+        }
+        String expected = systemOut().getHistory();
+        systemOut().clearHistory();
+
+        SemShardedDatabase sharded = new SemShardedDatabase(1 << 16, 1 << 10,
+            SemOptions.parse(new String[] { "--shards=4" }, 0));
+        for (int id = 0; id < 200; id++) {
+            sharded.insert(id, seminar(id));
+            sharded.search(id / 2);
+            if (id % 3 == 0) {
+                sharded.delete(id / 3);
+            }
+        }
+        sharded.flush();
+        // the shards start big enough that nothing expands
+        assertEquals(expected.replaceAll("(Memory pool|Hash table) expanded"
+            + " to \\d+ (bytes|records)\n", ""), systemOut().getHistory());
+        sharded.close();
+    }
+
+
+    /**
+     * Test a record encoded ahead is stored as it is, not encoded again
+     *
+     * @throws Exception
+     */
+    public void testEncodedInsert() throws Exception {
+        SemShardedDatabase database = new SemShardedDatabase(4096, 4,
+            SemOptions.parse(new String[] { "--shards=2" }, 0));
+        SemRecordCodec codec = new SemRecordCodec();
+        int size = codec.encode(seminar(7));
+        byte[] record = Arrays.copyOf(codec.getBuffer(), size);
+        assertTrue(size < seminar(7).serialize().length);
+        database.insert(7, seminar(7), record, size);
+        database.search(7);
+        database.flush();
+        database.close();
+        assertEquals("Successfully inserted record with ID 7\n" + seminar(7)
+            .toString() + "\nSize: " + size + "\nFound record with ID 7:\n"
+            + seminar(7).toString() + "\n", systemOut().getHistory());
+    }
+
+
+    /**
+     * Test the dumps print every shard
+     *
+     * @throws Exception
+     */
+    public void testDumps() throws Exception {
+        SemShardedDatabase sharded = new SemShardedDatabase(64, 8, SemOptions
+            .parse(new String[] { "--shards=2" }, 0));
+        sharded.insert(1, seminar(1));
+        sharded.insert(2, seminar(2));
+        sharded.delete(2);
+        sharded.hashTableDump();
+        sharded.memoryBlocksDataDump();
+        String output = systemOut().getHistory();
+        assertEquals(2, output.split("Hashtable:", -1).length - 1);
+        assertEquals(2, output.split("Freeblock List:", -1).length - 1);
+        assertTrue(output.contains("total records: 1"));
+        assertTrue(output.contains("total records: 0"));
+        sharded.close();
+    }
+
+
+    /**
+     * Test the command processor uses the shards
+     *
+     * @throws Exception
+     */
+    public void testCommandProcessor() throws Exception {
+        SemCommandProcessor processor = new SemCommandProcessor(64, 4,
+            SemOptions.parse(new String[] { "--shards=2" }, 0));
+        processor.processor(new String[] { "insert 5", "Title",
+            "2405231000 75 15 33 125", "Good Bad", "Description" });
+        processor.processor("search 5");
+        processor.processor("delete 5");
+        processor.close();
+        String output = systemOut().getHistory();
+        assertTrue(output.contains("Found record with ID 5:"));
+        assertTrue(output.indexOf("Successfully inserted record with ID 5")
+            < output.indexOf("Record with ID 5 successfully deleted"));
+    }
+}
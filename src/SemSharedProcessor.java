@@ -0,0 +1,370 @@
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A command processor that many client sessions share, for the servers. The
+ * commands of all sessions run one at a time under a lock, so the database
+ * behind the processor is used by one thread at a time, and every command
+ * returns its own messages as the response for its session. A thread-safe
+ * store (--store=concurrent) runs the commands of different sessions at the
+ * same time without the lock. The messages are collected per thread, so
+ * every command still returns only its own messages.
+ *
+ * The response to a command is the messages that the command prints, followed
+ * by a line with a single dot. A command that fails is answered with an Error
+ * line before the dot line, and a line that starts with an unknown word with
+ * the dot line only.
+ *
+ * A Session turns the lines that a client sends into commands, with the rules
+ * of the command file: an insert command is the insert line and the four
+ * lines that follow it, a search, delete or print command is one line, and
+ * blank lines are skipped.
+ *
+ * The request frames of SemBinaryProtocol run with executeBatch, all the
+ * operations of a frame under the lock at once. On a thread-safe store the
+ * operations of a frame run in order, but those of other sessions may run
+ * between them. Every store keeps the records of the inserts as they were
+ * sent, none of them encodes the seminar again.
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-18-2024
+ */
+public class SemSharedProcessor {
+    // the processor, the messages of the running command of every thread and
+    // the lock that lets one command run at a time, null for a thread-safe
+    // store
+    private SemCommandProcessor processor;
+    private ThreadLocal<ByteArrayOutputStream> messages = ThreadLocal
+        .withInitial(ByteArrayOutputStream::new);
+    private ReentrantLock lock;
+
+    // the view of every thread that checks the records of the binary inserts
+    private ThreadLocal<SeminarView> views = ThreadLocal.withInitial(
+        SeminarView::new);
+
+    // the line that ends a response
+    private static final byte[] END = ".\n".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Share a processor, its messages go to the responses from now on
+     *
+     * @param processor
+     *            the processor that runs the commands
+     */
+    public SemSharedProcessor(SemCommandProcessor processor) {
+        this.processor = processor;
+        // the messages go to those of the thread that prints them
+        processor.setOutput(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+                messages.get().write(b);
+            }
+
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                messages.get().write(b, off, len);
+            }
+        }, false, StandardCharsets.UTF_8));
+        if (!processor.getStore().isThreadSafe()) {
+            lock = new ReentrantLock();
+        }
+    }
+
+
+    /**
+     * Run a command, after the commands that other threads are running
+     * unless the store is thread-safe
+     *
+     * @param command
+     *            the lines of the command, five lines for an insert command
+     *            and one line otherwise
+     * @return the response, the messages of the command and the end line
+     */
+    public byte[] execute(CharSequence[] command) {
+        ByteArrayOutputStream printed = messages.get();
+        lock();
+        try {
+            try {
+                if (command.length == 5) {
+                    processor.processor(command);
+                }
+                else {
+                    processor.processor(command[0]);
+                }
+                processor.flush();
+            }
+            catch (Exception e) {
+                printed.writeBytes(("Error: " + e + "\n").getBytes(
+                    StandardCharsets.UTF_8));
+            }
+            printed.writeBytes(END);
+            return printed.toByteArray();
+        }
+        finally {
+            printed.reset();
+            unlock();
+        }
+    }
+
+
+    /**
+     * Run the operations of a binary request frame one after the other,
+     * after the commands that other threads are running and before the next
+     * ones unless the store is thread-safe
+     *
+     * @param frame
+     *            the bytes of the request frame after its byte count
+     * @return the response frame with its byte count
+     * @throws IllegalArgumentException
+     *             if the frame is not well formed, then no operation runs
+     */
+    public byte[] executeBatch(byte[] frame) {
+        // the whole frame is checked before the first operation runs
+        ByteBuffer in = ByteBuffer.wrap(frame);
+        int count;
+        byte[] opcodes;
+        int[] ids;
+        int[] offsets;
+        int[] sizes;
+        try {
+            count = in.getShort() & 0xFFFF;
+            if (count > SemBinaryProtocol.MAX_BATCH) {
+                throw new IllegalArgumentException("Too many operations");
+            }
+            opcodes = new byte[count];
+            ids = new int[count];
+            offsets = new int[count];
+            sizes = new int[count];
+            for (int i = 0; i < count; i++) {
+                opcodes[i] = in.get();
+                switch (opcodes[i]) {
+                    case SemBinaryProtocol.INSERT:
+                        ids[i] = in.getInt();
+                        sizes[i] = in.getInt();
+                        if (sizes[i] < 0 || sizes[i] > in.remaining()) {
+                            throw new IllegalArgumentException(
+                                "Invalid record size " + sizes[i]);
+                        }
+                        offsets[i] = in.position();
+                        in.position(offsets[i] + sizes[i]);
+                        break;
+                    case SemBinaryProtocol.SEARCH:
+                    case SemBinaryProtocol.DELETE:
+                        ids[i] = in.getInt();
+                        break;
+                    case SemBinaryProtocol.PRINT_HASHTABLE:
+                    case SemBinaryProtocol.PRINT_BLOCKS:
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown opcode "
+                            + opcodes[i]);
+                }
+            }
+        }
+        catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Frame too short");
+        }
+        if (in.hasRemaining()) {
+            throw new IllegalArgumentException("Frame too long");
+        }
+
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        writeInt(response, 0);
+        response.write(count >> 8);
+        response.write(count);
+        ByteArrayOutputStream printed = messages.get();
+        lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                byte status = run(opcodes[i], ids[i], Arrays.copyOfRange(
+                    frame, offsets[i], offsets[i] + sizes[i]));
+                response.write(status);
+                writeInt(response, printed.size());
+                response.writeBytes(printed.toByteArray());
+                printed.reset();
+            }
+        }
+        finally {
+            printed.reset();
+            unlock();
+        }
+        byte[] bytes = response.toByteArray();
+        ByteBuffer.wrap(bytes).putInt(0, bytes.length - 4);
+        return bytes;
+    }
+
+
+    // run one operation of a frame, its messages go to the messages, and
+    // return its status
+    private byte run(byte opcode, int id, byte[] record) {
+        SemStore store = processor.getStore();
+        boolean ok = true;
+        try {
+            switch (opcode) {
+                case SemBinaryProtocol.INSERT:
+                    ok = insert(id, record);
+                    break;
+                case SemBinaryProtocol.SEARCH:
+                    store.search(id);
+                    break;
+                case SemBinaryProtocol.DELETE:
+                    store.delete(id);
+                    break;
+                case SemBinaryProtocol.PRINT_HASHTABLE:
+                    store.hashTableDump();
+                    break;
+                default:
+                    store.memoryBlocksDataDump();
+                    break;
+            }
+            processor.flush();
+        }
+        catch (Exception e) {
+            messages.get().writeBytes(("Error: " + e + "\n").getBytes(
+                StandardCharsets.UTF_8));
+            ok = false;
+        }
+        return ok ? SemBinaryProtocol.OK : SemBinaryProtocol.ERROR;
+    }
+
+
+    // insert a record as it was sent, after the checks of an insert command,
+    // false if it is not a record of the ID within the limits
+    private boolean insert(int id, byte[] record) throws Exception {
+        Seminar sem;
+        SeminarView view = views.get();
+        try {
+            view.bind(ByteBuffer.wrap(record));
+            // every keyword takes two bytes at least, a larger count is not
+            // allocated
+            int keywords = view.getKeywordCount();
+            sem = keywords >= 0 && keywords <= record.length / 2
+                ? view.toSeminar()
+                : null;
+        }
+        catch (RuntimeException e) {
+            // not a record
+            sem = null;
+        }
+        if (sem != null) {
+            int keywordCharacters = 0;
+            for (String keyword : sem.getKeywords()) {
+                keywordCharacters += keyword.length();
+            }
+            if (sem.getId() != id || !SemCommandProcessor.withinLimits(sem
+                .getTitle(), keywordCharacters, sem.getDescription())) {
+                sem = null;
+            }
+        }
+        // an invalid record is answered with the usage of the insert command
+        processor.insert(sem, record, record.length);
+        return sem != null;
+    }
+
+
+    /**
+     * Give back what the database keeps for the calling thread, after the
+     * last command of a session
+     */
+    public void releaseThread() {
+        processor.releaseThread();
+    }
+
+
+    // wait for the lock, if the store needs one
+    private void lock() {
+        if (lock != null) {
+            lock.lock();
+        }
+    }
+
+
+    // release the lock, if the store needs one
+    private void unlock() {
+        if (lock != null) {
+            lock.unlock();
+        }
+    }
+
+
+    // append a big-endian int
+    private static void writeInt(ByteArrayOutputStream bytes, int value) {
+        bytes.write(value >> 24);
+        bytes.write(value >> 16);
+        bytes.write(value >> 8);
+        bytes.write(value);
+    }
+
+
+    /**
+     * @return a new session for the lines of one client
+     */
+    public Session newSession() {
+        return new Session(this);
+    }
+
+
+    /*********** Nested classes ***************/
+    /**
+     * The lines of one client, used by one thread at a time
+     */
+    public static class Session {
+        private final SemSharedProcessor shared;
+        private final SemCommandTokenizer tokens = new SemCommandTokenizer();
+        private final String[] insert = new String[5];
+        private int insertLines;
+
+        /**
+         * @param shared
+         *            the processor that runs the commands of the session
+         */
+        Session(SemSharedProcessor shared) {
+            this.shared = shared;
+        }
+
+
+        /**
+         * Take the next line of the client
+         *
+         * @param line
+         *            the line without its line end
+         * @return the response if the line completes a command or is not a
+         *         command, null if the line is blank or a command needs
+         *         more lines
+         */
+        public byte[] line(String line) {
+            tokens.reset(line);
+            if (!tokens.next()) {
+                // blank line
+                return null;
+            }
+            if (insertLines > 0) {
+                insert[insertLines++] = line;
+                if (insertLines < insert.length) {
+                    return null;
+                }
+                insertLines = 0;
+                return shared.execute(insert);
+            }
+            if (tokens.wordEquals("insert")) {
+                insert[0] = line;
+                insertLines = 1;
+                return null;
+            }
+            if (tokens.wordEquals("search") || tokens.wordEquals("delete")
+                || tokens.wordEquals("print")) {
+                return shared.execute(new String[] { line });
+            }
+            return END.clone();
+        }
+    } /// close nested class Session
+}
@@ -0,0 +1,121 @@
+import student.TestCase;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class is used to perform testing on SemSharedProcessor.java class
+ *
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-17-2024
+ */
+public class SemSharedProcessorTest extends TestCase {
+    private SemSharedProcessor shared;
+
+    /**
+     * Set up the shared processor
+     */
+    public void setUp() {
+        shared = new SemSharedProcessor(new SemCommandProcessor(64, 4));
+    }
+
+
+    // the response as text
+    private String text(byte[] response) {
+        return response == null
+            ? null
+            : new String(response, StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Test a session assembles the commands from its lines
+     */
+    public void testSession() {
+        SemSharedProcessor.Session session = shared.newSession();
+        assertNull(session.line("insert 9"));
+        assertNull(session.line("  "));
+        assertNull(session.line("Title"));
+        assertNull(session.line("0610051600 90 10 10 45"));
+        assertNull(session.line("HCI"));
+        String response = text(session.line("Description"));
+        assertTrue(response.startsWith(
+            "Successfully inserted record with ID 9\n"));
+        assertTrue(response.contains("\nSize: "));
+        assertTrue(response.endsWith("\n.\n"));
+        assertEquals(".\n", text(session.line("hello")));
+        assertNull(session.line(""));
+        assertEquals("Record with ID 9 successfully deleted from the "
+            + "database\n.\n", text(session.line("delete 9")));
+        assertTrue(text(session.line("search x")).startsWith("Error: "));
+        assertEquals("", systemOut().getHistory());
+    }
+
+
+    // run commands in threads at the same time, each thread must get the
+    // messages of its own commands
+    private void checkThreads() throws Exception {
+        Thread[] threads = new Thread[4];
+        String[] failures = new String[threads.length];
+        for (int t = 0; t < threads.length; t++) {
+            int first = t * 100;
+            int index = t;
+            threads[t] = new Thread(() -> {
+                for (int id = first; id < first + 100; id++) {
+                    String response = text(shared.execute(new String[] {
+                        "insert " + id, "Title " + id,
+                        "0610051600 90 10 10 45", "HCI", "Description" }));
+                    if (!response.startsWith(
+                        "Successfully inserted record with ID " + id + "\n")
+                        && !response.startsWith("Memory pool expanded")
+                        && !response.startsWith("Hash table expanded")) {
+                        failures[index] = response;
+                    }
+                    response = text(shared.execute(new String[] { "search "
+                        + id }));
+                    if (!response.startsWith("Found record with ID " + id
+                        + ":\n") || response.indexOf("Found", 1) >= 0) {
+                        failures[index] = response;
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (String failure : failures) {
+            assertNull(failure);
+        }
+    }
+
+
+    /**
+     * Test threads run commands at the same time, each gets the messages of
+     * its own commands
+     *
+     * @throws Exception
+     */
+    public void testThreads() throws Exception {
+        checkThreads();
+    }
+
+
+    /**
+     * Test the commands of threads run without the lock on a thread-safe
+     * store, each thread still gets the messages of its own commands
+     *
+     * @throws Exception
+     */
+    public void testConcurrentStore() throws Exception {
+        SemOptions options = SemOptions.parse(new String[] {
+            "--store=concurrent", "--stripes=4" }, 0);
+        SemCommandProcessor processor = new SemCommandProcessor(64, 4,
+            options);
+        assertTrue(processor.getStore().isThreadSafe());
+        shared = new SemSharedProcessor(processor);
+        checkThreads();
+        assertEquals("", systemOut().getHistory());
+    }
+}
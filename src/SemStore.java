@@ -0,0 +1,190 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Collection;
+
+/**
+ * The operations of a seminar database that the command processor calls.
+ * Every operation prints its messages in the format of the project specs.
+ * SemDatabase is the single-threaded database, SemConcurrentDatabase and
+ * SemShardedDatabase spread the records over several hash tables.
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-18-2024
+ */
+public interface SemStore {
+    /**
+     * Insert the seminar object
+     *
+     * @param semID
+     *            integer value of the unique seminar ID
+     * @param sem
+     *            Seminar object
+     * @throws Exception
+     *             if the seminar can not be stored
+     */
+    public void insert(int semID, Seminar sem) throws Exception;
+
+
+    /**
+     * Insert the seminar object with its record encoded ahead in the form of
+     * the codec of the database, e.g., by another thread. The databases
+     * store the record as it is, the record array must not be changed
+     * afterwards. The default ignores the record and encodes the seminar
+     * again.
+     *
+     * @param semID
+     *            integer value of the unique seminar ID
+     * @param sem
+     *            Seminar object
+     * @param record
+     *            byte array of the encoded record
+     * @param size
+     *            integer value of the record size (bytes)
+     * @throws Exception
+     *             if the seminar can not be stored
+     */
+    public default void insert(int semID, Seminar sem, byte[] record, int size)
+        throws Exception {
+        insert(semID, sem);
+    }
+
+
+    /**
+     * Tell whether many threads may call the operations at the same time.
+     * The default is false, the callers take turns.
+     *
+     * @return true if the store is thread-safe
+     */
+    public default boolean isThreadSafe() {
+        return false;
+    }
+
+
+    /**
+     * Insert many seminars, each by its ID and with the messages of an
+     * insert. The default inserts them one after the other.
+     *
+     * @param sems
+     *            the seminars in the order of their messages
+     * @throws Exception
+     *             if a seminar can not be stored
+     */
+    public default void insertAll(Collection<Seminar> sems) throws Exception {
+        for (Seminar sem : sems) {
+            insert(sem.getId(), sem);
+        }
+    }
+
+
+    /**
+     * delete a record given its key, i.e., seminar ID
+     *
+     * @param semID
+     *            integer value of the seminar ID
+     * @throws Exception
+     *             if the record can not be deleted
+     */
+    public void delete(int semID) throws Exception;
+
+
+    /**
+     * search for a record by a given key, i.e., seminar ID
+     *
+     * @param seminID
+     *            integer value of the seminar ID
+     * @throws Exception
+     *             if the record can not be read
+     */
+    public void search(int seminID) throws Exception;
+
+
+    /**
+     * Search for many records, with the messages of a search for every ID
+     * in the given order. The default searches one ID after the other.
+     *
+     * @param semIDs
+     *            the seminar IDs
+     * @throws Exception
+     *             if a record can not be read
+     */
+    public default void search(int[] semIDs) throws Exception {
+        for (int semID : semIDs) {
+            search(semID);
+        }
+    }
+
+
+    /**
+     * Delete many records, with the messages of a delete for every ID in the
+     * given order. The default deletes one ID after the other.
+     *
+     * @param semIDs
+     *            the seminar IDs
+     * @throws Exception
+     *             if a record can not be deleted
+     */
+    public default void delete(int[] semIDs) throws Exception {
+        for (int semID : semIDs) {
+            delete(semID);
+        }
+    }
+
+
+    /**
+     * Prints out a dump of the hash table contents
+     *
+     * @throws Exception
+     *             if the dump can not be printed
+     */
+    public void hashTableDump() throws Exception;
+
+
+    /**
+     * Prints out a dump of the memory pool contents
+     *
+     * @throws Exception
+     *             if the dump can not be printed
+     */
+    public void memoryBlocksDataDump() throws Exception;
+
+
+    /**
+     * Set the stream that the messages of the database are printed to
+     *
+     * @param output
+     *            the stream for the messages, null for System.out
+     */
+    public void setOutput(PrintStream output);
+
+
+    /**
+     * Print the messages of all operations that were handed over so far, for
+     * a database that prints them later. The default does nothing.
+     *
+     * @throws Exception
+     *             if an operation failed
+     */
+    public default void flush() throws Exception {
+        // the messages are printed by the operations
+    }
+
+
+    /**
+     * Give back what the calling thread keeps for its own operations, when
+     * the thread runs no more operations. The default does nothing.
+     */
+    public default void releaseThreadCache() {
+        // no thread keeps anything
+    }
+
+
+    /**
+     * Close the database, it can not be used afterwards
+     *
+     * @throws IOException
+     *             if the database can not be saved
+     */
+    public void close() throws IOException;
+}
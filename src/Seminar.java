@@ -1,4 +1,5 @@
 import java.io.*;
+import java.nio.ByteBuffer;
 
 /**
  * Seminar class with serialization/deserialization support. You should use this
@@ -87,7 +88,29 @@ public class Seminar implements Serializable {
      */
 
     public static Seminar deserialize(byte[] inputbytes) throws Exception {
-        ByteArrayInputStream bis = new ByteArrayInputStream(inputbytes);
+        return deserialize(new ByteArrayInputStream(inputbytes));
+    }
+
+
+    /**
+     * Return a Seminar object made by deserializing the bytes of a buffer,
+     * e.g., a read-only view of a record in the memory pool, without copying
+     * them into a byte array first
+     *
+     * @param inputbytes
+     *            A buffer whose remaining bytes are a serialized Seminar
+     *            object, its position is not changed
+     * @return the deserialized Seminar
+     * @throws Exception
+     *             from byte stream
+     */
+    public static Seminar deserialize(ByteBuffer inputbytes) throws Exception {
+        return deserialize(new ByteBufferInputStream(inputbytes.duplicate()));
+    }
+
+
+    // deserialize a Seminar object from a byte stream
+    private static Seminar deserialize(InputStream bis) throws Exception {
         try (ObjectInputStream inputStream = new ObjectInputStream(bis)) {
             int id = inputStream.readInt();
             String title = inputStream.readUTF();
@@ -143,6 +166,78 @@ public class Seminar implements Serializable {
     }
 
 
+    /**
+     * @return the seminar ID
+     */
+    public int getId() {
+        return id;
+    }
+
+
+    /**
+     * @return the seminar title
+     */
+    public String getTitle() {
+        return title;
+    }
+
+
+    /**
+     * @return the seminar date
+     */
+    public String getDate() {
+        return date;
+    }
+
+
+    /**
+     * @return the seminar length
+     */
+    public int getLength() {
+        return length;
+    }
+
+
+    /**
+     * @return the seminar x coordinate
+     */
+    public short getX() {
+        return x;
+    }
+
+
+    /**
+     * @return the seminar y coordinate
+     */
+    public short getY() {
+        return y;
+    }
+
+
+    /**
+     * @return the seminar cost
+     */
+    public int getCost() {
+        return cost;
+    }
+
+
+    /**
+     * @return the seminar keywords
+     */
+    public String[] getKeywords() {
+        return keywords;
+    }
+
+
+    /**
+     * @return the seminar description
+     */
+    public String getDescription() {
+        return desc;
+    }
+
+
     /**
      * @return a string representation of the object.
      */
@@ -159,4 +254,39 @@ public class Seminar implements Serializable {
             + cost + "\nDescription: " + desc + "\nKeywords: " + mykeys;
     }
 
+
+    /**
+     * Input stream over the remaining bytes of a buffer
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
 } /// close the outer class (Seminar class)
@@ -58,4 +58,24 @@ public class SeminarTest extends TestCase {
         System.out.println(sem2Print);
         assertTrue(semPrint.equals(sem2Print));
     }
+
+
+    /**
+     * Check the deserialization from a buffer
+     * 
+     * @throws Exception
+     */
+    public void testSeminarFromBuffer() throws Exception {
+        String[] keywords = { "Good", "Bad", "Ugly" };
+        Seminar mysem = new Seminar(1729, "Seminar Title", "2405231000", 75,
+            (short)15, (short)33, 125, keywords, "This is a great seminar");
+        byte[] bytes = mysem.serialize();
+        byte[] padded = new byte[bytes.length + 10];
+        System.arraycopy(bytes, 0, padded, 5, bytes.length);
+        java.nio.ByteBuffer buffer = java.nio.ByteBuffer.wrap(padded, 5,
+            bytes.length).slice();
+        Seminar mysem2 = Seminar.deserialize(buffer);
+        assertEquals(mysem.toString(), mysem2.toString());
+        assertEquals(0, buffer.position());
+    }
 }
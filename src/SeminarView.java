@@ -0,0 +1,347 @@
+import java.nio.ByteBuffer;
+
+/**
+ * A flyweight view of a serialized Seminar record that reads its fields
+ * straight from the record bytes, e.g., from a read-only view of the memory
+ * pool. The number fields are read by their offset when they are asked for,
+ * and the strings are only decoded by the accessors that return them, so a
+ * caller that needs the cost of a seminar does not build its title,
+ * description and keywords. One view is bound to one record after the other,
+ * so looking up many records does not create a view per record.
+ * 
+ * The record is the canonical serialized form of Seminar.serialize. The
+ * fields are written by an ObjectOutputStream, which starts with a stream
+ * header and puts the field bytes in block data records. The view finds the
+ * field bytes once when it is bound and then reads the fields in this order:
+ * 
+ * int id, UTF title, UTF date, int length, short x, short y, int cost,
+ * int number of keywords, UTF keyword ..., UTF description
+ * 
+ * where a UTF string is an unsigned short byte count followed by the
+ * modified UTF-8 bytes of the string. The view also reads the compact form
+ * of SemRecordCodec, which has the same fields after one marker byte.
+ * 
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ * 
+ * @version 05-06-2024
+ */
+public class SeminarView {
+    // stream header of an ObjectOutputStream and its block data records
+    private static final int STREAM_HEADER_SIZE = 4;
+    private static final int TC_BLOCKDATA = 0x77;
+    private static final int TC_BLOCKDATALONG = 0x7A;
+
+    // the buffer and the position of the first field byte
+    private ByteBuffer fields;
+    private int base;
+
+    // field bytes gathered from a record with more than one block
+    private byte[] gathered;
+    private ByteBuffer gatheredBuffer;
+
+    // field offsets from base that depend on the string lengths, -1 until
+    // they are needed
+    private int dateOffset;
+    private int lengthOffset;
+    private int descOffset;
+
+    // buffer to decode the strings
+    private char[] chars;
+
+    /** constructor for a view that is not bound to a record yet */
+    public SeminarView() {
+        gathered = new byte[0];
+        gatheredBuffer = ByteBuffer.wrap(gathered);
+        chars = new char[80];
+    }
+
+
+    /**
+     * Bind the view to a serialized Seminar record
+     * 
+     * @param record
+     *            buffer whose remaining bytes are a serialized Seminar, its
+     *            position is not changed. The view reads the buffer until it
+     *            is bound to another record
+     * @return this view
+     * @throws IllegalArgumentException
+     *             if the bytes are not a serialized Seminar
+     */
+    public SeminarView bind(ByteBuffer record) {
+        int pos = record.position();
+        int end = record.limit();
+        if (end > pos && record.get(pos) == SemRecordCodec.COMPACT_MARKER) {
+            // a compact record has no framing
+            fields = record;
+            base = pos + 1;
+            dateOffset = -1;
+            lengthOffset = -1;
+            descOffset = -1;
+            return this;
+        }
+        if (end - pos < STREAM_HEADER_SIZE + 2 || (record.getShort(pos)
+            & 0xFFFF) != 0xACED) {
+            throw new IllegalArgumentException("Not a serialized Seminar");
+        }
+        pos += STREAM_HEADER_SIZE;
+        int blockLength = blockLength(record, pos);
+        int blockHeader = headerSize(record, pos);
+        if (pos + blockHeader + blockLength >= end) {
+            // one block (the usual case), the fields are read in place
+            fields = record;
+            base = pos + blockHeader;
+        }
+        else {
+            gather(record, pos, end);
+        }
+        dateOffset = -1;
+        lengthOffset = -1;
+        descOffset = -1;
+        return this;
+    }
+
+
+    // copy the field bytes of all the block data records of a record into
+    // the gathered buffer
+    private void gather(ByteBuffer record, int pos, int end) {
+        int count = 0;
+        while (pos < end) {
+            int blockLength = blockLength(record, pos);
+            pos += headerSize(record, pos);
+            blockLength = Math.min(blockLength, end - pos);
+            if (count + blockLength > gathered.length) {
+                byte[] larger = new byte[Math.max(count + blockLength,
+                    gathered.length * 2)];
+                System.arraycopy(gathered, 0, larger, 0, count);
+                gathered = larger;
+                gatheredBuffer = ByteBuffer.wrap(gathered);
+            }
+            record.get(pos, gathered, count, blockLength);
+            count += blockLength;
+            pos += blockLength;
+        }
+        fields = gatheredBuffer;
+        base = 0;
+    }
+
+
+    // size of the block data header at pos
+    private static int headerSize(ByteBuffer record, int pos) {
+        return (record.get(pos) & 0xFF) == TC_BLOCKDATALONG ? 5 : 2;
+    }
+
+
+    // number of field bytes in the block data record at pos
+    private static int blockLength(ByteBuffer record, int pos) {
+        int tag = record.get(pos) & 0xFF;
+        if (tag == TC_BLOCKDATA) {
+            return record.get(pos + 1) & 0xFF;
+        }
+        if (tag == TC_BLOCKDATALONG) {
+            return record.getInt(pos + 1);
+        }
+        throw new IllegalArgumentException("Not a serialized Seminar");
+    }
+
+
+    /*********************/
+    // Field accessors
+    /********************/
+    /**
+     * @return the seminar ID
+     */
+    public int getId() {
+        return fields.getInt(base);
+    }
+
+
+    /**
+     * @return the seminar title (decoded on every call)
+     */
+    public String getTitle() {
+        return readUTF(4);
+    }
+
+
+    /**
+     * @return the seminar date (decoded on every call)
+     */
+    public String getDate() {
+        return readUTF(dateOffset());
+    }
+
+
+    /**
+     * @return the seminar length
+     */
+    public int getLength() {
+        return fields.getInt(base + lengthOffset());
+    }
+
+
+    /**
+     * @return the seminar x coordinate
+     */
+    public short getX() {
+        return fields.getShort(base + lengthOffset() + 4);
+    }
+
+
+    /**
+     * @return the seminar y coordinate
+     */
+    public short getY() {
+        return fields.getShort(base + lengthOffset() + 6);
+    }
+
+
+    /**
+     * @return the seminar cost
+     */
+    public int getCost() {
+        return fields.getInt(base + lengthOffset() + 8);
+    }
+
+
+    /**
+     * @return the number of keywords of the seminar
+     */
+    public int getKeywordCount() {
+        return fields.getInt(base + lengthOffset() + 12);
+    }
+
+
+    /**
+     * Get one keyword
+     * 
+     * @param index
+     *            integer value of the keyword index
+     * @return the keyword (decoded on every call)
+     */
+    public String getKeyword(int index) {
+        int offset = lengthOffset() + 16;
+        for (int i = 0; i < index; i++) {
+            offset += 2 + utfLength(offset);
+        }
+        return readUTF(offset);
+    }
+
+
+    /**
+     * @return the seminar description (decoded on every call)
+     */
+    public String getDescription() {
+        return readUTF(descOffset());
+    }
+
+
+    /**
+     * @return a Seminar object with all the fields of the record
+     */
+    public Seminar toSeminar() {
+        String[] keywords = new String[getKeywordCount()];
+        for (int i = 0; i < keywords.length; i++) {
+            keywords[i] = getKeyword(i);
+        }
+        return new Seminar(getId(), getTitle(), getDate(), getLength(), getX(),
+            getY(), getCost(), keywords, getDescription());
+    }
+
+
+    /**
+     * @return a string representation of the record, the same as the
+     *         toString of the Seminar object of the record
+     */
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append("ID: ").append(getId());
+        text.append(", Title: ").append(getTitle());
+        text.append("\nDate: ").append(getDate());
+        text.append(", Length: ").append(getLength());
+        text.append(", X: ").append(getX());
+        text.append(", Y: ").append(getY());
+        text.append(", Cost: ").append(getCost());
+        text.append("\nDescription: ").append(getDescription());
+        text.append("\nKeywords: ");
+        int count = getKeywordCount();
+        int offset = lengthOffset() + 16;
+        for (int i = 0; i < count; i++) {
+            text.append(readUTF(offset));
+            if (i != count - 1) {
+                text.append(", ");
+            }
+            offset += 2 + utfLength(offset);
+        }
+        return text.toString();
+    }
+
+
+    /*******************************/
+    // Helper methods for the offsets
+    /*******************************/
+
+    private int dateOffset() {
+        if (dateOffset < 0) {
+            dateOffset = 4 + 2 + utfLength(4);
+        }
+        return dateOffset;
+    }
+
+
+    private int lengthOffset() {
+        if (lengthOffset < 0) {
+            lengthOffset = dateOffset() + 2 + utfLength(dateOffset());
+        }
+        return lengthOffset;
+    }
+
+
+    private int descOffset() {
+        if (descOffset < 0) {
+            int count = getKeywordCount();
+            int offset = lengthOffset() + 16;
+            for (int i = 0; i < count; i++) {
+                offset += 2 + utfLength(offset);
+            }
+            descOffset = offset;
+        }
+        return descOffset;
+    }
+
+
+    // byte count of the UTF string at the offset
+    private int utfLength(int offset) {
+        return fields.getShort(base + offset) & 0xFFFF;
+    }
+
+
+    // decode the modified UTF-8 string at the offset
+    private String readUTF(int offset) {
+        int length = utfLength(offset);
+        if (chars.length < length) {
+            chars = new char[length];
+        }
+        int pos = base + offset + 2;
+        int end = pos + length;
+        int count = 0;
+        while (pos < end) {
+            int c = fields.get(pos) & 0xFF;
+            if (c < 0x80) {
+                chars[count++] = (char)c;
+                pos++;
+            }
+            else if ((c & 0xE0) == 0xC0) {
+                chars[count++] = (char)(((c & 0x1F) << 6) | (fields.get(pos
+                    + 1) & 0x3F));
+                pos += 2;
+            }
+            else {
+                chars[count++] = (char)(((c & 0x0F) << 12) | ((fields.get(pos
+                    + 1) & 0x3F) << 6) | (fields.get(pos + 2) & 0x3F));
+                pos += 3;
+            }
+        }
+        return new String(chars, 0, count);
+    }
+}
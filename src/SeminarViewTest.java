@@ -0,0 +1,82 @@
+import student.TestCase;
+import java.nio.ByteBuffer;
+
+/**
+ * This class is used to perform testing on SeminarView.java class
+ *
+ *
+ * @author Sadath-Mohammed-msadath
+ * @author Emadeldin-Abdrabou-emazied
+ *
+ * @version 05-06-2024
+ */
+public class SeminarViewTest extends TestCase {
+    /**
+     * Test the fields of a record read through the view
+     * 
+     * @throws Exception
+     */
+    public void testFields() throws Exception {
+        String[] keywords = { "Good", "Bad", "Ugly" };
+        Seminar mysem = new Seminar(1729, "Seminar Title", "2405231000", 75,
+            (short)15, (short)-33, 125, keywords, "This is a great seminar");
+        SeminarView view = new SeminarView().bind(ByteBuffer.wrap(mysem
+            .serialize()));
+        assertEquals(1729, view.getId());
+        assertEquals(125, view.getCost());
+        assertEquals(15, view.getX());
+        assertEquals(-33, view.getY());
+        assertEquals(75, view.getLength());
+        assertEquals("Seminar Title", view.getTitle());
+        assertEquals("2405231000", view.getDate());
+        assertEquals(3, view.getKeywordCount());
+        assertEquals("Ugly", view.getKeyword(2));
+        assertEquals("This is a great seminar", view.getDescription());
+        assertEquals(mysem.toString(), view.toString());
+        assertEquals(mysem.toString(), view.toSeminar().toString());
+    }
+
+
+    /**
+     * Test the view is reused for another record, including a record with
+     * non ASCII characters and more than one block of data
+     * 
+     * @throws Exception
+     */
+    public void testRebind() throws Exception {
+        SeminarView view = new SeminarView();
+        String[] keywords = { "ké", "€" };
+        Seminar first = new Seminar(1, "Tïtle", "d", 1, (short)2,
+            (short)3, 4, keywords, "desc");
+        view.bind(ByteBuffer.wrap(first.serialize()));
+        assertEquals(first.toString(), view.toString());
+
+        String[] manyKeywords = new String[400];
+        for (int i = 0; i < manyKeywords.length; i++) {
+            manyKeywords[i] = "keyword" + i;
+        }
+        Seminar second = new Seminar(2, "Title", "date", 5, (short)6,
+            (short)7, 8, manyKeywords, "long description");
+        byte[] bytes = second.serialize();
+        assertTrue(bytes.length > 1024);
+        view.bind(ByteBuffer.wrap(bytes));
+        assertEquals(2, view.getId());
+        assertEquals(8, view.getCost());
+        assertEquals("keyword399", view.getKeyword(399));
+        assertEquals(second.toString(), view.toString());
+    }
+
+
+    /** Test binding bytes that are not a serialized seminar */
+    public void testInvalidRecord() {
+        Exception exception = null;
+        try {
+            new SeminarView().bind(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4,
+                5, 6 }));
+        }
+        catch (IllegalArgumentException e) {
+            exception = e;
+        }
+        assertNotNull(exception);
+    }
+}